@@ -0,0 +1,104 @@
+package com.backbase.accelerators.payment.benchmark;
+
+import com.backbase.accelerators.payment.eligibility.Eligibility;
+import com.backbase.accelerators.payment.eligibility.EligibilityEvaluator;
+import com.backbase.accelerators.payment.mapper.PaymentOrderMapper;
+import com.backbase.accelerators.payment.mapper.PaymentOrderMapperImpl;
+import com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics;
+import com.backbase.accelerators.payment.model.ScheduledPaymentOrder;
+import com.backbase.payments.v2.service.model.GetPaymentOrderResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Per-order cost of selecting the due payments of fetched pages, i.e. the filter pipeline that
+ * {@code ScheduledPaymentExecutorServiceImpl} runs over every page before submitting anything: the eligibility
+ * evaluation, its metrics and the mapping of the due orders. The book is split into pages of {@code pageSize} orders.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(DuePaymentSelectionBenchmark.BOOK_SIZE)
+public class DuePaymentSelectionBenchmark {
+
+    static final int BOOK_SIZE = 10_000;
+
+    @Param({"100", "1000"})
+    private int pageSize;
+
+    @Param({"0.02", "0.2"})
+    private double dueFraction;
+
+    private final PaymentOrderMapper paymentOrderMapper = new PaymentOrderMapperImpl();
+    private final PaymentSchedulerMetrics paymentSchedulerMetrics = new PaymentSchedulerMetrics(new SimpleMeterRegistry());
+
+    private List<List<GetPaymentOrderResponse>> pages;
+    private EligibilityEvaluator eligibilityEvaluator;
+
+    @Setup
+    public void setUp() {
+        LocalDate today = LocalDate.now();
+        List<GetPaymentOrderResponse> book = new SyntheticPaymentOrders(42, today, dueFraction).book(BOOK_SIZE);
+        eligibilityEvaluator = new EligibilityEvaluator(today);
+
+        pages = new ArrayList<>();
+        for (int from = 0; from < book.size(); from += pageSize) {
+            pages.add(book.subList(from, Math.min(from + pageSize, book.size())));
+        }
+    }
+
+    @Benchmark
+    public int selectDuePayments() {
+        int due = 0;
+        for (List<GetPaymentOrderResponse> page : pages) {
+            due += selectDuePayments(page).size();
+        }
+
+        return due;
+    }
+
+    private List<ScheduledPaymentOrder> selectDuePayments(List<GetPaymentOrderResponse> getPaymentOrderResponseList) {
+        getPaymentOrderResponseList.forEach(getPaymentOrderResponse ->
+                paymentSchedulerMetrics.recordFetched(getPaymentOrderResponse.getPaymentType()));
+
+        List<ScheduledPaymentOrder> scheduledPaymentOrders = getPaymentOrderResponseList.stream()
+                .filter(this::isDue)
+                .map(paymentOrderMapper::toScheduledPaymentOrder)
+                .collect(Collectors.toList());
+
+        paymentSchedulerMetrics.recordFilterSelectivity(getPaymentOrderResponseList.size(), scheduledPaymentOrders.size());
+
+        return scheduledPaymentOrders;
+    }
+
+    private boolean isDue(GetPaymentOrderResponse getPaymentOrderResponse) {
+        Eligibility eligibility = eligibilityEvaluator.evaluate(getPaymentOrderResponse);
+        if (eligibility.isDue()) {
+            paymentSchedulerMetrics.recordEligible(getPaymentOrderResponse.getPaymentType());
+        } else {
+            paymentSchedulerMetrics.recordFilteredOut(getPaymentOrderResponse.getPaymentType(), eligibility.getReason());
+        }
+
+        return eligibility.isDue();
+    }
+}
@@ -0,0 +1,52 @@
+package com.backbase.accelerators.payment.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Log-normal response time of a stubbed downstream call, described by its median and 99th percentile. A long right
+ * tail with a small median is what remote calls usually look like, and it is what exposes head-of-line blocking.
+ */
+public final class LatencyDistribution {
+
+    private static final double Z_99 = 2.326;
+
+    private final double medianMillis;
+    private final double sigma;
+
+    private LatencyDistribution(double medianMillis, double p99Millis) {
+        this.medianMillis = medianMillis;
+        this.sigma = medianMillis > 0 && p99Millis > medianMillis ? Math.log(p99Millis / medianMillis) / Z_99 : 0;
+    }
+
+    public static LatencyDistribution none() {
+        return new LatencyDistribution(0, 0);
+    }
+
+    /**
+     * Parses {@code <median>/<p99>} in milliseconds, e.g. {@code 20/150}. A single value means a fixed latency.
+     */
+    public static LatencyDistribution parse(String value) {
+        String[] parts = value.split("/");
+        double median = Double.parseDouble(parts[0]);
+        double p99 = parts.length > 1 ? Double.parseDouble(parts[1]) : median;
+
+        return new LatencyDistribution(median, p99);
+    }
+
+    public Duration sample() {
+        if (medianMillis <= 0) {
+            return Duration.ZERO;
+        }
+
+        double millis = medianMillis * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian());
+        return Duration.ofNanos((long) (millis * 1_000_000));
+    }
+
+    @Override
+    public String toString() {
+        return medianMillis <= 0
+                ? "none"
+                : String.format("p50=%.0fms p99=%.0fms", medianMillis, medianMillis * Math.exp(sigma * Z_99));
+    }
+}
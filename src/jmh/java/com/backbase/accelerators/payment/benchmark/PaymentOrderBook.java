@@ -0,0 +1,140 @@
+package com.backbase.accelerators.payment.benchmark;
+
+import com.backbase.payments.v2.service.model.GetPaymentOrderResponse;
+import com.backbase.payments.v2.service.model.PaymentOrderPostFilterResponse;
+import com.backbase.payments.v2.service.model.PaymentOrderPutRequest;
+import com.backbase.payments.v2.service.model.PaymentOrderPutResponse;
+import com.backbase.payments.v2.service.model.SimpleSchedule;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * The payment orders held by the stubbed payment order service. Like the real service, it pages over the orders that
+ * match the due date filter at the time of each request, so next execution date updates made during a run shift the
+ * pages that follow. Orders are handed out as copies, which also stands in for the deserialization a real client
+ * would pay for.
+ */
+public class PaymentOrderBook {
+
+    private final ObjectMapper objectMapper;
+    private final List<GetPaymentOrderResponse> paymentOrders;
+    private final Map<String, GetPaymentOrderResponse> paymentOrdersById = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<LocalDate, ConcurrentSkipListMap<String, GetPaymentOrderResponse>> dueOn =
+            new ConcurrentSkipListMap<>();
+
+    public PaymentOrderBook(List<GetPaymentOrderResponse> paymentOrders, ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        this.paymentOrders = paymentOrders;
+
+        for (GetPaymentOrderResponse paymentOrder : paymentOrders) {
+            paymentOrdersById.put(paymentOrder.getId(), paymentOrder);
+            index(paymentOrder);
+        }
+    }
+
+    public int size() {
+        return paymentOrders.size();
+    }
+
+    /**
+     * Returns page {@code page} of {@code size} orders. Orders are restricted to those due on {@code executionDate},
+     * starting on {@code startDate} and not ended before {@code endDateFrom}, for each of these that is not
+     * {@code null}.
+     */
+    public PaymentOrderPostFilterResponse page(
+            LocalDate executionDate,
+            LocalDate startDate,
+            LocalDate endDateFrom,
+            int page,
+            int size) {
+
+        Collection<GetPaymentOrderResponse> candidates = executionDate == null
+                ? paymentOrders
+                : dueOn.getOrDefault(executionDate, new ConcurrentSkipListMap<>()).values();
+
+        List<GetPaymentOrderResponse> result = new ArrayList<>(size);
+        long skip = (long) page * size;
+        int total = 0;
+
+        for (GetPaymentOrderResponse paymentOrder : candidates) {
+            SimpleSchedule schedule = paymentOrder.getSchedule();
+            if ((startDate != null && !startDate.equals(schedule.getStartDate()))
+                    || (endDateFrom != null && schedule.getEndDate() != null && schedule.getEndDate().isBefore(endDateFrom))) {
+                continue;
+            }
+
+            if (total++ >= skip && result.size() < size) {
+                result.add(copy(paymentOrder));
+            }
+        }
+
+        return new PaymentOrderPostFilterResponse()
+                .paymentOrders(result)
+                .totalElements(new BigDecimal(total));
+    }
+
+    public PaymentOrderPutResponse update(String paymentOrderId, PaymentOrderPutRequest request) {
+        GetPaymentOrderResponse paymentOrder = paymentOrdersById.get(paymentOrderId);
+        if (paymentOrder == null) {
+            throw new IllegalArgumentException("Unknown payment order " + paymentOrderId);
+        }
+
+        synchronized (paymentOrder) {
+            unindex(paymentOrder);
+
+            paymentOrder.setStatus(request.getStatus());
+            paymentOrder.setBankStatus(request.getBankStatus());
+            paymentOrder.getSchedule().setNextExecutionDate(request.getNextExecutionDate());
+
+            Map<String, String> additions = new HashMap<>(Objects.requireNonNullElse(paymentOrder.getAdditions(), Map.of()));
+            if (request.getAdditions() != null) {
+                request.getAdditions().forEach((key, value) -> {
+                    if (value == null) {
+                        additions.remove(key);
+                    } else {
+                        additions.put(key, value);
+                    }
+                });
+            }
+            paymentOrder.setAdditions(additions);
+
+            index(paymentOrder);
+        }
+
+        return new PaymentOrderPutResponse().id(paymentOrderId);
+    }
+
+    private GetPaymentOrderResponse copy(GetPaymentOrderResponse paymentOrder) {
+        synchronized (paymentOrder) {
+            return objectMapper.convertValue(paymentOrder, GetPaymentOrderResponse.class);
+        }
+    }
+
+    private void index(GetPaymentOrderResponse paymentOrder) {
+        LocalDate nextExecutionDate = paymentOrder.getSchedule().getNextExecutionDate();
+        if (nextExecutionDate != null) {
+            dueOn.computeIfAbsent(nextExecutionDate, date -> new ConcurrentSkipListMap<>())
+                    .put(paymentOrder.getId(), paymentOrder);
+        }
+    }
+
+    private void unindex(GetPaymentOrderResponse paymentOrder) {
+        LocalDate nextExecutionDate = paymentOrder.getSchedule().getNextExecutionDate();
+        if (nextExecutionDate != null) {
+            Map<String, GetPaymentOrderResponse> due = dueOn.get(nextExecutionDate);
+            if (due != null) {
+                due.remove(paymentOrder.getId());
+            }
+        }
+    }
+}
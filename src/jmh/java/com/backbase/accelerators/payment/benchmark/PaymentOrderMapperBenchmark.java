@@ -0,0 +1,68 @@
+package com.backbase.accelerators.payment.benchmark;
+
+import com.backbase.accelerators.payment.mapper.PaymentOrderMapper;
+import com.backbase.accelerators.payment.mapper.PaymentOrderMapperImpl;
+import com.backbase.accelerators.payment.model.ScheduledPaymentOrder;
+import com.backbase.payments.v2.service.model.GetPaymentOrderResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Per-order cost of the MapStruct generated mappings on the execution path: copying a fetched order into a
+ * {@link ScheduledPaymentOrder}, and building the outbound request of an order that is executed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(PaymentOrderMapperBenchmark.BOOK_SIZE)
+public class PaymentOrderMapperBenchmark {
+
+    static final int BOOK_SIZE = 10_000;
+
+    private final PaymentOrderMapper paymentOrderMapper = new PaymentOrderMapperImpl();
+
+    private LocalDate businessDate;
+    private List<GetPaymentOrderResponse> getPaymentOrderResponses;
+    private List<ScheduledPaymentOrder> scheduledPaymentOrders;
+
+    @Setup
+    public void setUp() {
+        businessDate = LocalDate.now();
+        getPaymentOrderResponses = new SyntheticPaymentOrders(42, businessDate, 0.2).book(BOOK_SIZE);
+        scheduledPaymentOrders = getPaymentOrderResponses.stream()
+                .map(paymentOrderMapper::toScheduledPaymentOrder)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void toScheduledPaymentOrder(Blackhole blackhole) {
+        for (GetPaymentOrderResponse getPaymentOrderResponse : getPaymentOrderResponses) {
+            blackhole.consume(paymentOrderMapper.toScheduledPaymentOrder(getPaymentOrderResponse));
+        }
+    }
+
+    @Benchmark
+    public void toOutBoundRequest(Blackhole blackhole) {
+        for (ScheduledPaymentOrder scheduledPaymentOrder : scheduledPaymentOrders) {
+            blackhole.consume(paymentOrderMapper.toOutBoundRequest(scheduledPaymentOrder, businessDate));
+        }
+    }
+}
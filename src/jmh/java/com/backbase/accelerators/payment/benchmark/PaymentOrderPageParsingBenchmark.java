@@ -0,0 +1,92 @@
+package com.backbase.accelerators.payment.benchmark;
+
+import com.backbase.accelerators.payment.client.PaymentOrderPageMessageConverter;
+import com.backbase.accelerators.payment.eligibility.EligibilityEvaluator;
+import com.backbase.payments.v2.service.model.PaymentOrderPostFilterResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading one {@code postFilterPaymentOrders} page of {@code pageSize} orders, fully bound by the default
+ * Jackson converter versus streamed with the orders that are not due discarded as they are read. With
+ * {@code -prof gc} the {@code gc.alloc.rate.norm} figure is the bytes allocated per page.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PaymentOrderPageParsingBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int pageSize;
+
+    @Param({"0.02", "0.2"})
+    private double dueFraction;
+
+    private MappingJackson2HttpMessageConverter defaultConverter;
+    private PaymentOrderPageMessageConverter streamingConverter;
+    private EligibilityEvaluator eligibilityEvaluator;
+    private byte[] body;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        defaultConverter = new MappingJackson2HttpMessageConverter(objectMapper);
+        streamingConverter = new PaymentOrderPageMessageConverter(objectMapper);
+
+        LocalDate today = LocalDate.now();
+        eligibilityEvaluator = new EligibilityEvaluator(today);
+        body = objectMapper.writeValueAsBytes(new PaymentOrderPostFilterResponse()
+                .totalElements(BigDecimal.valueOf(pageSize))
+                .paymentOrders(new SyntheticPaymentOrders(42, today, dueFraction).book(pageSize)));
+    }
+
+    @Benchmark
+    public Object readPage() throws IOException {
+        return defaultConverter.read(PaymentOrderPostFilterResponse.class, null, inputMessage());
+    }
+
+    @Benchmark
+    public Object streamPage() {
+        return PaymentOrderPageMessageConverter.filtering(
+                paymentOrder -> eligibilityEvaluator.evaluate(paymentOrder).isDue(),
+                () -> {
+                    try {
+                        return (PaymentOrderPostFilterResponse) streamingConverter.read(
+                                PaymentOrderPostFilterResponse.class, null, inputMessage());
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+    }
+
+    private MockHttpInputMessage inputMessage() {
+        MockHttpInputMessage inputMessage = new MockHttpInputMessage(body);
+        inputMessage.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        return inputMessage;
+    }
+}
@@ -0,0 +1,73 @@
+package com.backbase.accelerators.payment.benchmark;
+
+import com.backbase.accelerators.payment.eligibility.EligibilityEvaluator;
+import com.backbase.accelerators.payment.mapper.PaymentOrderMapper;
+import com.backbase.accelerators.payment.mapper.PaymentOrderMapperImpl;
+import com.backbase.accelerators.payment.model.ScheduledPaymentOrder;
+import com.backbase.accelerators.payment.util.ScheduledPaymentUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Per-order cost of the single-pass {@link EligibilityEvaluator} and of the next execution date calculation. One
+ * operation is one order, so with {@code -prof gc} the {@code gc.alloc.rate.norm} figure is the bytes allocated per
+ * order.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@OperationsPerInvocation(ScheduledPaymentUtilBenchmark.BOOK_SIZE)
+public class ScheduledPaymentUtilBenchmark {
+
+    static final int BOOK_SIZE = 10_000;
+
+    @Param({"0.02", "0.2"})
+    private double dueFraction;
+
+    private List<ScheduledPaymentOrder> scheduledPaymentOrders;
+    private EligibilityEvaluator eligibilityEvaluator;
+    private LocalDate today;
+
+    @Setup
+    public void setUp() {
+        PaymentOrderMapper paymentOrderMapper = new PaymentOrderMapperImpl();
+        today = LocalDate.now();
+        eligibilityEvaluator = new EligibilityEvaluator(today);
+        scheduledPaymentOrders = new SyntheticPaymentOrders(42, today, dueFraction).book(BOOK_SIZE).stream()
+                .map(paymentOrderMapper::toScheduledPaymentOrder)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public void evaluateEligibility(Blackhole blackhole) {
+        for (ScheduledPaymentOrder scheduledPaymentOrder : scheduledPaymentOrders) {
+            blackhole.consume(eligibilityEvaluator.evaluate(scheduledPaymentOrder));
+        }
+    }
+
+    @Benchmark
+    public void calculateNextExecutionDate(Blackhole blackhole) {
+        for (ScheduledPaymentOrder scheduledPaymentOrder : scheduledPaymentOrders) {
+            blackhole.consume(ScheduledPaymentUtil.calculateNextExecutionDate(scheduledPaymentOrder, today));
+        }
+    }
+}
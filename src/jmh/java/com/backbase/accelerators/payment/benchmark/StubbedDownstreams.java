@@ -0,0 +1,242 @@
+package com.backbase.accelerators.payment.benchmark;
+
+import com.backbase.accelerators.payment.client.AsyncPaymentOrderIntegrationOutboundApi;
+import com.backbase.limit.v2.service.api.LimitsServiceApi;
+import com.backbase.limit.v2.service.model.LimitsCheckPostResponseBody;
+import com.backbase.payments.scheduled.v1.service.api.ScheduledPaymentOrderApi;
+import com.backbase.payments.scheduled.v1.service.model.PostScheduledPaymentOrderTransactionResponse;
+import com.backbase.payments.scheduled.v1.service.model.ValidateExecutionDateResponse;
+import com.backbase.payments.v2.outbound.api.PaymentOrderIntegrationOutboundApi;
+import com.backbase.payments.v2.outbound.model.PaymentOrdersPostRequestBody;
+import com.backbase.payments.v2.outbound.model.PaymentOrdersPostResponseBody;
+import com.backbase.payments.v2.service.api.PaymentOrdersApi;
+import com.backbase.payments.v2.service.model.PaymentOrderPutRequest;
+import org.mockito.Answers;
+import org.mockito.invocation.InvocationOnMock;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.backbase.payments.scheduled.v1.service.model.ValidateExecutionDateResponse.StatusEnum.OK;
+import static com.backbase.payments.scheduled.v1.service.model.ValidateExecutionDateResponse.StatusEnum.RESTRICTED_DATE_DETECTED;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * In-process stand-ins for the payment order, payment order integration outbound, scheduled payment order and limits
+ * services. Every call waits for a latency drawn from the service's distribution and fails with a transport error at
+ * the service's error rate; the outbound service additionally answers {@code REJECTED} with the retryable
+ * {@code COCC-101} reason code at its reject rate. The stubs count their calls per operation.
+ */
+public class StubbedDownstreams {
+
+    public static final String RETRYABLE_REASON_CODE = "COCC-101";
+
+    private final PaymentOrderBook paymentOrderBook;
+    private final Behaviour paymentOrderService;
+    private final Behaviour outboundService;
+    private final Behaviour scheduledPaymentOrderService;
+    private final Behaviour limitService;
+    private final double outboundRejectRate;
+
+    private final Map<String, LongAdder> calls = new ConcurrentHashMap<>();
+    private final Set<String> submittedPaymentOrders = ConcurrentHashMap.newKeySet();
+
+    public StubbedDownstreams(
+            PaymentOrderBook paymentOrderBook,
+            Behaviour paymentOrderService,
+            Behaviour outboundService,
+            double outboundRejectRate,
+            Behaviour scheduledPaymentOrderService,
+            Behaviour limitService) {
+
+        this.paymentOrderBook = paymentOrderBook;
+        this.paymentOrderService = paymentOrderService;
+        this.outboundService = outboundService;
+        this.outboundRejectRate = outboundRejectRate;
+        this.scheduledPaymentOrderService = scheduledPaymentOrderService;
+        this.limitService = limitService;
+    }
+
+    public PaymentOrdersApi paymentOrdersApi() {
+        return stub(PaymentOrdersApi.class, "payment-order", paymentOrderService, invocation -> {
+            switch (invocation.getMethod().getName()) {
+                case "postFilterPaymentOrders":
+                    // Arguments as passed by PaymentOrderServiceClient: execution date from, start date from, end date
+                    // from, then page and page size.
+                    return paymentOrderBook.page(
+                            invocation.getArgument(5),
+                            invocation.getArgument(9),
+                            invocation.getArgument(11),
+                            invocation.getArgument(13),
+                            invocation.getArgument(14));
+                case "updatePaymentOrder":
+                    return paymentOrderBook.update(invocation.getArgument(0), (PaymentOrderPutRequest) invocation.getArgument(2));
+                default:
+                    return unsupported(invocation);
+            }
+        });
+    }
+
+    public PaymentOrderIntegrationOutboundApi paymentOrderIntegrationOutboundApi() {
+        return stub(PaymentOrderIntegrationOutboundApi.class, "payment-order-integration", outboundService, invocation ->
+                "postPaymentOrders".equals(invocation.getMethod().getName())
+                        ? submit(invocation.getArgument(0))
+                        : unsupported(invocation));
+    }
+
+    /**
+     * The non-blocking outbound API, whose latency is a timer instead of a parked thread.
+     */
+    public AsyncPaymentOrderIntegrationOutboundApi asyncPaymentOrderIntegrationOutboundApi() {
+        return request -> {
+            count("payment-order-integration.postPaymentOrders");
+
+            Duration latency = outboundService.getLatency().sample();
+            return CompletableFuture.supplyAsync(() -> {
+                outboundService.maybeFail();
+                return submit(request);
+            }, CompletableFuture.delayedExecutor(latency.toNanos(), TimeUnit.NANOSECONDS));
+        };
+    }
+
+    public ScheduledPaymentOrderApi scheduledPaymentOrderApi() {
+        return stub(ScheduledPaymentOrderApi.class, "scheduled-payment-order", scheduledPaymentOrderService, invocation -> {
+            switch (invocation.getMethod().getName()) {
+                case "postScheduledPaymentOrderTransaction":
+                    return new PostScheduledPaymentOrderTransactionResponse().id(UUID.randomUUID().toString());
+                case "validateExecutionDate":
+                    return validateExecutionDate(invocation.getArgument(0));
+                default:
+                    return unsupported(invocation);
+            }
+        });
+    }
+
+    public LimitsServiceApi limitsServiceApi() {
+        return stub(LimitsServiceApi.class, "limit", limitService, invocation ->
+                "postLimitsCheck".equals(invocation.getMethod().getName())
+                        ? new LimitsCheckPostResponseBody()
+                        : unsupported(invocation));
+    }
+
+    public Map<String, Long> getCallCounts() {
+        Map<String, Long> callCounts = new TreeMap<>();
+        calls.forEach((operation, count) -> callCounts.put(operation, count.sum()));
+
+        return callCounts;
+    }
+
+    /**
+     * The number of distinct payment orders submitted to the outbound service at least once.
+     */
+    public int getSubmittedPaymentOrders() {
+        return submittedPaymentOrders.size();
+    }
+
+    private PaymentOrdersPostResponseBody submit(PaymentOrdersPostRequestBody request) {
+        submittedPaymentOrders.add(request.getId());
+
+        if (ThreadLocalRandom.current().nextDouble() < outboundRejectRate) {
+            return new PaymentOrdersPostResponseBody()
+                    .bankStatus("REJECTED")
+                    .reasonCode(RETRYABLE_REASON_CODE)
+                    .reasonText("Core banking system temporarily unavailable");
+        }
+
+        return new PaymentOrdersPostResponseBody()
+                .bankStatus("ACCEPTED")
+                .bankReferenceId(UUID.randomUUID().toString());
+    }
+
+    private ValidateExecutionDateResponse validateExecutionDate(LocalDate executionDate) {
+        if (executionDate.getDayOfWeek() == DayOfWeek.SATURDAY || executionDate.getDayOfWeek() == DayOfWeek.SUNDAY) {
+            return new ValidateExecutionDateResponse()
+                    .status(RESTRICTED_DATE_DETECTED)
+                    .originalExecutionDate(executionDate)
+                    .nextAvailableExecutionDateBefore(executionDate.with(DayOfWeek.FRIDAY))
+                    .nextAvailableExecutionDateAfter(executionDate.with(DayOfWeek.MONDAY).plusWeeks(1));
+        }
+
+        return new ValidateExecutionDateResponse()
+                .status(OK)
+                .originalExecutionDate(executionDate);
+    }
+
+    private <T> T stub(Class<T> api, String service, Behaviour behaviour, StubAnswer answer) {
+        // Stub-only mocks do not record invocations, which would otherwise grow with every call of a large run.
+        return mock(api, withSettings().stubOnly().defaultAnswer(invocation -> {
+            if (invocation.getMethod().getDeclaringClass() == Object.class) {
+                return Answers.RETURNS_DEFAULTS.answer(invocation);
+            }
+
+            count(service + "." + invocation.getMethod().getName());
+            behaviour.await();
+
+            return answer.answer(invocation);
+        }));
+    }
+
+    private void count(String operation) {
+        calls.computeIfAbsent(operation, key -> new LongAdder()).increment();
+    }
+
+    private static Object unsupported(InvocationOnMock invocation) {
+        throw new UnsupportedOperationException("Not stubbed: " + invocation.getMethod());
+    }
+
+    @FunctionalInterface
+    private interface StubAnswer {
+        Object answer(InvocationOnMock invocation) throws Throwable;
+    }
+
+    /**
+     * Latency and error rate of one stubbed service.
+     */
+    public static class Behaviour {
+
+        private final LatencyDistribution latency;
+        private final double errorRate;
+
+        public Behaviour(LatencyDistribution latency, double errorRate) {
+            this.latency = latency;
+            this.errorRate = errorRate;
+        }
+
+        public LatencyDistribution getLatency() {
+            return latency;
+        }
+
+        void await() {
+            Duration wait = latency.sample();
+            if (!wait.isZero()) {
+                LockSupport.parkNanos(wait.toNanos());
+            }
+
+            maybeFail();
+        }
+
+        void maybeFail() {
+            if (ThreadLocalRandom.current().nextDouble() < errorRate) {
+                throw new ResourceAccessException("I/O error: injected failure");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return latency + (errorRate > 0 ? String.format(" errors=%.2f%%", errorRate * 100) : "");
+        }
+    }
+}
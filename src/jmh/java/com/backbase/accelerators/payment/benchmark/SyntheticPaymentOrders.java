@@ -0,0 +1,127 @@
+package com.backbase.accelerators.payment.benchmark;
+
+import com.backbase.payments.v2.service.model.AccountIdentification;
+import com.backbase.payments.v2.service.model.Currency;
+import com.backbase.payments.v2.service.model.GetPaymentOrderResponse;
+import com.backbase.payments.v2.service.model.Identification;
+import com.backbase.payments.v2.service.model.InvolvedParty;
+import com.backbase.payments.v2.service.model.SimpleSchedule;
+import com.backbase.payments.v2.service.model.SimpleTransaction;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static com.backbase.accelerators.payment.constants.DataModelAdditions.EXECUTION_COUNT;
+import static com.backbase.payments.v2.service.model.PaymentMode.RECURRING;
+import static com.backbase.payments.v2.service.model.SimpleSchedule.NonWorkingDayExecutionStrategyEnum.AFTER;
+import static com.backbase.payments.v2.service.model.SimpleSchedule.NonWorkingDayExecutionStrategyEnum.NONE;
+import static com.backbase.payments.v2.service.model.SimpleSchedule.TransferFrequencyEnum.BIWEEKLY;
+import static com.backbase.payments.v2.service.model.SimpleSchedule.TransferFrequencyEnum.DAILY;
+import static com.backbase.payments.v2.service.model.SimpleSchedule.TransferFrequencyEnum.MONTHLY;
+import static com.backbase.payments.v2.service.model.SimpleSchedule.TransferFrequencyEnum.QUARTERLY;
+import static com.backbase.payments.v2.service.model.SimpleSchedule.TransferFrequencyEnum.WEEKLY;
+import static com.backbase.payments.v2.service.model.SimpleSchedule.TransferFrequencyEnum.YEARLY;
+import static com.backbase.payments.v2.service.model.Status.READY;
+
+/**
+ * Generates books of recurring payment orders shaped like the ones returned by the payment order service: a mix of
+ * payment types and frequencies, of which only a configurable fraction is due today. Of the orders that are not due,
+ * some have an end date in the past or have met their repeat count, so that every eligibility predicate has work to
+ * do. Books are reproducible for a given seed.
+ */
+public final class SyntheticPaymentOrders {
+
+    public static final List<String> PAYMENT_TYPES =
+            List.of("ACH_DEBIT", "ACH_CREDIT", "INTERNAL_TRANSFER", "US_DOMESTIC_WIRE");
+
+    private static final List<SimpleSchedule.TransferFrequencyEnum> FREQUENCIES =
+            List.of(DAILY, WEEKLY, BIWEEKLY, MONTHLY, QUARTERLY, YEARLY);
+
+    private final Random random;
+    private final LocalDate today;
+    private final double dueFraction;
+
+    public SyntheticPaymentOrders(long seed, LocalDate today, double dueFraction) {
+        this.random = new Random(seed);
+        this.today = today;
+        this.dueFraction = dueFraction;
+    }
+
+    public List<GetPaymentOrderResponse> book(int size) {
+        List<GetPaymentOrderResponse> book = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            book.add(order());
+        }
+
+        return book;
+    }
+
+    public GetPaymentOrderResponse order() {
+        boolean due = random.nextDouble() < dueFraction;
+        int repeat = 12;
+        int executionCount = random.nextInt(repeat);
+
+        SimpleSchedule schedule = new SimpleSchedule()
+                .transferFrequency(FREQUENCIES.get(random.nextInt(FREQUENCIES.size())))
+                .every(random.nextInt(4) == 0 ? SimpleSchedule.EveryEnum._2 : SimpleSchedule.EveryEnum._1)
+                .nonWorkingDayExecutionStrategy(random.nextBoolean() ? AFTER : NONE)
+                .startDate(today.minusDays(30 + random.nextInt(700)))
+                .nextExecutionDate(due ? today : today.plusDays(1 + random.nextInt(90)));
+
+        switch (random.nextInt(10)) {
+            case 0:
+                // Expired, but its next execution date was never moved past the end date.
+                schedule.setEndDate(today.minusDays(1 + random.nextInt(60)));
+                break;
+            case 1:
+            case 2:
+                schedule.setEndDate(today.plusDays(random.nextInt(365)));
+                break;
+            case 3:
+                schedule.setRepeat(repeat);
+                executionCount = repeat;
+                break;
+            case 4:
+            case 5:
+                schedule.setRepeat(repeat);
+                break;
+            default:
+                break;
+        }
+
+        Map<String, String> additions = new HashMap<>();
+        if (executionCount > 0) {
+            additions.put(EXECUTION_COUNT.getValue(), String.valueOf(executionCount));
+        }
+
+        return new GetPaymentOrderResponse()
+                .id(UUID.randomUUID().toString())
+                .status(READY)
+                .bankStatus("READY")
+                .paymentMode(RECURRING)
+                .paymentType(PAYMENT_TYPES.get(random.nextInt(PAYMENT_TYPES.size())))
+                .originator(new InvolvedParty().name("Originator " + random.nextInt(10_000)))
+                .originatorAccount(account())
+                .schedule(schedule)
+                .transferTransactionInformation(new SimpleTransaction()
+                        .instructedAmount(new Currency()
+                                .amount(String.format("%d.%02d", 1 + random.nextInt(5_000), random.nextInt(100)))
+                                .currencyCode("USD"))
+                        .counterparty(new InvolvedParty().name("Counterparty " + random.nextInt(10_000)))
+                        .counterpartyAccount(account()))
+                .serviceAgreementId(UUID.randomUUID().toString())
+                .additions(additions);
+    }
+
+    private AccountIdentification account() {
+        return new AccountIdentification()
+                .arrangementId(UUID.randomUUID().toString())
+                .identification(new Identification()
+                        .identification(String.valueOf(100_000_000L + random.nextInt(900_000_000))));
+    }
+}
@@ -0,0 +1,398 @@
+package com.backbase.accelerators.payment.benchmark;
+
+import com.backbase.accelerators.payment.calendar.BusinessCalendar;
+import com.backbase.accelerators.payment.client.AsyncPaymentOrderIntegrationOutboundApi;
+import com.backbase.accelerators.payment.client.PaymentOrderOutboundClient;
+import com.backbase.accelerators.payment.client.PaymentOrderServiceClient;
+import com.backbase.accelerators.payment.client.ScheduledPaymentOrderServiceClient;
+import com.backbase.accelerators.payment.config.BusinessCalendarConfiguration;
+import com.backbase.accelerators.payment.config.CircuitBreakerConfiguration;
+import com.backbase.accelerators.payment.config.ClockConfiguration;
+import com.backbase.accelerators.payment.config.ExecutionDateCacheConfiguration;
+import com.backbase.accelerators.payment.config.OutboundConcurrencyConfiguration;
+import com.backbase.accelerators.payment.config.PaymentExecutionConfiguration;
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import com.backbase.accelerators.payment.engine.PaymentExecutionEngine;
+import com.backbase.accelerators.payment.event.EventEmitter;
+import com.backbase.accelerators.payment.index.ExecutedTodayIndex;
+import com.backbase.accelerators.payment.iterator.ScheduledPaymentOrderIteratorFactory;
+import com.backbase.accelerators.payment.journal.RunJournal;
+import com.backbase.accelerators.payment.mapper.PaymentOrderMapper;
+import com.backbase.accelerators.payment.mapper.PaymentOrderMapperImpl;
+import com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics;
+import com.backbase.accelerators.payment.queue.PaymentOrderWorkQueuePublisher;
+import com.backbase.accelerators.payment.retry.DeferredRetryQueue;
+import com.backbase.accelerators.payment.run.RunCoordinator;
+import com.backbase.accelerators.payment.run.RunLock;
+import com.backbase.accelerators.payment.service.impl.ScheduledPaymentExecutorServiceImpl;
+import com.backbase.accelerators.payment.shard.ShardCoordinator;
+import com.backbase.accelerators.payment.writeback.NextExecutionDateWriter;
+import com.backbase.accelerators.payment.writeback.TransactionRecordWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
+
+import static com.backbase.payments.v2.service.model.Status.READY;
+
+/**
+ * Drives a complete scheduler run, {@link ScheduledPaymentExecutorServiceImpl#execute()}, against synthetic books of
+ * payment orders served by {@link StubbedDownstreams}, and reports throughput, downstream calls per executed order
+ * and peak heap. The service is wired from the same configuration classes as the application, with a fresh instance
+ * per book so that runs do not share caches or the executed today index.
+ *
+ * <p>Options are {@code key=value} arguments, see {@link Options} for the keys and their defaults, e.g.
+ * {@code orders=10000,100000,1000000 iteratorMode=SNAPSHOT outboundLatency=50/400 outboundRejectRate=0.01}.
+ */
+public final class ThroughputHarness {
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        System.out.println("Throughput harness: " + options);
+
+        for (int orders : options.orders) {
+            Result result = run(options, orders);
+            System.out.println(result);
+        }
+
+        System.exit(0);
+    }
+
+    static Result run(Options options, int orders) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        PaymentOrderBook paymentOrderBook = new PaymentOrderBook(
+                new SyntheticPaymentOrders(options.seed, LocalDate.now(), options.dueFraction).book(orders),
+                objectMapper);
+
+        StubbedDownstreams downstreams = new StubbedDownstreams(
+                paymentOrderBook,
+                new StubbedDownstreams.Behaviour(options.paymentOrderLatency, options.paymentOrderErrorRate),
+                new StubbedDownstreams.Behaviour(options.outboundLatency, options.outboundErrorRate),
+                options.outboundRejectRate,
+                new StubbedDownstreams.Behaviour(options.scheduledPaymentOrderLatency, options.scheduledPaymentOrderErrorRate),
+                new StubbedDownstreams.Behaviour(options.limitLatency, 0));
+
+        try (Wiring wiring = new Wiring(options.toProperties(orders), downstreams, objectMapper)) {
+            System.gc();
+            List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                    .filter(pool -> pool.getType() == MemoryType.HEAP)
+                    .collect(Collectors.toList());
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+            long start = System.nanoTime();
+            wiring.service.execute();
+            long durationNanos = System.nanoTime() - start;
+
+            // The sum of the per-pool peaks, an upper bound of the heap in use at any one time.
+            long peakHeapBytes = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+            return new Result(orders, downstreams.getSubmittedPaymentOrders(), durationNanos, peakHeapBytes,
+                    downstreams.getCallCounts());
+        }
+    }
+
+    /**
+     * The service and its collaborators, built the way the application context builds them.
+     */
+    private static final class Wiring implements AutoCloseable {
+
+        private final ExecutorService paymentExecutorService;
+        private final BusinessCalendar businessCalendar;
+        private final NextExecutionDateWriter nextExecutionDateWriter;
+        private final TransactionRecordWriter transactionRecordWriter;
+        private final RunCoordinator runCoordinator;
+        private final RunJournal runJournal;
+        private final ScheduledPaymentExecutorServiceImpl service;
+
+        Wiring(PaymentSchedulerProperties properties, StubbedDownstreams downstreams, ObjectMapper objectMapper) {
+            MeterRegistry meterRegistry = new SimpleMeterRegistry();
+            PaymentSchedulerMetrics metrics = new PaymentSchedulerMetrics(meterRegistry);
+            PaymentOrderMapper paymentOrderMapper = new PaymentOrderMapperImpl();
+            Clock clock = new ClockConfiguration().clock();
+
+            StaticListableBeanFactory beans = new StaticListableBeanFactory();
+            if (properties.getHttp().getMode() == PaymentSchedulerProperties.HttpMode.REACTIVE) {
+                beans.addBean("asyncPaymentOrderIntegrationOutboundApi", downstreams.asyncPaymentOrderIntegrationOutboundApi());
+            }
+
+            OutboundConcurrencyConfiguration outboundConcurrencyConfiguration = new OutboundConcurrencyConfiguration();
+            this.paymentExecutorService = new PaymentExecutionConfiguration().paymentExecutorService(properties);
+            this.businessCalendar = new BusinessCalendarConfiguration()
+                    .businessCalendar(properties, downstreams.scheduledPaymentOrderApi(), clock);
+
+            ScheduledPaymentOrderServiceClient scheduledPaymentOrderServiceClient = new ScheduledPaymentOrderServiceClient(
+                    downstreams.scheduledPaymentOrderApi(),
+                    paymentOrderMapper,
+                    new ExecutionDateCacheConfiguration().executionDateValidationCache(properties, meterRegistry),
+                    properties,
+                    businessCalendar,
+                    metrics);
+
+            PaymentOrderServiceClient paymentOrderServiceClient = new PaymentOrderServiceClient(
+                    downstreams.paymentOrdersApi(),
+                    scheduledPaymentOrderServiceClient,
+                    properties,
+                    metrics);
+
+            PaymentOrderOutboundClient paymentOrderOutboundClient = new PaymentOrderOutboundClient(
+                    downstreams.paymentOrderIntegrationOutboundApi(),
+                    properties,
+                    outboundConcurrencyConfiguration.outboundConcurrencyLimiter(properties, meterRegistry),
+                    outboundConcurrencyConfiguration.rateLimiterRegistry(properties, meterRegistry),
+                    new CircuitBreakerConfiguration().outboundCircuitBreaker(properties, meterRegistry),
+                    metrics,
+                    paymentExecutorService,
+                    beans.getBeanProvider(AsyncPaymentOrderIntegrationOutboundApi.class));
+
+            this.runJournal = new RunJournal(properties, objectMapper);
+            this.nextExecutionDateWriter = new NextExecutionDateWriter(paymentOrderServiceClient, metrics, properties, runJournal);
+            this.transactionRecordWriter = new TransactionRecordWriter(
+                    scheduledPaymentOrderServiceClient, paymentOrderMapper, metrics, properties, objectMapper, runJournal);
+            this.runCoordinator = new RunCoordinator(
+                    RunLock.local(),
+                    properties.getRunCoordinator().getOverlapPolicy(),
+                    properties.getRunCoordinator().getMaxQueuedRuns(),
+                    properties.getRunCoordinator().getLockTtl().dividedBy(3),
+                    meterRegistry);
+
+            this.service = new ScheduledPaymentExecutorServiceImpl(
+                    paymentOrderServiceClient,
+                    paymentOrderOutboundClient,
+                    scheduledPaymentOrderServiceClient,
+                    properties,
+                    paymentOrderMapper,
+                    new EventEmitter(),
+                    new PaymentExecutionEngine(paymentExecutorService, properties),
+                    new ScheduledPaymentOrderIteratorFactory(paymentOrderServiceClient, properties, metrics),
+                    metrics,
+                    nextExecutionDateWriter,
+                    transactionRecordWriter,
+                    new DeferredRetryQueue(properties, meterRegistry),
+                    ShardCoordinator.unsharded(properties.getReplicaId(), meterRegistry),
+                    beans.getBeanProvider(PaymentOrderWorkQueuePublisher.class),
+                    runCoordinator,
+                    runJournal,
+                    new ExecutedTodayIndex(properties, runJournal, clock, meterRegistry),
+                    clock);
+        }
+
+        @Override
+        public void close() {
+            transactionRecordWriter.shutdown();
+            nextExecutionDateWriter.shutdown();
+            runCoordinator.shutdown();
+            businessCalendar.stop();
+            runJournal.close();
+            paymentExecutorService.shutdown();
+        }
+    }
+
+    /**
+     * Harness options. Latencies are {@code <p50>/<p99>} in milliseconds, rates are fractions of calls.
+     */
+    static final class Options {
+
+        int[] orders = {10_000, 100_000};
+        long seed = 42;
+        double dueFraction = 0.05;
+        int pageSize = 100;
+        PaymentSchedulerProperties.IteratorMode iteratorMode = PaymentSchedulerProperties.IteratorMode.SEQUENTIAL;
+        boolean dueDateFilter;
+        PaymentSchedulerProperties.ExecutionMode executionMode = PaymentSchedulerProperties.ExecutionMode.PLATFORM;
+        int maxConcurrency = 16;
+        PaymentSchedulerProperties.HttpMode httpMode = PaymentSchedulerProperties.HttpMode.BLOCKING;
+        boolean deferredRetries;
+        boolean writeBack;
+        boolean transactionRecords;
+        boolean businessCalendar;
+        long retryBackoffMillis = 100;
+        LatencyDistribution paymentOrderLatency = LatencyDistribution.parse("20/100");
+        double paymentOrderErrorRate;
+        LatencyDistribution outboundLatency = LatencyDistribution.parse("50/400");
+        double outboundErrorRate = 0.001;
+        double outboundRejectRate = 0.01;
+        LatencyDistribution scheduledPaymentOrderLatency = LatencyDistribution.parse("10/60");
+        double scheduledPaymentOrderErrorRate;
+        LatencyDistribution limitLatency = LatencyDistribution.parse("10/60");
+
+        static Options parse(String[] args) {
+            Map<String, String> values = new HashMap<>();
+            for (String arg : args) {
+                String[] keyValue = arg.split("=", 2);
+                if (keyValue.length != 2) {
+                    throw new IllegalArgumentException("Expected key=value but got: " + arg);
+                }
+                values.put(keyValue[0], keyValue[1]);
+            }
+
+            Options options = new Options();
+            values.forEach((key, value) -> options.set(key, value));
+
+            return options;
+        }
+
+        private void set(String key, String value) {
+            switch (key) {
+                case "orders":
+                    orders = Arrays.stream(value.split(",")).map(String::trim).mapToInt(Integer::parseInt).toArray();
+                    break;
+                case "seed":
+                    seed = Long.parseLong(value);
+                    break;
+                case "dueFraction":
+                    dueFraction = Double.parseDouble(value);
+                    break;
+                case "pageSize":
+                    pageSize = Integer.parseInt(value);
+                    break;
+                case "iteratorMode":
+                    iteratorMode = PaymentSchedulerProperties.IteratorMode.valueOf(value);
+                    break;
+                case "dueDateFilter":
+                    dueDateFilter = Boolean.parseBoolean(value);
+                    break;
+                case "executionMode":
+                    executionMode = PaymentSchedulerProperties.ExecutionMode.valueOf(value);
+                    break;
+                case "maxConcurrency":
+                    maxConcurrency = Integer.parseInt(value);
+                    break;
+                case "httpMode":
+                    httpMode = PaymentSchedulerProperties.HttpMode.valueOf(value);
+                    break;
+                case "deferredRetries":
+                    deferredRetries = Boolean.parseBoolean(value);
+                    break;
+                case "writeBack":
+                    writeBack = Boolean.parseBoolean(value);
+                    break;
+                case "transactionRecords":
+                    transactionRecords = Boolean.parseBoolean(value);
+                    break;
+                case "businessCalendar":
+                    businessCalendar = Boolean.parseBoolean(value);
+                    break;
+                case "retryBackoffMillis":
+                    retryBackoffMillis = Long.parseLong(value);
+                    break;
+                case "paymentOrderLatency":
+                    paymentOrderLatency = LatencyDistribution.parse(value);
+                    break;
+                case "paymentOrderErrorRate":
+                    paymentOrderErrorRate = Double.parseDouble(value);
+                    break;
+                case "outboundLatency":
+                    outboundLatency = LatencyDistribution.parse(value);
+                    break;
+                case "outboundErrorRate":
+                    outboundErrorRate = Double.parseDouble(value);
+                    break;
+                case "outboundRejectRate":
+                    outboundRejectRate = Double.parseDouble(value);
+                    break;
+                case "scheduledPaymentOrderLatency":
+                    scheduledPaymentOrderLatency = LatencyDistribution.parse(value);
+                    break;
+                case "scheduledPaymentOrderErrorRate":
+                    scheduledPaymentOrderErrorRate = Double.parseDouble(value);
+                    break;
+                case "limitLatency":
+                    limitLatency = LatencyDistribution.parse(value);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option: " + key);
+            }
+        }
+
+        PaymentSchedulerProperties toProperties(int orders) {
+            PaymentSchedulerProperties properties = new PaymentSchedulerProperties();
+
+            PaymentSchedulerProperties.IteratorProperties iteratorProperties = new PaymentSchedulerProperties.IteratorProperties();
+            iteratorProperties.setPageSize(pageSize);
+            iteratorProperties.setMode(iteratorMode);
+            properties.setIteratorProperties(iteratorProperties);
+
+            PaymentSchedulerProperties.QueryFilters queryFilters = new PaymentSchedulerProperties.QueryFilters();
+            queryFilters.setPaymentTypes(SyntheticPaymentOrders.PAYMENT_TYPES);
+            queryFilters.setStatuses(List.of(READY));
+            queryFilters.setDueDateFilterEnabled(dueDateFilter);
+            properties.setQueryFilters(queryFilters);
+
+            properties.getExecution().setMode(executionMode);
+            properties.getExecution().setMaxConcurrency(maxConcurrency);
+            properties.getHttp().setMode(httpMode);
+            properties.getDeferredRetry().setEnabled(deferredRetries);
+            properties.getWriteBack().setEnabled(writeBack);
+            properties.getTransactionRecords().setEnabled(transactionRecords);
+            properties.getBusinessCalendar().setEnabled(businessCalendar);
+            properties.getExecutedTodayIndex().setExpectedOrders(orders);
+
+            properties.setRetryErrorCodes(List.of(StubbedDownstreams.RETRYABLE_REASON_CODE));
+            properties.setRetryExceptionClasses(List.of(ResourceAccessException.class.getName()));
+            properties.setRetryBackoffDelayMillis(retryBackoffMillis);
+
+            return properties;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("dueFraction=%s pageSize=%d iteratorMode=%s dueDateFilter=%s executionMode=%s "
+                            + "maxConcurrency=%d httpMode=%s deferredRetries=%s writeBack=%s transactionRecords=%s "
+                            + "businessCalendar=%s%n  payment-order: %s%n  outbound: %s, rejects=%.2f%%, errors=%.2f%%%n"
+                            + "  scheduled-payment-order: %s%n  limit: %s",
+                    dueFraction, pageSize, iteratorMode, dueDateFilter, executionMode, maxConcurrency, httpMode,
+                    deferredRetries, writeBack, transactionRecords, businessCalendar,
+                    new StubbedDownstreams.Behaviour(paymentOrderLatency, paymentOrderErrorRate),
+                    outboundLatency, outboundRejectRate * 100, outboundErrorRate * 100,
+                    new StubbedDownstreams.Behaviour(scheduledPaymentOrderLatency, scheduledPaymentOrderErrorRate),
+                    limitLatency);
+        }
+    }
+
+    static final class Result {
+
+        private final int orders;
+        private final int executed;
+        private final long durationNanos;
+        private final long peakHeapBytes;
+        private final Map<String, Long> callCounts;
+
+        Result(int orders, int executed, long durationNanos, long peakHeapBytes, Map<String, Long> callCounts) {
+            this.orders = orders;
+            this.executed = executed;
+            this.durationNanos = durationNanos;
+            this.peakHeapBytes = peakHeapBytes;
+            this.callCounts = callCounts;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = durationNanos / 1e9;
+            StringBuilder report = new StringBuilder(String.format(
+                    "%nbook=%d executed=%d duration=%.2fs executed/s=%.1f book/s=%.1f peakHeap=%dMB%n",
+                    orders, executed, seconds, executed / seconds, orders / seconds, peakHeapBytes / (1024 * 1024)));
+
+            callCounts.forEach((operation, count) -> report.append(String.format(
+                    "  %-60s %10d  %6.2f per executed order%n",
+                    operation, count, executed == 0 ? 0.0 : (double) count / executed)));
+
+            return report.toString();
+        }
+    }
+
+    private ThroughputHarness() {
+    }
+}
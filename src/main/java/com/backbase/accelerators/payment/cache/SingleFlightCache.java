@@ -0,0 +1,136 @@
+package com.backbase.accelerators.payment.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * In-memory cache with time-to-live and least-recently-used eviction beyond {@code maxSize} entries. Concurrent lookups
+ * of a key that is being loaded wait for that single load instead of invoking the loader themselves. Failed loads are
+ * not cached. Entries that are still loading are never evicted, so the cache may briefly exceed its size.
+ *
+ * <p>Hits and misses are published as {@code cache.gets}, tagged with the cache name and {@code result}.
+ */
+@Slf4j
+public class SingleFlightCache<K, V> {
+
+    private final String name;
+    private final long ttlNanos;
+    private final int maxSize;
+    // Access-ordered, so iteration starts at the least recently used entry. Guarded by itself.
+    private final Map<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public SingleFlightCache(String name, Duration ttl, int maxSize, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+
+        this.hits = Counter.builder("cache.gets").tag("cache", name).tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("cache.gets").tag("cache", name).tag("result", "miss").register(meterRegistry);
+        this.evictions = Counter.builder("cache.evictions").tag("cache", name).register(meterRegistry);
+        Gauge.builder("cache.size", this, SingleFlightCache::size).tag("cache", name).register(meterRegistry);
+    }
+
+    public V get(K key, Function<K, V> loader) {
+        long now = System.nanoTime();
+        Entry<V> entry;
+        boolean load;
+
+        synchronized (entries) {
+            entry = entries.get(key);
+            load = entry == null || entry.isExpired(now, ttlNanos);
+
+            if (load) {
+                entry = new Entry<>(now);
+                entries.put(key, entry);
+                evictIfNecessary();
+            }
+        }
+
+        if (!load) {
+            hits.increment();
+            return join(entry);
+        }
+
+        // The loader runs outside the lock, lookups of this key meanwhile wait for the entry claimed above.
+        misses.increment();
+        try {
+            V value = loader.apply(key);
+            entry.getValue().complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            synchronized (entries) {
+                entries.remove(key, entry);
+            }
+            entry.getValue().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void invalidateAll() {
+        log.debug("Invalidating all entries of cache {}", name);
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    private void evictIfNecessary() {
+        Iterator<Entry<V>> iterator = entries.values().iterator();
+
+        while (entries.size() > maxSize && iterator.hasNext()) {
+            // An entry that is still loading has waiters relying on it, evicting it would start a second load.
+            if (iterator.next().getValue().isDone()) {
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    private V join(Entry<V> entry) {
+        try {
+            return entry.getValue().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static class Entry<V> {
+
+        private final long loadedAtNanos;
+        private final CompletableFuture<V> value = new CompletableFuture<>();
+
+        Entry(long loadedAtNanos) {
+            this.loadedAtNanos = loadedAtNanos;
+        }
+
+        CompletableFuture<V> getValue() {
+            return value;
+        }
+
+        boolean isExpired(long now, long ttlNanos) {
+            return value.isDone() && now - loadedAtNanos > ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.backbase.accelerators.payment.calendar;
+
+import com.backbase.payments.scheduled.v1.service.model.ValidateExecutionDateResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.backbase.payments.scheduled.v1.service.model.ValidateExecutionDateResponse.StatusEnum.OK;
+import static com.backbase.payments.scheduled.v1.service.model.ValidateExecutionDateResponse.StatusEnum.RESTRICTED_DATE_DETECTED;
+
+/**
+ * Resolves execution dates against a rolling window of restricted dates held in memory, with the same semantics
+ * as the scheduled payment order service's validateExecutionDate: a restricted date resolves to the nearest
+ * available dates before and after it.
+ *
+ * <p>{@link #resolve(LocalDate)} returns empty while the calendar is not loaded, or when the date (or one of its
+ * alternatives) falls outside the window, in which case callers fall back to the remote API.
+ */
+@Slf4j
+public class BusinessCalendar {
+
+    private final RestrictedDateSource restrictedDateSource;
+    private final int windowDays;
+    private final Clock clock;
+
+    private volatile CalendarWindow window;
+    private ScheduledExecutorService refresher;
+
+    public BusinessCalendar(RestrictedDateSource restrictedDateSource, int windowDays, Clock clock) {
+        this.restrictedDateSource = restrictedDateSource;
+        this.windowDays = windowDays;
+        this.clock = clock;
+    }
+
+    /**
+     * A calendar that is never loaded, for when {@code business-calendar.enabled} is off.
+     */
+    public static BusinessCalendar disabled() {
+        return new BusinessCalendar((from, to) -> Set.of(), 0, Clock.systemDefaultZone());
+    }
+
+    public void start(Duration refreshInterval) {
+        refresher = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("business-calendar-"));
+        refresher.scheduleWithFixedDelay(this::refresh, 0, refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    public void refresh() {
+        LocalDate from = LocalDate.now(clock);
+        LocalDate to = from.plusDays(windowDays);
+
+        try {
+            Set<LocalDate> restrictedDates = restrictedDateSource.getRestrictedDates(from, to);
+
+            BitSet restricted = new BitSet(windowDays);
+            restrictedDates.forEach(date -> restricted.set((int) ChronoUnit.DAYS.between(from, date)));
+
+            window = new CalendarWindow(from, windowDays, restricted);
+            log.info("Business calendar loaded from {} to {} with {} restricted dates", from, to, restrictedDates.size());
+        } catch (RuntimeException e) {
+            // Keep serving the previous window; dates outside of it fall back to the remote API.
+            log.error("Error occurred refreshing business calendar: {}", e.getMessage(), e);
+        }
+    }
+
+    public Optional<ValidateExecutionDateResponse> resolve(LocalDate executionDate) {
+        CalendarWindow current = window;
+        if (current == null || !current.contains(executionDate)) {
+            return Optional.empty();
+        }
+
+        if (!current.isRestricted(executionDate)) {
+            return Optional.of(new ValidateExecutionDateResponse()
+                    .status(OK)
+                    .originalExecutionDate(executionDate));
+        }
+
+        Optional<LocalDate> before = current.previousAvailableDate(executionDate);
+        Optional<LocalDate> after = current.nextAvailableDate(executionDate);
+
+        if (before.isEmpty() || after.isEmpty()) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new ValidateExecutionDateResponse()
+                .status(RESTRICTED_DATE_DETECTED)
+                .originalExecutionDate(executionDate)
+                .nextAvailableExecutionDateBefore(before.get())
+                .nextAvailableExecutionDateAfter(after.get()));
+    }
+
+    private static class CalendarWindow {
+
+        private final LocalDate from;
+        private final int days;
+        private final BitSet restricted;
+
+        CalendarWindow(LocalDate from, int days, BitSet restricted) {
+            this.from = from;
+            this.days = days;
+            this.restricted = restricted;
+        }
+
+        boolean contains(LocalDate date) {
+            long index = indexOf(date);
+            return index >= 0 && index < days;
+        }
+
+        boolean isRestricted(LocalDate date) {
+            return restricted.get((int) indexOf(date));
+        }
+
+        Optional<LocalDate> previousAvailableDate(LocalDate date) {
+            int index = restricted.previousClearBit((int) indexOf(date));
+            return index < 0 ? Optional.empty() : Optional.of(from.plusDays(index));
+        }
+
+        Optional<LocalDate> nextAvailableDate(LocalDate date) {
+            int index = restricted.nextClearBit((int) indexOf(date));
+            return index >= days ? Optional.empty() : Optional.of(from.plusDays(index));
+        }
+
+        private long indexOf(LocalDate date) {
+            return ChronoUnit.DAYS.between(from, date);
+        }
+    }
+}
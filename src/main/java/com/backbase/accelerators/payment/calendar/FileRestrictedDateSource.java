@@ -0,0 +1,51 @@
+package com.backbase.accelerators.payment.calendar;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Reads restricted dates from a local file containing one ISO-8601 date per line. Blank lines and lines starting
+ * with {@code #} are ignored. The configured weekend days are restricted in addition to the listed dates.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class FileRestrictedDateSource implements RestrictedDateSource {
+
+    private final Path file;
+    private final List<DayOfWeek> weekendDays;
+
+    @Override
+    public Set<LocalDate> getRestrictedDates(LocalDate from, LocalDate to) {
+        log.info("Loading restricted dates from {} between {} and {}", file, from, to);
+        Set<LocalDate> restrictedDates = new HashSet<>();
+
+        try (Stream<String> lines = Files.lines(file)) {
+            lines.map(String::trim)
+                    .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                    .map(LocalDate::parse)
+                    .filter(date -> !date.isBefore(from) && date.isBefore(to))
+                    .forEach(restrictedDates::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read restricted dates from " + file, e);
+        }
+
+        for (LocalDate date = from; date.isBefore(to); date = date.plusDays(1)) {
+            if (weekendDays.contains(date.getDayOfWeek())) {
+                restrictedDates.add(date);
+            }
+        }
+
+        return restrictedDates;
+    }
+}
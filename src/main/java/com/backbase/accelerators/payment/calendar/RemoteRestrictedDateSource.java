@@ -0,0 +1,38 @@
+package com.backbase.accelerators.payment.calendar;
+
+import com.backbase.payments.scheduled.v1.service.api.ScheduledPaymentOrderApi;
+import com.backbase.payments.scheduled.v1.service.model.ValidateExecutionDateResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import static com.backbase.payments.scheduled.v1.service.model.ValidateExecutionDateResponse.StatusEnum.RESTRICTED_DATE_DETECTED;
+
+/**
+ * Builds the restricted date set by validating every date of the window against the scheduled payment order service.
+ * This costs one call per day of the window, once per calendar refresh, instead of one call per executed order.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RemoteRestrictedDateSource implements RestrictedDateSource {
+
+    private final ScheduledPaymentOrderApi scheduledPaymentOrderApi;
+
+    @Override
+    public Set<LocalDate> getRestrictedDates(LocalDate from, LocalDate to) {
+        log.info("Loading restricted dates from scheduled payment order service between {} and {}", from, to);
+        Set<LocalDate> restrictedDates = new HashSet<>();
+
+        for (LocalDate date = from; date.isBefore(to); date = date.plusDays(1)) {
+            ValidateExecutionDateResponse response = scheduledPaymentOrderApi.validateExecutionDate(date);
+            if (response.getStatus() == RESTRICTED_DATE_DETECTED) {
+                restrictedDates.add(date);
+            }
+        }
+
+        return restrictedDates;
+    }
+}
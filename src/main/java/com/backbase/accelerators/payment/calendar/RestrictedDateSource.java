@@ -0,0 +1,15 @@
+package com.backbase.accelerators.payment.calendar;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Supplies the dates on which payments must not be executed (weekends, bank holidays, other restricted dates).
+ */
+public interface RestrictedDateSource {
+
+    /**
+     * Returns the restricted dates between {@code from} (inclusive) and {@code to} (exclusive).
+     */
+    Set<LocalDate> getRestrictedDates(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,16 @@
+package com.backbase.accelerators.payment.client;
+
+import com.backbase.payments.v2.outbound.model.PaymentOrdersPostRequestBody;
+import com.backbase.payments.v2.outbound.model.PaymentOrdersPostResponseBody;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Non-blocking submission of payment orders to the payment order integration outbound service, provided when
+ * {@code payment-scheduler.http.mode} is {@code REACTIVE}. The future completes with the response of the core, or
+ * exceptionally when the call fails; it never completes with {@code null}.
+ */
+public interface AsyncPaymentOrderIntegrationOutboundApi {
+
+    CompletableFuture<PaymentOrdersPostResponseBody> postPaymentOrders(PaymentOrdersPostRequestBody paymentOrdersPostRequestBody);
+}
@@ -2,55 +2,104 @@ package com.backbase.accelerators.payment.client;
 
 import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
 import com.backbase.accelerators.payment.exception.RetryablePaymentOrderException;
+import com.backbase.accelerators.payment.limiter.AdaptiveConcurrencyLimiter;
+import com.backbase.accelerators.payment.limiter.RateLimiterRegistry;
+import com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics;
+import com.backbase.accelerators.payment.resilience.CircuitBreaker;
 import com.backbase.payments.v2.outbound.api.PaymentOrderIntegrationOutboundApi;
 import com.backbase.payments.v2.outbound.model.PaymentOrdersPostRequestBody;
 import com.backbase.payments.v2.outbound.model.PaymentOrdersPostResponseBody;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Recover;
-import org.springframework.retry.annotation.Retryable;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static com.backbase.accelerators.payment.config.PaymentExecutionConfiguration.PAYMENT_EXECUTOR_SERVICE_BEAN_NAME;
+import static com.backbase.accelerators.payment.config.PaymentOrderOutboundServiceApiConfiguration.PAYMENT_ORDER_INTEGRATION_SERVICE_ID;
+import static com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics.OUTCOME_ERROR;
+import static com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics.OUTCOME_REJECTED;
+import static com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics.OUTCOME_SUCCESS;
 import static com.backbase.payments.v2.service.model.Status.REJECTED;
 import static java.util.Objects.nonNull;
 import static org.apache.commons.lang3.StringUtils.isNotBlank;
 
+/**
+ * Submits payment orders to the payment order integration outbound service. Submissions never park a thread:
+ * retries of retryable failures are scheduled on a timer after {@code retry-backoff-delay-millis}, and while the
+ * circuit breaker is open submissions go straight to {@link #recover}.
+ */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class PaymentOrderOutboundClient {
 
     private final PaymentOrderIntegrationOutboundApi paymentOrderIntegrationOutboundApi;
     private final PaymentSchedulerProperties paymentSchedulerProperties;
+    private final AdaptiveConcurrencyLimiter outboundConcurrencyLimiter;
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final CircuitBreaker outboundCircuitBreaker;
+    private final PaymentSchedulerMetrics paymentSchedulerMetrics;
+    private final ExecutorService paymentExecutorService;
+    private final ObjectProvider<AsyncPaymentOrderIntegrationOutboundApi> asyncPaymentOrderIntegrationOutboundApi;
 
-    @Retryable(
-            value = RetryablePaymentOrderException.class,
-            maxAttemptsExpression = "${payment-scheduler.retry-max-attempts}",
-            backoff = @Backoff(delayExpression = "${payment-scheduler.retry-backoff-delay-millis}"))
-    public PaymentOrdersPostResponseBody sendToPaymentOrderOutboundService(
-            PaymentOrdersPostRequestBody paymentOrdersPostRequestBody) {
+    public PaymentOrderOutboundClient(
+            PaymentOrderIntegrationOutboundApi paymentOrderIntegrationOutboundApi,
+            PaymentSchedulerProperties paymentSchedulerProperties,
+            AdaptiveConcurrencyLimiter outboundConcurrencyLimiter,
+            RateLimiterRegistry rateLimiterRegistry,
+            CircuitBreaker outboundCircuitBreaker,
+            PaymentSchedulerMetrics paymentSchedulerMetrics,
+            @Qualifier(PAYMENT_EXECUTOR_SERVICE_BEAN_NAME) ExecutorService paymentExecutorService,
+            ObjectProvider<AsyncPaymentOrderIntegrationOutboundApi> asyncPaymentOrderIntegrationOutboundApi) {
 
-        PaymentOrdersPostResponseBody response;
-        try {
-            log.info("Invoking payment order outbound service with request: {}", paymentOrdersPostRequestBody);
-            response = paymentOrderIntegrationOutboundApi.postPaymentOrders(paymentOrdersPostRequestBody);
-            validateResponse(response);
-
-            return response;
-        } catch (Exception e) {
-            log.error("Error occurred invoking payment order outbound service: {}", e.getMessage());
-            return handleException(e);
+        if (paymentSchedulerProperties.getHttp().getMode() == PaymentSchedulerProperties.HttpMode.REACTIVE
+                && asyncPaymentOrderIntegrationOutboundApi.getIfAvailable() == null) {
+            throw new IllegalStateException(
+                    "payment-scheduler.http.mode REACTIVE requires a build with the reactive-http Maven profile");
         }
+
+        this.paymentOrderIntegrationOutboundApi = paymentOrderIntegrationOutboundApi;
+        this.paymentSchedulerProperties = paymentSchedulerProperties;
+        this.outboundConcurrencyLimiter = outboundConcurrencyLimiter;
+        this.rateLimiterRegistry = rateLimiterRegistry;
+        this.outboundCircuitBreaker = outboundCircuitBreaker;
+        this.paymentSchedulerMetrics = paymentSchedulerMetrics;
+        this.paymentExecutorService = paymentExecutorService;
+        this.asyncPaymentOrderIntegrationOutboundApi = asyncPaymentOrderIntegrationOutboundApi;
+    }
+
+    public CompletableFuture<PaymentOrdersPostResponseBody> sendToPaymentOrderOutboundService(
+            PaymentOrdersPostRequestBody paymentOrdersPostRequestBody) {
+
+        return attempt(paymentOrdersPostRequestBody, 1, false);
     }
 
-    @Recover
+    /**
+     * Submits the payment order once. A retryable failure, including a refusal by the open circuit breaker, completes
+     * the future with a {@link RetryablePaymentOrderException} so that the caller can decide when to try again.
+     */
+    public CompletableFuture<PaymentOrdersPostResponseBody> submitOnce(PaymentOrdersPostRequestBody paymentOrdersPostRequestBody) {
+        return attempt(paymentOrdersPostRequestBody, 1, true);
+    }
+
+    /**
+     * Fallback for a submission that failed after the maximum number of attempts, or that was refused by the open
+     * circuit breaker.
+     */
     public PaymentOrdersPostResponseBody recover(
             RetryablePaymentOrderException e,
             PaymentOrdersPostRequestBody paymentOrdersPostRequestBody) {
 
-        /* Per Spring Retry, this fallback method is triggered
-           when a Payment Order submission fails after max try attempts exceeded. */
         log.info("Entering retry recovery method with payment order: {}", paymentOrdersPostRequestBody.getId());
 
         return new PaymentOrdersPostResponseBody()
@@ -59,21 +108,181 @@ public class PaymentOrderOutboundClient {
                 .errorDescription(e.getMessage());
     }
 
-    private void validateResponse(PaymentOrdersPostResponseBody response) {
-        if (isPaymentRejected(response) && isRetryable(response)) {
-            throw new RetryablePaymentOrderException(response.getReasonText());
+    private CompletableFuture<PaymentOrdersPostResponseBody> attempt(
+            PaymentOrdersPostRequestBody paymentOrdersPostRequestBody,
+            int attempt,
+            boolean deferRetries) {
+
+        if (!outboundCircuitBreaker.tryAcquirePermission()) {
+            RetryablePaymentOrderException e =
+                    new RetryablePaymentOrderException("Payment order outbound service circuit breaker is open");
+
+            return deferRetries
+                    ? CompletableFuture.failedFuture(e)
+                    : CompletableFuture.completedFuture(recover(e, paymentOrdersPostRequestBody));
         }
+
+        return invoke(paymentOrdersPostRequestBody)
+                .handle((response, throwable) ->
+                        handleOutcome(paymentOrdersPostRequestBody, attempt, deferRetries, response, throwable))
+                .thenCompose(Function.identity());
     }
 
-    private PaymentOrdersPostResponseBody handleException(Exception e) {
-        if (isRetryable(e)) {
-            throw new RetryablePaymentOrderException(e);
+    private CompletableFuture<PaymentOrdersPostResponseBody> handleOutcome(
+            PaymentOrdersPostRequestBody paymentOrdersPostRequestBody,
+            int attempt,
+            boolean deferRetries,
+            PaymentOrdersPostResponseBody response,
+            Throwable throwable) {
+
+        if (throwable == null) {
+            if (isPaymentRejected(response) && isRetryable(response)) {
+                outboundCircuitBreaker.onFailure();
+                return retryOrRecover(
+                        paymentOrdersPostRequestBody,
+                        attempt,
+                        deferRetries,
+                        new RetryablePaymentOrderException(response.getReasonText()));
+            }
+
+            outboundCircuitBreaker.onSuccess();
+            return CompletableFuture.completedFuture(response);
         }
 
-        return new PaymentOrdersPostResponseBody()
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause()
+                : throwable;
+
+        log.error("Error occurred invoking payment order outbound service: {}", cause.getMessage());
+
+        // Only failures that say the core is unhealthy count towards the circuit breaker, a rejected request does not.
+        boolean retryable = isRetryable(cause);
+        if (retryable || isTransportFailure(cause)) {
+            outboundCircuitBreaker.onFailure();
+        } else {
+            outboundCircuitBreaker.onIgnored();
+        }
+
+        if (retryable) {
+            return retryOrRecover(paymentOrdersPostRequestBody, attempt, deferRetries, new RetryablePaymentOrderException(cause));
+        }
+
+        return CompletableFuture.completedFuture(new PaymentOrdersPostResponseBody()
                 .bankStatus(REJECTED.getValue())
                 .reasonText("Could not process scheduled payment")
-                .errorDescription(e.getMessage());
+                .errorDescription(cause.getMessage()));
+    }
+
+    private CompletableFuture<PaymentOrdersPostResponseBody> retryOrRecover(
+            PaymentOrdersPostRequestBody paymentOrdersPostRequestBody,
+            int attempt,
+            boolean deferRetries,
+            RetryablePaymentOrderException e) {
+
+        if (deferRetries) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        int retryMaxAttempts = paymentSchedulerProperties.getRetryMaxAttempts();
+        long retryBackoffDelayMillis = paymentSchedulerProperties.getRetryBackoffDelayMillis();
+
+        if (attempt >= retryMaxAttempts) {
+            return CompletableFuture.completedFuture(recover(e, paymentOrdersPostRequestBody));
+        }
+
+        paymentSchedulerMetrics.recordRetried(paymentOrdersPostRequestBody.getPaymentType());
+        log.info("Retrying payment order {} in {} ms, attempt {} of {}",
+                paymentOrdersPostRequestBody.getId(),
+                retryBackoffDelayMillis,
+                attempt + 1,
+                retryMaxAttempts);
+
+        // The backoff is a timer, not a sleep: the thread that saw the failure is free to submit other payments.
+        Executor backoff = CompletableFuture.delayedExecutor(retryBackoffDelayMillis, TimeUnit.MILLISECONDS);
+        return CompletableFuture.supplyAsync(() -> attempt(paymentOrdersPostRequestBody, attempt + 1, false), backoff)
+                .thenCompose(Function.identity());
+    }
+
+    private CompletableFuture<PaymentOrdersPostResponseBody> invoke(PaymentOrdersPostRequestBody paymentOrdersPostRequestBody) {
+        AsyncPaymentOrderIntegrationOutboundApi asyncApi = asyncPaymentOrderIntegrationOutboundApi.getIfAvailable();
+
+        // Paced before taking a concurrency permit, so waiting for a token does not hold a slot at the core.
+        Duration pacing = rateLimiterRegistry.reserve(
+                PAYMENT_ORDER_INTEGRATION_SERVICE_ID,
+                paymentOrdersPostRequestBody.getPaymentType());
+
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> permitted = pace(pacing)
+                .thenCompose(ignored -> outboundConcurrencyLimiter.acquireAsync());
+
+        if (asyncApi != null) {
+            return permitted.thenCompose(permit -> {
+                log.info("Invoking payment order outbound service with request: {}", paymentOrdersPostRequestBody);
+                Timer.Sample sample = paymentSchedulerMetrics.startTimer();
+                return postPaymentOrders(asyncApi, paymentOrdersPostRequestBody)
+                        .whenComplete((response, throwable) -> {
+                            if (throwable == null) {
+                                completePermit(permit, response);
+                            } else {
+                                permit.dropped();
+                            }
+                            recordSubmission(sample, paymentOrdersPostRequestBody, response);
+                        });
+            });
+        }
+
+        // The blocking call itself runs on the payment executor, never on the thread that completed a permit.
+        return permitted.thenApplyAsync(permit -> {
+            Timer.Sample sample = paymentSchedulerMetrics.startTimer();
+            try {
+                log.info("Invoking payment order outbound service with request: {}", paymentOrdersPostRequestBody);
+                PaymentOrdersPostResponseBody response =
+                        paymentOrderIntegrationOutboundApi.postPaymentOrders(paymentOrdersPostRequestBody);
+                completePermit(permit, response);
+                recordSubmission(sample, paymentOrdersPostRequestBody, response);
+
+                return response;
+            } catch (RuntimeException e) {
+                permit.dropped();
+                recordSubmission(sample, paymentOrdersPostRequestBody, null);
+                throw e;
+            }
+        }, paymentExecutorService);
+    }
+
+    private CompletableFuture<PaymentOrdersPostResponseBody> postPaymentOrders(
+            AsyncPaymentOrderIntegrationOutboundApi asyncApi,
+            PaymentOrdersPostRequestBody paymentOrdersPostRequestBody) {
+
+        try {
+            return asyncApi.postPaymentOrders(paymentOrdersPostRequestBody);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletableFuture<Void> pace(Duration pacing) {
+        return pacing.isZero()
+                ? CompletableFuture.completedFuture(null)
+                : CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(pacing.toNanos(), TimeUnit.NANOSECONDS));
+    }
+
+    private void completePermit(AdaptiveConcurrencyLimiter.Permit permit, PaymentOrdersPostResponseBody response) {
+        // A rejection the core asks us to retry is back-pressure, any other answer means the core kept up.
+        if (isPaymentRejected(response) && isRetryable(response)) {
+            permit.dropped();
+        } else {
+            permit.success();
+        }
+    }
+
+    private void recordSubmission(
+            Timer.Sample sample,
+            PaymentOrdersPostRequestBody paymentOrdersPostRequestBody,
+            PaymentOrdersPostResponseBody response) {
+
+        // Only the call to the core is timed, pacing and waiting for a concurrency permit are not.
+        String outcome = response == null ? OUTCOME_ERROR : isPaymentRejected(response) ? OUTCOME_REJECTED : OUTCOME_SUCCESS;
+        paymentSchedulerMetrics.recordPaymentOrderSubmission(sample, paymentOrdersPostRequestBody.getPaymentType(), outcome);
     }
 
     private boolean isPaymentRejected(PaymentOrdersPostResponseBody response) {
@@ -89,7 +298,7 @@ public class PaymentOrderOutboundClient {
                 && paymentSchedulerProperties.getRetryErrorCodes().contains(response.getReasonCode());
     }
 
-    private boolean isRetryable(Exception e) {
+    private boolean isRetryable(Throwable e) {
         /* A list of retry-able exception classes can be defined in the application.yaml. If one of these configured
          exceptions is thrown, then the scheduler will attempt to resubmit the payment to the core. */
 
@@ -98,4 +307,8 @@ public class PaymentOrderOutboundClient {
 
         return paymentSchedulerProperties.getRetryExceptionClasses().contains(exceptionClassName);
     }
+
+    private boolean isTransportFailure(Throwable e) {
+        return e instanceof ResourceAccessException || e instanceof IOException;
+    }
 }
@@ -0,0 +1,151 @@
+package com.backbase.accelerators.payment.client;
+
+import com.backbase.accelerators.payment.model.PaymentOrderPage;
+import com.backbase.payments.v2.service.model.GetPaymentOrderResponse;
+import com.backbase.payments.v2.service.model.PaymentOrderPostFilterResponse;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Reads pages of {@code postFilterPaymentOrders} with a streaming parser, one payment order at a time, and drops
+ * the orders that the calling thread does not want before the next one is read. Only the kept orders of a page are
+ * ever held in memory, so the heap needed per page no longer grows with the page size. Without a filter in place
+ * every order is kept.
+ */
+public class PaymentOrderPageMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private static final String PAYMENT_ORDERS = "paymentOrders";
+
+    private static final ThreadLocal<PageFilter> PAGE_FILTER = new ThreadLocal<>();
+
+    private final ObjectReader paymentOrderReader;
+
+    public PaymentOrderPageMessageConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+        this.paymentOrderReader = objectMapper.readerFor(GetPaymentOrderResponse.class);
+    }
+
+    /**
+     * Performs the given call with only the payment orders matching {@code keep} being kept from the page it reads,
+     * and returns that page along with the number of orders it was read from.
+     */
+    public static PaymentOrderPage filtering(
+            Predicate<GetPaymentOrderResponse> keep,
+            Supplier<PaymentOrderPostFilterResponse> call) {
+
+        PageFilter pageFilter = new PageFilter(keep);
+        PAGE_FILTER.set(pageFilter);
+        try {
+            PaymentOrderPostFilterResponse response = call.get();
+
+            // A response that did not pass through this converter was not filtered.
+            return pageFilter.read
+                    ? new PaymentOrderPage(response.getPaymentOrders(), response.getTotalElements(), pageFilter.fetchedCount)
+                    : PaymentOrderPage.of(response);
+        } finally {
+            PAGE_FILTER.remove();
+        }
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return type == PaymentOrderPostFilterResponse.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, @Nullable MediaType mediaType) {
+        return clazz == PaymentOrderPostFilterResponse.class && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, @Nullable Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        return readPage(inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return readPage(inputMessage);
+    }
+
+    private PaymentOrderPostFilterResponse readPage(HttpInputMessage inputMessage) throws IOException {
+        PageFilter pageFilter = PAGE_FILTER.get();
+        Predicate<GetPaymentOrderResponse> keep = pageFilter != null ? pageFilter.keep : null;
+        ObjectMapper objectMapper = getObjectMapper();
+
+        PaymentOrderPostFilterResponse page = new PaymentOrderPostFilterResponse();
+        List<GetPaymentOrderResponse> paymentOrders = new ArrayList<>();
+        // Every other property of the page is small, those are bound in one go once the payment orders are read.
+        ObjectNode otherProperties = objectMapper.createObjectNode();
+        int fetchedCount = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(inputMessage.getBody())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new HttpMessageNotReadableException("Expected a page of payment orders", inputMessage);
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+
+                if (PAYMENT_ORDERS.equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        GetPaymentOrderResponse paymentOrder = paymentOrderReader.readValue(parser);
+                        ++fetchedCount;
+
+                        if (keep == null || keep.test(paymentOrder)) {
+                            paymentOrders.add(paymentOrder);
+                        }
+                    }
+                } else {
+                    otherProperties.set(field, objectMapper.readTree(parser));
+                }
+            }
+        }
+
+        objectMapper.readerForUpdating(page).readValue(otherProperties);
+        page.setPaymentOrders(paymentOrders);
+
+        if (pageFilter != null) {
+            pageFilter.read = true;
+            pageFilter.fetchedCount = fetchedCount;
+        }
+
+        return page;
+    }
+
+    private static final class PageFilter {
+
+        private final Predicate<GetPaymentOrderResponse> keep;
+        private boolean read;
+        private int fetchedCount;
+
+        private PageFilter(Predicate<GetPaymentOrderResponse> keep) {
+            this.keep = keep;
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package com.backbase.accelerators.payment.client;
 
 import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import com.backbase.accelerators.payment.eligibility.EligibilityFilter;
+import com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics;
 import com.backbase.accelerators.payment.model.PaymentOrderExecutionResponse;
+import com.backbase.accelerators.payment.model.PaymentOrderPage;
 import com.backbase.accelerators.payment.model.ScheduledPaymentOrder;
+import com.backbase.accelerators.payment.run.RunContext;
 import com.backbase.accelerators.payment.util.ScheduledPaymentUtil;
 import com.backbase.payments.scheduled.v1.service.model.ValidateExecutionDateResponse;
 import com.backbase.payments.v2.outbound.model.PaymentOrdersPostResponseBody;
 import com.backbase.payments.v2.service.api.PaymentOrdersApi;
 import com.backbase.payments.v2.service.model.Audit;
+import com.backbase.payments.v2.service.model.GetPaymentOrderResponse;
 import com.backbase.payments.v2.service.model.PaymentOrderPostFilterRequest;
 import com.backbase.payments.v2.service.model.PaymentOrderPostFilterResponse;
 import com.backbase.payments.v2.service.model.PaymentOrderPutRequest;
@@ -20,9 +25,12 @@ import org.springframework.stereotype.Component;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static com.backbase.accelerators.payment.constants.DataModelAdditions.EXECUTION_COUNT;
 import static com.backbase.accelerators.payment.constants.DataModelAdditions.ORIGINAL_NEXT_EXECUTION_DATE;
+import static com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics.FETCH_PAYMENT_ORDERS;
+import static com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics.UPDATE_NEXT_EXECUTION_DATE;
 import static com.backbase.payments.scheduled.v1.service.model.ValidateExecutionDateResponse.StatusEnum.OK;
 import static com.backbase.payments.scheduled.v1.service.model.ValidateExecutionDateResponse.StatusEnum.RESTRICTED_DATE_DETECTED;
 import static com.backbase.payments.v2.service.model.PaymentMode.RECURRING;
@@ -39,39 +47,101 @@ public class PaymentOrderServiceClient {
     private final PaymentOrdersApi paymentOrdersApi;
     private final ScheduledPaymentOrderServiceClient scheduledPaymentOrderServiceClient;
     private final PaymentSchedulerProperties paymentSchedulerProperties;
+    private final PaymentSchedulerMetrics paymentSchedulerMetrics;
 
-    public PaymentOrderPostFilterResponse getScheduledPaymentOrders(int from, int size) {
+    private volatile EligibilityFilter eligibilityFilter;
+
+    /**
+     * Makes the pages of the run discard the orders that are not due on its business date while they are read, when
+     * streaming is enabled.
+     */
+    public void startRun(RunContext runContext) {
+        eligibilityFilter = new EligibilityFilter(runContext.getEligibilityEvaluator(), paymentSchedulerMetrics);
+    }
+
+    /**
+     * The schedule date that a due date query matches against the business date. An order is due when either its
+     * next execution date or its start date is the business date, which the payment order service cannot match in
+     * one query, so the due set is read with one query per date.
+     */
+    public enum DueDate {
+        NEXT_EXECUTION_DATE,
+        START_DATE
+    }
+
+    /**
+     * Returns a page of every recurring payment order matching the configured statuses and payment types.
+     */
+    public PaymentOrderPage getScheduledPaymentOrders(int from, int size) {
         log.info("Fetching scheduled payments starting at index {} and with page size {}", from, size);
 
+        return postFilterPaymentOrders(from, size, null, null, null);
+    }
+
+    /**
+     * Returns a page of the recurring payment orders whose {@code dueDate} is the business date and whose end date
+     * has not passed. The full eligibility check is still applied on the client side.
+     */
+    public PaymentOrderPage getDuePaymentOrders(DueDate dueDate, LocalDate businessDate, int from, int size) {
+        log.info("Fetching scheduled payments with {} {} starting at index {} and with page size {}",
+                dueDate, businessDate, from, size);
+
+        return dueDate == DueDate.NEXT_EXECUTION_DATE
+                ? postFilterPaymentOrders(from, size, businessDate, null, businessDate)
+                : postFilterPaymentOrders(from, size, null, businessDate, businessDate);
+    }
+
+    private PaymentOrderPage postFilterPaymentOrders(
+            int from,
+            int size,
+            LocalDate executionDate,
+            LocalDate startDate,
+            LocalDate endDateFrom) {
+
         PaymentOrderPostFilterRequest request = new PaymentOrderPostFilterRequest()
                 .paymentTypes(paymentSchedulerProperties.getQueryFilters().getPaymentTypes())
                 .statuses(paymentSchedulerProperties.getQueryFilters().getStatuses());
 
-        PaymentOrderPostFilterResponse response = paymentOrdersApi.postFilterPaymentOrders(
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                null,
-                RECURRING.getValue(),
-                null,
-                null,
-                null,
-                null,
-                from,
-                size,
-                null,
-                null,
-                request);
+        Supplier<PaymentOrderPostFilterResponse> postFilterPaymentOrders = () ->
+                paymentOrdersApi.postFilterPaymentOrders(
+                        null,
+                        null,
+                        null,
+                        null,
+                        null,
+                        executionDate,
+                        executionDate,
+                        null,
+                        RECURRING.getValue(),
+                        startDate,
+                        startDate,
+                        endDateFrom,
+                        null,
+                        from,
+                        size,
+                        null,
+                        null,
+                        request);
+
+        PaymentOrderPage response = paymentSchedulerMetrics.time(FETCH_PAYMENT_ORDERS, () ->
+                isStreaming()
+                        ? PaymentOrderPageMessageConverter.filtering(eligibilityFilter, postFilterPaymentOrders)
+                        : PaymentOrderPage.of(postFilterPaymentOrders.get()));
 
         log.debug("Scheduled payment orders retrieved: {}", response);
         return response;
     }
 
+    private boolean isStreaming() {
+        return eligibilityFilter != null && paymentSchedulerProperties.getIteratorProperties().isStreamingEnabled();
+    }
+
     public void updateNextExecutionDate(PaymentOrderExecutionResponse paymentOrderExecutionResponse) {
+        PaymentOrderPutRequest request = createNextExecutionDateUpdate(paymentOrderExecutionResponse);
+        updatePaymentOrder(paymentOrderExecutionResponse.getOriginalScheduledPaymentOrder().getId(), request);
+    }
+
+    public PaymentOrderPutRequest createNextExecutionDateUpdate(PaymentOrderExecutionResponse paymentOrderExecutionResponse) {
         ScheduledPaymentOrder scheduledPaymentOrder = paymentOrderExecutionResponse.getOriginalScheduledPaymentOrder();
         PaymentOrdersPostResponseBody paymentOrdersPostResponseBody = paymentOrderExecutionResponse.getPaymentOrdersPostResponseBody();
         log.info("Updating next execution date for scheduled payment: {}", scheduledPaymentOrder.getId());
@@ -90,7 +160,8 @@ public class PaymentOrderServiceClient {
 
             /* The nextExecutionDate is calculated purely off of the schedule defined on the payment order object
              * and does not account for weekends or restricted dates. That check will happen in the next step. */
-            LocalDate nextExecutionDate = ScheduledPaymentUtil.calculateNextExecutionDate(scheduledPaymentOrder);
+            LocalDate nextExecutionDate = ScheduledPaymentUtil.calculateNextExecutionDate(
+                    scheduledPaymentOrder, paymentOrderExecutionResponse.getBusinessDate());
 
             if (nonNull(nextExecutionDate)) {
                 /* Submit the nextExecutionDate for additional validation. If it falls on a weekend/restricted date
@@ -115,12 +186,18 @@ public class PaymentOrderServiceClient {
         }
 
         log.info("PaymentOrderPutRequest: {}", request);
-        PaymentOrderPutResponse response = paymentOrdersApi.updatePaymentOrder(
-                scheduledPaymentOrder.getId(),
-                "INTERNALID",
-                request);
+        return request;
+    }
+
+    public PaymentOrderPutResponse updatePaymentOrder(String paymentOrderId, PaymentOrderPutRequest request) {
+        PaymentOrderPutResponse response = paymentSchedulerMetrics.time(UPDATE_NEXT_EXECUTION_DATE, () ->
+                paymentOrdersApi.updatePaymentOrder(
+                        paymentOrderId,
+                        "INTERNALID",
+                        request));
 
         log.info("Successfully updated nextExecutionDate for scheduled payment order {}", response.getId());
+        return response;
     }
 
     private LocalDate validateExecutionDate(
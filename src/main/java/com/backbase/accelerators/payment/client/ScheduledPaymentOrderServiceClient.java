@@ -1,8 +1,13 @@
 package com.backbase.accelerators.payment.client;
 
+import com.backbase.accelerators.payment.cache.SingleFlightCache;
+import com.backbase.accelerators.payment.calendar.BusinessCalendar;
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
 import com.backbase.accelerators.payment.mapper.PaymentOrderMapper;
+import com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics;
 import com.backbase.accelerators.payment.model.PaymentOrderExecutionResponse;
 import com.backbase.payments.scheduled.v1.service.api.ScheduledPaymentOrderApi;
+import com.backbase.payments.scheduled.v1.service.model.PostScheduledPaymentOrderTransactionRequest;
 import com.backbase.payments.scheduled.v1.service.model.PostScheduledPaymentOrderTransactionResponse;
 import com.backbase.payments.scheduled.v1.service.model.ValidateExecutionDateResponse;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +15,10 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
+import java.util.Optional;
+
+import static com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics.CREATE_TRANSACTION_RECORD;
+import static com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics.VALIDATE_EXECUTION_DATE;
 
 @Slf4j
 @Component
@@ -18,6 +27,10 @@ public class ScheduledPaymentOrderServiceClient {
 
     private final ScheduledPaymentOrderApi scheduledPaymentOrderApi;
     private final PaymentOrderMapper paymentOrderMapper;
+    private final SingleFlightCache<LocalDate, ValidateExecutionDateResponse> executionDateValidationCache;
+    private final PaymentSchedulerProperties paymentSchedulerProperties;
+    private final BusinessCalendar businessCalendar;
+    private final PaymentSchedulerMetrics paymentSchedulerMetrics;
 
     public PaymentOrderExecutionResponse createScheduledPaymentOrderTransaction(
             PaymentOrderExecutionResponse paymentOrderExecutionResponse) {
@@ -25,14 +38,48 @@ public class ScheduledPaymentOrderServiceClient {
         log.info("Creating scheduled payment order transaction record for scheduled payment order: {}",
                 paymentOrderExecutionResponse.getOriginalScheduledPaymentOrder().getId());
 
-        PostScheduledPaymentOrderTransactionResponse response = scheduledPaymentOrderApi.postScheduledPaymentOrderTransaction(
+        createScheduledPaymentOrderTransaction(
                 paymentOrderMapper.toPostScheduledPaymentOrderTransactionRequest(paymentOrderExecutionResponse));
 
-        log.info("Scheduled payment order transaction created. TransactionId: {}", response.getId());
         return paymentOrderExecutionResponse;
     }
 
+    public PostScheduledPaymentOrderTransactionResponse createScheduledPaymentOrderTransaction(
+            PostScheduledPaymentOrderTransactionRequest request) {
+
+        PostScheduledPaymentOrderTransactionResponse response = paymentSchedulerMetrics.time(CREATE_TRANSACTION_RECORD, () ->
+                scheduledPaymentOrderApi.postScheduledPaymentOrderTransaction(request));
+
+        log.info("Scheduled payment order transaction created. TransactionId: {}", response.getId());
+        return response;
+    }
+
     public ValidateExecutionDateResponse validateNextExecutionDate(LocalDate executionDate) {
+        return paymentSchedulerMetrics.time(VALIDATE_EXECUTION_DATE, () -> resolveExecutionDate(executionDate));
+    }
+
+    public void clearExecutionDateValidationCache() {
+        executionDateValidationCache.invalidateAll();
+    }
+
+    private ValidateExecutionDateResponse resolveExecutionDate(LocalDate executionDate) {
+        // Resolve locally when the business calendar covers the date, otherwise fall back to the remote API.
+        Optional<ValidateExecutionDateResponse> resolved = businessCalendar.resolve(executionDate);
+        if (resolved.isPresent()) {
+            log.debug("Execution date {} resolved by business calendar: {}", executionDate, resolved.get());
+            return resolved.get();
+        }
+
+        /* Most orders of a run resolve to the same few candidate dates, so validation results are cached and
+         * concurrent lookups of the same date share a single remote call. */
+        if (paymentSchedulerProperties.getExecutionDateCache().isEnabled()) {
+            return executionDateValidationCache.get(executionDate, this::fetchExecutionDateValidation);
+        }
+
+        return fetchExecutionDateValidation(executionDate);
+    }
+
+    private ValidateExecutionDateResponse fetchExecutionDateValidation(LocalDate executionDate) {
         ValidateExecutionDateResponse response = scheduledPaymentOrderApi.validateExecutionDate(executionDate);
         log.info("ValidateExecutionDateResponse: {}", response);
 
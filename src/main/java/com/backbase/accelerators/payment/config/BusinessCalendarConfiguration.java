@@ -0,0 +1,60 @@
+package com.backbase.accelerators.payment.config;
+
+import com.backbase.accelerators.payment.calendar.BusinessCalendar;
+import com.backbase.accelerators.payment.calendar.FileRestrictedDateSource;
+import com.backbase.accelerators.payment.calendar.RemoteRestrictedDateSource;
+import com.backbase.accelerators.payment.calendar.RestrictedDateSource;
+import com.backbase.payments.scheduled.v1.service.api.ScheduledPaymentOrderApi;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Paths;
+import java.time.Clock;
+
+import static com.backbase.accelerators.payment.config.PaymentSchedulerProperties.RestrictedDateSourceType.FILE;
+import static org.apache.commons.lang3.StringUtils.isBlank;
+
+@Configuration
+public class BusinessCalendarConfiguration {
+
+    @Bean(destroyMethod = "stop")
+    public BusinessCalendar businessCalendar(
+            PaymentSchedulerProperties paymentSchedulerProperties,
+            ScheduledPaymentOrderApi scheduledPaymentOrderApi,
+            Clock clock) {
+
+        PaymentSchedulerProperties.BusinessCalendarProperties calendarProperties =
+                paymentSchedulerProperties.getBusinessCalendar();
+
+        // A disabled calendar is never loaded, so every date falls back to the remote API.
+        if (!calendarProperties.isEnabled()) {
+            return BusinessCalendar.disabled();
+        }
+
+        BusinessCalendar businessCalendar = new BusinessCalendar(
+                restrictedDateSource(calendarProperties, scheduledPaymentOrderApi),
+                calendarProperties.getWindowDays(),
+                clock);
+        businessCalendar.start(calendarProperties.getRefreshInterval());
+
+        return businessCalendar;
+    }
+
+    private RestrictedDateSource restrictedDateSource(
+            PaymentSchedulerProperties.BusinessCalendarProperties calendarProperties,
+            ScheduledPaymentOrderApi scheduledPaymentOrderApi) {
+
+        if (calendarProperties.getSource() == FILE) {
+            if (isBlank(calendarProperties.getFile())) {
+                throw new IllegalStateException(
+                        "payment-scheduler.business-calendar.file is required when business-calendar.source is FILE");
+            }
+
+            return new FileRestrictedDateSource(
+                    Paths.get(calendarProperties.getFile()),
+                    calendarProperties.getWeekendDays());
+        }
+
+        return new RemoteRestrictedDateSource(scheduledPaymentOrderApi);
+    }
+}
@@ -0,0 +1,32 @@
+package com.backbase.accelerators.payment.config;
+
+import com.backbase.accelerators.payment.resilience.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class CircuitBreakerConfiguration {
+
+    private static final String OUTBOUND_CIRCUIT_BREAKER_NAME = "payment-order-outbound";
+
+    @Bean
+    public CircuitBreaker outboundCircuitBreaker(
+            PaymentSchedulerProperties paymentSchedulerProperties,
+            MeterRegistry meterRegistry) {
+
+        PaymentSchedulerProperties.CircuitBreakerProperties circuitBreakerProperties =
+                paymentSchedulerProperties.getOutboundCircuitBreaker();
+
+        if (!circuitBreakerProperties.isEnabled()) {
+            return CircuitBreaker.disabled(OUTBOUND_CIRCUIT_BREAKER_NAME, meterRegistry);
+        }
+
+        return new CircuitBreaker(
+                OUTBOUND_CIRCUIT_BREAKER_NAME,
+                circuitBreakerProperties.getFailureThreshold(),
+                circuitBreakerProperties.getOpenDuration(),
+                circuitBreakerProperties.getHalfOpenTrialCalls(),
+                meterRegistry);
+    }
+}
@@ -0,0 +1,29 @@
+package com.backbase.accelerators.payment.config;
+
+import com.backbase.accelerators.payment.cache.SingleFlightCache;
+import com.backbase.payments.scheduled.v1.service.model.ValidateExecutionDateResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.LocalDate;
+
+@Configuration
+public class ExecutionDateCacheConfiguration {
+
+    private static final String EXECUTION_DATE_VALIDATION_CACHE_NAME = "execution-date-validation";
+
+    @Bean
+    public SingleFlightCache<LocalDate, ValidateExecutionDateResponse> executionDateValidationCache(
+            PaymentSchedulerProperties paymentSchedulerProperties,
+            MeterRegistry meterRegistry) {
+
+        PaymentSchedulerProperties.CacheProperties cacheProperties = paymentSchedulerProperties.getExecutionDateCache();
+
+        return new SingleFlightCache<>(
+                EXECUTION_DATE_VALIDATION_CACHE_NAME,
+                cacheProperties.getTtl(),
+                cacheProperties.getMaxSize(),
+                meterRegistry);
+    }
+}
@@ -0,0 +1,30 @@
+package com.backbase.accelerators.payment.config;
+
+import com.backbase.accelerators.payment.shard.InMemoryLeaseStore;
+import com.backbase.accelerators.payment.shard.JdbcLeaseStore;
+import com.backbase.accelerators.payment.shard.LeaseStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+
+import static com.backbase.accelerators.payment.config.PaymentSchedulerProperties.LeaseStoreType.JDBC;
+
+@Configuration
+public class LeaseStoreConfiguration {
+
+    @Bean
+    public LeaseStore leaseStore(
+            PaymentSchedulerProperties paymentSchedulerProperties,
+            ObjectProvider<DataSource> dataSource) {
+
+        if (paymentSchedulerProperties.getLeaseStore() == JDBC) {
+            return new JdbcLeaseStore(new JdbcTemplate(dataSource.getObject()), Clock.systemUTC());
+        }
+
+        return new InMemoryLeaseStore(Clock.systemUTC());
+    }
+}
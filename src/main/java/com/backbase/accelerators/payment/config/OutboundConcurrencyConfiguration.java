@@ -0,0 +1,43 @@
+package com.backbase.accelerators.payment.config;
+
+import com.backbase.accelerators.payment.limiter.AdaptiveConcurrencyLimiter;
+import com.backbase.accelerators.payment.limiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class OutboundConcurrencyConfiguration {
+
+    private static final String OUTBOUND_CONCURRENCY_LIMITER_NAME = "payment-order-outbound";
+
+    @Bean
+    public AdaptiveConcurrencyLimiter outboundConcurrencyLimiter(
+            PaymentSchedulerProperties paymentSchedulerProperties,
+            MeterRegistry meterRegistry) {
+
+        PaymentSchedulerProperties.ConcurrencyLimitProperties limitProperties =
+                paymentSchedulerProperties.getOutboundConcurrency();
+
+        if (!limitProperties.isEnabled()) {
+            return AdaptiveConcurrencyLimiter.unlimited(OUTBOUND_CONCURRENCY_LIMITER_NAME, meterRegistry);
+        }
+
+        return new AdaptiveConcurrencyLimiter(
+                OUTBOUND_CONCURRENCY_LIMITER_NAME,
+                limitProperties.getInitialLimit(),
+                limitProperties.getMinLimit(),
+                limitProperties.getMaxLimit(),
+                limitProperties.getBackoffRatio(),
+                limitProperties.getLatencyThreshold(),
+                meterRegistry);
+    }
+
+    @Bean
+    public RateLimiterRegistry rateLimiterRegistry(
+            PaymentSchedulerProperties paymentSchedulerProperties,
+            MeterRegistry meterRegistry) {
+
+        return new RateLimiterRegistry(paymentSchedulerProperties.getRateLimits(), meterRegistry);
+    }
+}
@@ -0,0 +1,51 @@
+package com.backbase.accelerators.payment.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.backbase.accelerators.payment.config.PaymentSchedulerProperties.ExecutionMode.VIRTUAL;
+
+@Slf4j
+@Configuration
+public class PaymentExecutionConfiguration {
+
+    public static final String PAYMENT_EXECUTOR_SERVICE_BEAN_NAME = "paymentExecutorService";
+
+    @Bean(name = PAYMENT_EXECUTOR_SERVICE_BEAN_NAME, destroyMethod = "shutdown")
+    public ExecutorService paymentExecutorService(PaymentSchedulerProperties paymentSchedulerProperties) {
+        PaymentSchedulerProperties.ExecutionProperties execution = paymentSchedulerProperties.getExecution();
+        log.info("Initializing payment execution engine. mode={}; maxConcurrency={}",
+                execution.getMode(),
+                execution.getMaxConcurrency());
+
+        if (execution.getMode() == VIRTUAL) {
+            return newVirtualThreadPerTaskExecutor(execution);
+        }
+
+        return newPlatformThreadPool(execution);
+    }
+
+    private ExecutorService newPlatformThreadPool(PaymentSchedulerProperties.ExecutionProperties execution) {
+        return Executors.newFixedThreadPool(
+                execution.getMaxConcurrency(),
+                new CustomizableThreadFactory(execution.getThreadNamePrefix()));
+    }
+
+    private ExecutorService newVirtualThreadPerTaskExecutor(PaymentSchedulerProperties.ExecutionProperties execution) {
+        /* The service is compiled for Java 11, so virtual threads are looked up reflectively. When the runtime
+         * does not provide them (pre-21 JVM, or preview features disabled) we fall back to platform threads. */
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("Virtual threads are not available on this runtime, falling back to platform threads: {}",
+                    e.toString());
+
+            return newPlatformThreadPool(execution);
+        }
+    }
+}
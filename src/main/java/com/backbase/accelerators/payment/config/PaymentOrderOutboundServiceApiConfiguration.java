@@ -16,7 +16,7 @@ import static com.backbase.buildingblocks.communication.http.HttpCommunicationCo
 @Configuration
 public class PaymentOrderOutboundServiceApiConfiguration {
 
-    private static final String PAYMENT_ORDER_INTEGRATION_SERVICE_ID = "payment-order-integration-service";
+    public static final String PAYMENT_ORDER_INTEGRATION_SERVICE_ID = "payment-order-integration-service";
 
     @Value("${backbase.communication.http.default-scheme:http}")
     @Pattern(regexp = "https?")
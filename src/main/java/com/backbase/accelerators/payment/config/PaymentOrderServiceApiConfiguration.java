@@ -1,14 +1,19 @@
 package com.backbase.accelerators.payment.config;
 
+import com.backbase.accelerators.payment.client.PaymentOrderPageMessageConverter;
 import com.backbase.payments.v2.service.ApiClient;
 import com.backbase.payments.v2.service.api.PaymentOrdersApi;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 
 import javax.validation.constraints.Pattern;
+import java.util.ArrayList;
+import java.util.List;
 
 import static com.backbase.buildingblocks.communication.http.HttpCommunicationConfiguration.INTERCEPTORS_ENABLED_HEADER;
 import static com.backbase.buildingblocks.communication.http.HttpCommunicationConfiguration.INTER_SERVICE_REST_TEMPLATE_BEAN_NAME;
@@ -23,11 +28,37 @@ public class PaymentOrderServiceApiConfiguration {
     private String scheme;
 
     @Bean
-    public PaymentOrdersApi paymentOrderApi(@Qualifier(INTER_SERVICE_REST_TEMPLATE_BEAN_NAME) RestTemplate restTemplate) {
-        ApiClient apiClient = new ApiClient(restTemplate);
+    public PaymentOrdersApi paymentOrderApi(
+            @Qualifier(INTER_SERVICE_REST_TEMPLATE_BEAN_NAME) RestTemplate restTemplate,
+            PaymentSchedulerProperties paymentSchedulerProperties,
+            ObjectMapper objectMapper) {
+
+        RestTemplate paymentOrderRestTemplate = paymentSchedulerProperties.getIteratorProperties().isStreamingEnabled()
+                ? streamingRestTemplate(restTemplate, objectMapper)
+                : restTemplate;
+
+        ApiClient apiClient = new ApiClient(paymentOrderRestTemplate);
         apiClient.setBasePath(scheme + "://" + PAYMENT_ORDER_SERVICE_ID);
         apiClient.addDefaultHeader(INTERCEPTORS_ENABLED_HEADER, Boolean.TRUE.toString());
 
         return new PaymentOrdersApi(apiClient);
     }
+
+    /**
+     * A copy of the inter-service rest template that also streams pages of payment orders, so that the shared template
+     * and the other APIs using it are left as they are.
+     */
+    static RestTemplate streamingRestTemplate(RestTemplate restTemplate, ObjectMapper objectMapper) {
+        // Ahead of the default Jackson converter; it only reads pages of payment orders and leaves everything else.
+        List<HttpMessageConverter<?>> messageConverters = new ArrayList<>(restTemplate.getMessageConverters());
+        messageConverters.add(0, new PaymentOrderPageMessageConverter(objectMapper));
+
+        // The request factory of the inter-service template already applies its interceptors.
+        RestTemplate streamingRestTemplate = new RestTemplate(restTemplate.getRequestFactory());
+        streamingRestTemplate.setMessageConverters(messageConverters);
+        streamingRestTemplate.setErrorHandler(restTemplate.getErrorHandler());
+        streamingRestTemplate.setUriTemplateHandler(restTemplate.getUriTemplateHandler());
+
+        return streamingRestTemplate;
+    }
 }
@@ -5,8 +5,13 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.DayOfWeek;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 @Data
 @Configuration
@@ -16,18 +21,204 @@ public class PaymentSchedulerProperties {
     private boolean limitChecksEnabled;
     private IteratorProperties iteratorProperties;
     private QueryFilters queryFilters;
+    private ExecutionProperties execution = new ExecutionProperties();
+    private HttpProperties http = new HttpProperties();
+    private ConcurrencyLimitProperties outboundConcurrency = new ConcurrencyLimitProperties();
+    private Map<String, DownstreamRateLimits> rateLimits = new HashMap<>();
+    private CircuitBreakerProperties outboundCircuitBreaker = new CircuitBreakerProperties();
+    private DeferredRetryProperties deferredRetry = new DeferredRetryProperties();
+    private CacheProperties executionDateCache = new CacheProperties();
+    private BusinessCalendarProperties businessCalendar = new BusinessCalendarProperties();
+    private WriteBackProperties writeBack = new WriteBackProperties();
+    private TransactionRecordProperties transactionRecords = new TransactionRecordProperties();
+    private ShardingProperties sharding = new ShardingProperties();
+    private WorkQueueProperties workQueue = new WorkQueueProperties();
+    private RunCoordinatorProperties runCoordinator = new RunCoordinatorProperties();
+    private JournalProperties journal = new JournalProperties();
+    private ExecutedTodayIndexProperties executedTodayIndex = new ExecutedTodayIndexProperties();
+    private String replicaId = UUID.randomUUID().toString();
+    private LeaseStoreType leaseStore = LeaseStoreType.IN_MEMORY;
     private List<String> retryErrorCodes = new ArrayList<>();
     private List<String> retryExceptionClasses = new ArrayList<>();
+    private int retryMaxAttempts = 3;
+    private long retryBackoffDelayMillis = 1000;
 
     @Data
     public static class IteratorProperties {
         private int pageSize;
+        private IteratorMode mode = IteratorMode.SEQUENTIAL;
+        private int prefetchDepth = 2;
+        private int fetchParallelism = 4;
+        private int bufferSize = 8;
+        private boolean streamingEnabled;
     }
 
     @Data
     public static class QueryFilters {
         private List<Status> statuses;
         private List<String> paymentTypes;
+        private boolean dueDateFilterEnabled;
+    }
+
+    @Data
+    public static class ExecutionProperties {
+        private ExecutionMode mode = ExecutionMode.PLATFORM;
+        private int maxConcurrency = 16;
+        private String threadNamePrefix = "payment-executor-";
+        private int maxInFlightRequests = 256;
+    }
+
+    @Data
+    public static class ConcurrencyLimitProperties {
+        private boolean enabled;
+        private int initialLimit = 8;
+        private int minLimit = 1;
+        private int maxLimit = 16;
+        private double backoffRatio = 0.75;
+        private Duration latencyThreshold = Duration.ofSeconds(5);
+    }
+
+    @Data
+    public static class CircuitBreakerProperties {
+        private boolean enabled;
+        private int failureThreshold = 5;
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int halfOpenTrialCalls = 1;
+    }
+
+    @Data
+    public static class DeferredRetryProperties {
+        private boolean enabled;
+        private double budgetPercent = 10;
+        private Duration maxBackoff = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class DownstreamRateLimits {
+        private RateLimit shared;
+        private Map<String, RateLimit> paymentTypes = new HashMap<>();
+    }
+
+    @Data
+    public static class RateLimit {
+        private double permitsPerSecond;
+        private int burst = 1;
+    }
+
+    @Data
+    public static class HttpProperties {
+        private HttpMode mode = HttpMode.BLOCKING;
+    }
+
+    @Data
+    public static class CacheProperties {
+        private boolean enabled = true;
+        private Duration ttl = Duration.ofMinutes(10);
+        private int maxSize = 1000;
+    }
+
+    @Data
+    public static class BusinessCalendarProperties {
+        private boolean enabled;
+        private RestrictedDateSourceType source = RestrictedDateSourceType.REMOTE;
+        private String file;
+        private List<DayOfWeek> weekendDays = List.of(DayOfWeek.SATURDAY, DayOfWeek.SUNDAY);
+        private int windowDays = 400;
+        private Duration refreshInterval = Duration.ofHours(6);
+    }
+
+    @Data
+    public static class WriteBackProperties {
+        private boolean enabled;
+        private int batchSize = 50;
+        private Duration flushInterval = Duration.ofSeconds(1);
+        private int concurrency = 8;
+        private int maxAttempts = 3;
+        private Duration retryBackoff = Duration.ofMillis(200);
+        private Duration maxRetryBackoff = Duration.ofSeconds(5);
+        private int maxPendingUpdates = 1000;
+    }
+
+    @Data
+    public static class TransactionRecordProperties {
+        private boolean enabled;
+        private int bufferCapacity = 1000;
+        private int batchSize = 50;
+        private int writerThreads = 2;
+        private int maxAttempts = 3;
+        private Duration retryBackoff = Duration.ofMillis(200);
+        private Duration maxRetryBackoff = Duration.ofSeconds(5);
+        private String spillFile;
+        private Duration shutdownTimeout = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class ShardingProperties {
+        private boolean enabled;
+        private int shardCount = 64;
+        private Duration leaseTtl = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class WorkQueueProperties {
+        private boolean enabled;
+        private boolean publisher = true;
+        private String queueName = "payment-scheduler.scheduled-payment-orders";
+        private int chunkSize = 50;
+        private String concurrency = "1-4";
+    }
+
+    @Data
+    public static class RunCoordinatorProperties {
+        private OverlapPolicy overlapPolicy = OverlapPolicy.SKIP;
+        private int maxQueuedRuns = 3;
+        private boolean distributedLockEnabled;
+        private Duration lockTtl = Duration.ofSeconds(60);
+    }
+
+    @Data
+    public static class JournalProperties {
+        private boolean enabled;
+        private String file;
+        private boolean fsync;
+    }
+
+    @Data
+    public static class ExecutedTodayIndexProperties {
+        private int expectedOrders = 100_000;
+    }
+
+    public enum IteratorMode {
+        SEQUENTIAL,
+        PREFETCH,
+        FAN_OUT,
+        SNAPSHOT
+    }
+
+    public enum RestrictedDateSourceType {
+        REMOTE,
+        FILE
+    }
+
+    public enum ExecutionMode {
+        PLATFORM,
+        VIRTUAL
+    }
+
+    public enum OverlapPolicy {
+        SKIP,
+        QUEUE,
+        COALESCE
+    }
+
+    public enum LeaseStoreType {
+        IN_MEMORY,
+        JDBC
+    }
+
+    public enum HttpMode {
+        BLOCKING,
+        REACTIVE
     }
 
 }
@@ -0,0 +1,35 @@
+package com.backbase.accelerators.payment.config;
+
+import com.backbase.accelerators.payment.run.LeaseRunLock;
+import com.backbase.accelerators.payment.run.RunCoordinator;
+import com.backbase.accelerators.payment.run.RunLock;
+import com.backbase.accelerators.payment.shard.LeaseStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class RunCoordinatorConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    public RunCoordinator runCoordinator(
+            PaymentSchedulerProperties paymentSchedulerProperties,
+            LeaseStore leaseStore,
+            MeterRegistry meterRegistry) {
+
+        PaymentSchedulerProperties.RunCoordinatorProperties runCoordinatorProperties =
+                paymentSchedulerProperties.getRunCoordinator();
+
+        RunLock runLock = runCoordinatorProperties.isDistributedLockEnabled()
+                ? new LeaseRunLock(leaseStore, paymentSchedulerProperties.getReplicaId(), runCoordinatorProperties.getLockTtl())
+                : RunLock.local();
+
+        return new RunCoordinator(
+                runLock,
+                runCoordinatorProperties.getOverlapPolicy(),
+                runCoordinatorProperties.getMaxQueuedRuns(),
+                // Renewed well before the lease expires, so a slow renewal does not hand the lock to another replica.
+                runCoordinatorProperties.getLockTtl().dividedBy(3),
+                meterRegistry);
+    }
+}
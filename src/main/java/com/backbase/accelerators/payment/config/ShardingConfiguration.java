@@ -0,0 +1,31 @@
+package com.backbase.accelerators.payment.config;
+
+import com.backbase.accelerators.payment.shard.LeaseStore;
+import com.backbase.accelerators.payment.shard.ShardCoordinator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ShardingConfiguration {
+
+    @Bean(initMethod = "start", destroyMethod = "stop")
+    public ShardCoordinator shardCoordinator(
+            PaymentSchedulerProperties paymentSchedulerProperties,
+            LeaseStore leaseStore,
+            MeterRegistry meterRegistry) {
+
+        PaymentSchedulerProperties.ShardingProperties shardingProperties = paymentSchedulerProperties.getSharding();
+
+        if (!shardingProperties.isEnabled()) {
+            return ShardCoordinator.unsharded(paymentSchedulerProperties.getReplicaId(), meterRegistry);
+        }
+
+        return new ShardCoordinator(
+                leaseStore,
+                paymentSchedulerProperties.getReplicaId(),
+                shardingProperties.getShardCount(),
+                shardingProperties.getLeaseTtl(),
+                meterRegistry);
+    }
+}
@@ -0,0 +1,67 @@
+package com.backbase.accelerators.payment.config;
+
+import com.backbase.accelerators.payment.index.ExecutedTodayIndex;
+import com.backbase.accelerators.payment.queue.PaymentOrderWorkQueueListener;
+import com.backbase.accelerators.payment.queue.PaymentOrderWorkQueuePublisher;
+import com.backbase.accelerators.payment.service.ScheduledPaymentExecutorService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+
+import javax.jms.ConnectionFactory;
+import java.time.Clock;
+
+/**
+ * Distributes payment execution over the {@code spring.activemq} broker, enabled with
+ * {@code payment-scheduler.work-queue.enabled}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "payment-scheduler.work-queue.enabled", havingValue = "true")
+public class WorkQueueConfiguration {
+
+    @Bean
+    @ConditionalOnProperty(name = "payment-scheduler.work-queue.publisher", havingValue = "true", matchIfMissing = true)
+    public PaymentOrderWorkQueuePublisher paymentOrderWorkQueuePublisher(
+            JmsTemplate jmsTemplate,
+            ObjectMapper objectMapper,
+            PaymentSchedulerProperties paymentSchedulerProperties,
+            Clock clock,
+            MeterRegistry meterRegistry) {
+
+        PaymentSchedulerProperties.WorkQueueProperties workQueueProperties = paymentSchedulerProperties.getWorkQueue();
+
+        return new PaymentOrderWorkQueuePublisher(
+                jmsTemplate,
+                objectMapper,
+                workQueueProperties.getQueueName(),
+                workQueueProperties.getChunkSize(),
+                ExecutedTodayIndex.published(
+                        clock,
+                        paymentSchedulerProperties.getExecutedTodayIndex().getExpectedOrders(),
+                        meterRegistry));
+    }
+
+    @Bean
+    public DefaultMessageListenerContainer paymentOrderWorkQueueListenerContainer(
+            ConnectionFactory connectionFactory,
+            ScheduledPaymentExecutorService scheduledPaymentExecutorService,
+            ObjectMapper objectMapper,
+            PaymentSchedulerProperties paymentSchedulerProperties) {
+
+        PaymentSchedulerProperties.WorkQueueProperties workQueueProperties = paymentSchedulerProperties.getWorkQueue();
+
+        DefaultMessageListenerContainer container = new DefaultMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setDestinationName(workQueueProperties.getQueueName());
+        container.setConcurrency(workQueueProperties.getConcurrency());
+        // Acknowledged only when the listener returns, a failed chunk is rolled back and redelivered by the broker.
+        container.setSessionTransacted(true);
+        container.setMessageListener(new PaymentOrderWorkQueueListener(scheduledPaymentExecutorService, objectMapper));
+
+        return container;
+    }
+}
@@ -0,0 +1,27 @@
+package com.backbase.accelerators.payment.eligibility;
+
+/**
+ * Outcome of evaluating whether a scheduled payment order should be executed on a business date. Every outcome other
+ * than {@link #DUE} carries the reason code under which the skipped order is counted.
+ */
+public enum Eligibility {
+
+    DUE("due"),
+    NOT_SCHEDULED_FOR_TODAY("not-scheduled-for-today"),
+    END_DATE_IN_THE_PAST("end-date-in-the-past"),
+    REPEAT_COUNT_MET("repeat-count-met");
+
+    private final String reason;
+
+    Eligibility(String reason) {
+        this.reason = reason;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public boolean isDue() {
+        return this == DUE;
+    }
+}
@@ -0,0 +1,59 @@
+package com.backbase.accelerators.payment.eligibility;
+
+import com.backbase.payments.v2.service.model.GetPaymentOrderResponse;
+import com.backbase.payments.v2.service.model.SimpleSchedule;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import static com.backbase.accelerators.payment.constants.DataModelAdditions.EXECUTION_COUNT;
+
+/**
+ * Decides in a single pass whether a scheduled payment order is due on one business date. It applies the same rules
+ * as the {@code ScheduledPaymentUtil} predicates, in the same order, but reads the schedule once, does not consult
+ * the system clock and only parses the execution count of orders that have a repeat count.
+ */
+@Slf4j
+public class EligibilityEvaluator {
+
+    private static final String EXECUTION_COUNT_KEY = EXECUTION_COUNT.getValue();
+
+    private final LocalDate businessDate;
+
+    public EligibilityEvaluator(LocalDate businessDate) {
+        this.businessDate = businessDate;
+    }
+
+    public LocalDate getBusinessDate() {
+        return businessDate;
+    }
+
+    public Eligibility evaluate(GetPaymentOrderResponse paymentOrder) {
+        SimpleSchedule schedule = paymentOrder.getSchedule();
+        if (schedule == null
+                || !(businessDate.equals(schedule.getNextExecutionDate()) || businessDate.equals(schedule.getStartDate()))) {
+            return Eligibility.NOT_SCHEDULED_FOR_TODAY;
+        }
+
+        LocalDate endDate = schedule.getEndDate();
+        if (endDate != null && endDate.isBefore(businessDate)) {
+            log.debug("End date for scheduled payment order {} has already passed. End date: {}", paymentOrder.getId(), endDate);
+            return Eligibility.END_DATE_IN_THE_PAST;
+        }
+
+        Integer repeat = schedule.getRepeat();
+        if (repeat != null && isRepeatCountMet(paymentOrder.getAdditions(), repeat)) {
+            log.debug("Scheduled payment order {} has met its repetition count of: {}", paymentOrder.getId(), repeat);
+            return Eligibility.REPEAT_COUNT_MET;
+        }
+
+        return Eligibility.DUE;
+    }
+
+    private boolean isRepeatCountMet(Map<String, String> additions, int repeat) {
+        String executionCount = additions == null ? null : additions.get(EXECUTION_COUNT_KEY);
+
+        return executionCount != null && Integer.parseInt(executionCount) == repeat;
+    }
+}
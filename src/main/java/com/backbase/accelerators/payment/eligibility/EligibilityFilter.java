@@ -0,0 +1,32 @@
+package com.backbase.accelerators.payment.eligibility;
+
+import com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics;
+import com.backbase.payments.v2.service.model.GetPaymentOrderResponse;
+
+import java.util.function.Predicate;
+
+/**
+ * Keeps the orders that are due on the business date of the evaluator. Orders discarded before they reach the
+ * scheduler are never counted there, so they are counted as fetched and filtered out here instead.
+ */
+public class EligibilityFilter implements Predicate<GetPaymentOrderResponse> {
+
+    private final EligibilityEvaluator eligibilityEvaluator;
+    private final PaymentSchedulerMetrics paymentSchedulerMetrics;
+
+    public EligibilityFilter(EligibilityEvaluator eligibilityEvaluator, PaymentSchedulerMetrics paymentSchedulerMetrics) {
+        this.eligibilityEvaluator = eligibilityEvaluator;
+        this.paymentSchedulerMetrics = paymentSchedulerMetrics;
+    }
+
+    @Override
+    public boolean test(GetPaymentOrderResponse paymentOrder) {
+        Eligibility eligibility = eligibilityEvaluator.evaluate(paymentOrder);
+        if (!eligibility.isDue()) {
+            paymentSchedulerMetrics.recordFetched(paymentOrder.getPaymentType());
+            paymentSchedulerMetrics.recordFilteredOut(paymentOrder.getPaymentType(), eligibility.getReason());
+        }
+
+        return eligibility.isDue();
+    }
+}
@@ -0,0 +1,85 @@
+package com.backbase.accelerators.payment.engine;
+
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static com.backbase.accelerators.payment.config.PaymentExecutionConfiguration.PAYMENT_EXECUTOR_SERVICE_BEAN_NAME;
+
+/**
+ * Starts non-blocking payment calls, never more than {@code payment-scheduler.execution.max-concurrency} awaiting a
+ * response at once, and completes each of them on the dedicated payment executor. A payment holds one of
+ * {@code payment-scheduler.execution.max-in-flight-requests} permits from its call until its completion has run, which
+ * bounds the results waiting for a thread to record them.
+ */
+@Slf4j
+@Component
+public class PaymentExecutionEngine {
+
+    private final ExecutorService executorService;
+    private final Semaphore permits;
+    private final Semaphore requestPermits;
+
+    public PaymentExecutionEngine(
+            @Qualifier(PAYMENT_EXECUTOR_SERVICE_BEAN_NAME) ExecutorService executorService,
+            PaymentSchedulerProperties paymentSchedulerProperties) {
+
+        this.executorService = executorService;
+        this.permits = new Semaphore(paymentSchedulerProperties.getExecution().getMaxConcurrency());
+        this.requestPermits = new Semaphore(paymentSchedulerProperties.getExecution().getMaxInFlightRequests());
+    }
+
+    /**
+     * Starts a non-blocking call per item and blocks until all of them have completed. The result of each call is
+     * handed to {@code completion} on the payment executor, so the completion may block without stalling the
+     * thread that completed the call. Failed calls are expected to report their own failure and are skipped.
+     */
+    public <T, R> void executeAllAsync(
+            Collection<T> items,
+            Function<T, ? extends CompletionStage<R>> call,
+            Consumer<R> completion) {
+
+        List<CompletableFuture<?>> futures = new ArrayList<>(items.size());
+
+        for (T item : items) {
+            requestPermits.acquireUninterruptibly();
+            permits.acquireUninterruptibly();
+
+            CompletableFuture<R> response;
+            try {
+                response = call.apply(item).toCompletableFuture();
+            } catch (Exception e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+
+            futures.add(response
+                    .whenComplete((result, throwable) -> permits.release())
+                    .thenAcceptAsync(result -> runTask(completion, result), executorService)
+                    .handle((result, throwable) -> {
+                        requestPermits.release();
+                        return null;
+                    }));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+    }
+
+    private <T> void runTask(Consumer<T> task, T item) {
+        try {
+            task.accept(item);
+        } catch (Exception e) {
+            log.error("Error occurred executing payment task: {}", e.getMessage(), e);
+        }
+    }
+}
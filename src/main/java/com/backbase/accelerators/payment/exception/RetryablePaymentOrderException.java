@@ -1,7 +1,7 @@
 package com.backbase.accelerators.payment.exception;
 
 /**
- * Exception to be thrown to trigger Spring Retry for eligible payment submission failures.
+ * Exception to be thrown to trigger a retry for eligible payment submission failures.
  */
 public class RetryablePaymentOrderException extends RuntimeException {
 
@@ -0,0 +1,208 @@
+package com.backbase.accelerators.payment.index;
+
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import com.backbase.accelerators.payment.journal.RunJournal;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Set of the payment orders executed today, so that a payment order that still looks due until its next execution
+ * date is written back is not submitted again by a later scan, a retry or a shifted page.
+ *
+ * <p>Payment order ids are kept as 128-bit fingerprints in an open-addressing table of two {@code long} arrays,
+ * around 21 bytes per order at the maximum load factor instead of well over 100 for a set of strings. The chance of
+ * two ids sharing a fingerprint is negligible even for billions of orders. The table starts at
+ * {@code expected-orders} and doubles when needed, and is cleared when the day rolls over.
+ *
+ * <p>The work queue publisher keeps a second index of the payment orders it published today, see
+ * {@link #published}.
+ */
+@Slf4j
+@Component
+public class ExecutedTodayIndex {
+
+    private static final double MAX_LOAD_FACTOR = 0.75;
+
+    private final Clock clock;
+    private final int initialCapacity;
+
+    private LocalDate day;
+    private long[] high;
+    private long[] low;
+    private int size;
+
+    public ExecutedTodayIndex(
+            PaymentSchedulerProperties paymentSchedulerProperties,
+            RunJournal runJournal,
+            Clock clock,
+            MeterRegistry meterRegistry) {
+
+        this(clock, paymentSchedulerProperties.getExecutedTodayIndex().getExpectedOrders(), meterRegistry);
+
+        // Orders submitted today by a previous instance of this replica.
+        runJournal.submittedOn(day).forEach(this::add);
+    }
+
+    ExecutedTodayIndex(Clock clock, int expectedOrders, MeterRegistry meterRegistry) {
+        this("executed-today", clock, expectedOrders, meterRegistry);
+    }
+
+    private ExecutedTodayIndex(String name, Clock clock, int expectedOrders, MeterRegistry meterRegistry) {
+        this.clock = clock;
+        this.initialCapacity = tableSize(expectedOrders);
+        this.day = LocalDate.now(clock);
+        this.high = new long[initialCapacity];
+        this.low = new long[initialCapacity];
+
+        Gauge.builder("payment.scheduler." + name + ".size", this, ExecutedTodayIndex::size)
+                .register(meterRegistry);
+    }
+
+    /**
+     * An index of the payment orders published to the work queue today. Consumers claim the orders they execute in
+     * their own {@link ExecutedTodayIndex}, so the two are kept apart.
+     */
+    public static ExecutedTodayIndex published(Clock clock, int expectedOrders, MeterRegistry meterRegistry) {
+        return new ExecutedTodayIndex("published-today", clock, expectedOrders, meterRegistry);
+    }
+
+    /**
+     * Marks the payment order as executed today. Returns false if it already was.
+     */
+    public synchronized boolean add(String paymentOrderId) {
+        rollOver();
+
+        long h = hash(paymentOrderId, 0x9E3779B97F4A7C15L);
+        long l = nonZero(hash(paymentOrderId, 0xC2B2AE3D27D4EB4FL));
+
+        int slot = find(h, l);
+        if (low[slot] != 0) {
+            return false;
+        }
+
+        high[slot] = h;
+        low[slot] = l;
+        if (++size > high.length * MAX_LOAD_FACTOR) {
+            resize(high.length * 2);
+        }
+
+        return true;
+    }
+
+    public synchronized boolean contains(String paymentOrderId) {
+        rollOver();
+
+        long h = hash(paymentOrderId, 0x9E3779B97F4A7C15L);
+        long l = nonZero(hash(paymentOrderId, 0xC2B2AE3D27D4EB4FL));
+
+        return low[find(h, l)] != 0;
+    }
+
+    /**
+     * Forgets the payment order, e.g. because its submission failed without a result and it may be tried again.
+     */
+    public synchronized void remove(String paymentOrderId) {
+        rollOver();
+
+        long h = hash(paymentOrderId, 0x9E3779B97F4A7C15L);
+        long l = nonZero(hash(paymentOrderId, 0xC2B2AE3D27D4EB4FL));
+
+        int slot = find(h, l);
+        if (low[slot] == 0) {
+            return;
+        }
+
+        // Backward shift deletion: entries after the freed slot move up so that no probe sequence is broken.
+        int mask = high.length - 1;
+        int free = slot;
+        int next = (free + 1) & mask;
+        while (low[next] != 0) {
+            int home = (int) high[next] & mask;
+            if (((next - home) & mask) >= ((next - free) & mask)) {
+                high[free] = high[next];
+                low[free] = low[next];
+                free = next;
+            }
+            next = (next + 1) & mask;
+        }
+
+        high[free] = 0;
+        low[free] = 0;
+        size--;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void rollOver() {
+        LocalDate today = LocalDate.now(clock);
+        if (!today.equals(day)) {
+            log.info("Day rolled over to {}, clearing {} executed payment orders of {}", today, size, day);
+
+            day = today;
+            high = new long[initialCapacity];
+            low = new long[initialCapacity];
+            size = 0;
+        }
+    }
+
+    private int find(long h, long l) {
+        int mask = high.length - 1;
+        int slot = (int) h & mask;
+
+        while (low[slot] != 0 && (high[slot] != h || low[slot] != l)) {
+            slot = (slot + 1) & mask;
+        }
+
+        return slot;
+    }
+
+    private void resize(int capacity) {
+        long[] oldHigh = high;
+        long[] oldLow = low;
+        high = new long[capacity];
+        low = new long[capacity];
+
+        for (int i = 0; i < oldHigh.length; i++) {
+            if (oldLow[i] != 0) {
+                int slot = find(oldHigh[i], oldLow[i]);
+                high[slot] = oldHigh[i];
+                low[slot] = oldLow[i];
+            }
+        }
+    }
+
+    private static int tableSize(int expectedOrders) {
+        int needed = (int) Math.ceil(Math.max(expectedOrders, 16) / MAX_LOAD_FACTOR);
+        return Integer.highestOneBit(needed - 1) << 1;
+    }
+
+    // An empty slot is marked by a zero low half.
+    private static long nonZero(long value) {
+        return value == 0 ? 1 : value;
+    }
+
+    private static long hash(String value, long seed) {
+        long h = seed;
+        for (int i = 0; i < value.length(); i++) {
+            h = (h ^ value.charAt(i)) * 0x100000001B3L;
+            h = Long.rotateLeft(h, 29) + seed;
+        }
+        h ^= value.length();
+
+        // MurmurHash3 finalizer, so that every input bit affects every output bit.
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+
+        return h;
+    }
+}
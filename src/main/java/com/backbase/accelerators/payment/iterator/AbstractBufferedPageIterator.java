@@ -0,0 +1,76 @@
+package com.backbase.accelerators.payment.iterator;
+
+import com.backbase.accelerators.payment.model.PaymentOrderPage;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Base class for iterators whose pages are fetched by background threads and handed over through a bounded buffer.
+ * Producers publish pages, a failure, or the end-of-pages marker; a failure ends the iteration for the consumer.
+ */
+abstract class AbstractBufferedPageIterator implements PaymentOrderPageIterator {
+
+    private final BlockingQueue<Page> buffer;
+
+    private Page nextPage;
+
+    protected AbstractBufferedPageIterator(int bufferSize) {
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (nextPage == null) {
+            nextPage = take();
+        }
+
+        return !nextPage.isEndOfPages();
+    }
+
+    @Override
+    public PaymentOrderPage next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more scheduled payment orders available");
+        }
+
+        Page page = nextPage;
+        nextPage = null;
+
+        if (nonNull(page.getError())) {
+            // A failed fetch ends the iteration, the producers have stopped.
+            nextPage = Page.endOfPages();
+            throw page.getError();
+        }
+
+        return page.getPaymentOrderPage();
+    }
+
+    protected void publish(PaymentOrderPage paymentOrderPage) throws InterruptedException {
+        buffer.put(Page.of(paymentOrderPage));
+    }
+
+    protected void publishEndOfPages() throws InterruptedException {
+        buffer.put(Page.endOfPages());
+    }
+
+    protected void publishFailure(RuntimeException e) {
+        try {
+            buffer.put(Page.failed(e));
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Page take() {
+        try {
+            return buffer.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for scheduled payment orders", e);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.backbase.accelerators.payment.iterator;
+
+import com.backbase.accelerators.payment.client.PaymentOrderServiceClient;
+import com.backbase.accelerators.payment.model.PaymentOrderPage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static java.math.BigDecimal.ZERO;
+
+/**
+ * Fetches the first page to learn {@code totalElements}, then requests all remaining pages concurrently with at
+ * most {@code fetchParallelism} requests in flight. Pages are handed to the consumer in completion order through
+ * a buffer of {@code bufferSize} pages.
+ */
+@Slf4j
+public class ConcurrentPageScheduledPaymentOrderIterator extends AbstractBufferedPageIterator {
+
+    private final PaymentOrderServiceClient paymentOrderServiceClient;
+    private final int pageSize;
+    private final ExecutorService fetchers;
+
+    public ConcurrentPageScheduledPaymentOrderIterator(
+            PaymentOrderServiceClient paymentOrderServiceClient,
+            int pageSize,
+            int fetchParallelism,
+            int bufferSize) {
+
+        super(bufferSize);
+        this.paymentOrderServiceClient = paymentOrderServiceClient;
+        this.pageSize = pageSize;
+        this.fetchers = Executors.newFixedThreadPool(
+                Math.max(1, fetchParallelism),
+                new CustomizableThreadFactory("payment-order-fetch-"));
+
+        this.fetchers.execute(this::fetchFirstPage);
+    }
+
+    @Override
+    public void close() {
+        fetchers.shutdownNow();
+    }
+
+    private void fetchFirstPage() {
+        try {
+            PaymentOrderPage response = paymentOrderServiceClient.getScheduledPaymentOrders(0, pageSize);
+
+            if (isEmpty(response)) {
+                log.info("No more scheduled payment orders available");
+                publishEndOfPages();
+                return;
+            }
+
+            int totalPages = Page.totalPages(response.getTotalElements(), pageSize);
+            log.info("Fetching {} pages of scheduled payment orders concurrently. totalElements={}",
+                    totalPages,
+                    response.getTotalElements());
+
+            publish(response);
+
+            CompletableFuture<?>[] remainingPages = IntStream.range(1, totalPages)
+                    .mapToObj(page -> CompletableFuture.runAsync(() -> fetchPage(page), fetchers))
+                    .toArray(CompletableFuture[]::new);
+
+            CompletableFuture.allOf(remainingPages).thenRun(this::completeIteration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Error occurred fetching scheduled payment orders: {}", e.getMessage());
+            publishFailure(e);
+        }
+    }
+
+    private void fetchPage(int page) {
+        try {
+            PaymentOrderPage response = paymentOrderServiceClient.getScheduledPaymentOrders(page, pageSize);
+
+            // A streamed page whose orders were all discarded is still handed on, so that its fetched count is seen.
+            if (response.getFetchedCount() > 0) {
+                publish(response);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (RuntimeException e) {
+            // Publish straight away so the consumer stops without waiting for the other pages.
+            log.error("Error occurred fetching page {} of scheduled payment orders: {}", page, e.getMessage());
+            publishFailure(e);
+            throw e;
+        }
+    }
+
+    private void completeIteration() {
+        try {
+            publishEndOfPages();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean isEmpty(PaymentOrderPage response) {
+        return response.getTotalElements().equals(ZERO) || response.getFetchedCount() == 0;
+    }
+}
@@ -0,0 +1,43 @@
+package com.backbase.accelerators.payment.iterator;
+
+import com.backbase.accelerators.payment.model.PaymentOrderPage;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * A page handed from a background fetcher to the consuming iterator: either payment orders, a fetch failure, or
+ * the end-of-pages marker.
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+class Page {
+
+    private static final Page END_OF_PAGES = new Page(PaymentOrderPage.empty(), null);
+
+    private final PaymentOrderPage paymentOrderPage;
+    private final RuntimeException error;
+
+    static Page of(PaymentOrderPage paymentOrderPage) {
+        return new Page(paymentOrderPage, null);
+    }
+
+    static Page failed(RuntimeException error) {
+        return new Page(PaymentOrderPage.empty(), error);
+    }
+
+    static Page endOfPages() {
+        return END_OF_PAGES;
+    }
+
+    boolean isEndOfPages() {
+        return this == END_OF_PAGES;
+    }
+
+    static int totalPages(BigDecimal totalElements, int pageSize) {
+        return totalElements.divide(BigDecimal.valueOf(pageSize), 0, RoundingMode.CEILING).intValue();
+    }
+}
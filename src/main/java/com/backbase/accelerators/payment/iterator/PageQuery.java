@@ -0,0 +1,12 @@
+package com.backbase.accelerators.payment.iterator;
+
+import com.backbase.accelerators.payment.model.PaymentOrderPage;
+
+/**
+ * One filter query over the scheduled payment orders, read a page at a time.
+ */
+@FunctionalInterface
+interface PageQuery {
+
+    PaymentOrderPage fetch(int page, int size);
+}
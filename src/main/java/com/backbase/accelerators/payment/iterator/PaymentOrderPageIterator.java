@@ -0,0 +1,16 @@
+package com.backbase.accelerators.payment.iterator;
+
+import com.backbase.accelerators.payment.model.PaymentOrderPage;
+
+import java.util.Iterator;
+
+/**
+ * Iterates over the pages of scheduled payment orders eligible for a single scheduler run. Implementations that
+ * fetch in the background release their resources on {@link #close()}.
+ */
+public interface PaymentOrderPageIterator extends Iterator<PaymentOrderPage>, AutoCloseable {
+
+    @Override
+    default void close() {
+    }
+}
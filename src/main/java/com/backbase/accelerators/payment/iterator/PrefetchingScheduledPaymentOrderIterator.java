@@ -0,0 +1,46 @@
+package com.backbase.accelerators.payment.iterator;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fetches the next pages of the delegate iterator in the background while the current page is being executed.
+ * At most {@code prefetchDepth} pages are buffered ahead of the consumer.
+ */
+@Slf4j
+public class PrefetchingScheduledPaymentOrderIterator extends AbstractBufferedPageIterator {
+
+    private final PaymentOrderPageIterator delegate;
+    private final ExecutorService producer;
+
+    public PrefetchingScheduledPaymentOrderIterator(PaymentOrderPageIterator delegate, int prefetchDepth) {
+        super(prefetchDepth);
+        this.delegate = delegate;
+        this.producer = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("payment-order-prefetch-"));
+        this.producer.execute(this::prefetch);
+    }
+
+    @Override
+    public void close() {
+        producer.shutdownNow();
+        delegate.close();
+    }
+
+    private void prefetch() {
+        try {
+            while (delegate.hasNext()) {
+                publish(delegate.next());
+            }
+            publishEndOfPages();
+        } catch (InterruptedException e) {
+            log.debug("Prefetching of scheduled payment orders interrupted");
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Error occurred prefetching scheduled payment orders: {}", e.getMessage());
+            publishFailure(e);
+        }
+    }
+}
@@ -2,22 +2,18 @@ package com.backbase.accelerators.payment.iterator;
 
 import com.backbase.accelerators.payment.client.PaymentOrderServiceClient;
 import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
-import com.backbase.payments.v2.service.model.GetPaymentOrderResponse;
-import com.backbase.payments.v2.service.model.PaymentOrderPostFilterResponse;
+import com.backbase.accelerators.payment.model.PaymentOrderPage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.math.BigDecimal;
-import java.util.Iterator;
-import java.util.List;
 import java.util.NoSuchElementException;
 
 import static java.math.BigDecimal.ZERO;
-import static java.util.Collections.emptyList;
 
 @Slf4j
 @RequiredArgsConstructor
-public class ScheduledPaymentOrderIterator implements Iterator<List<GetPaymentOrderResponse>> {
+public class ScheduledPaymentOrderIterator implements PaymentOrderPageIterator {
 
     private final PaymentOrderServiceClient paymentOrderServiceClient;
     private final PaymentSchedulerProperties paymentSchedulerProperties;
@@ -32,24 +28,25 @@ public class ScheduledPaymentOrderIterator implements Iterator<List<GetPaymentOr
     }
 
     @Override
-    public List<GetPaymentOrderResponse> next() {
+    public PaymentOrderPage next() {
         if (!hasNext()) {
             throw new NoSuchElementException("No more scheduled payment orders available");
         }
 
-        PaymentOrderPostFilterResponse response = paymentOrderServiceClient.getScheduledPaymentOrders(
+        PaymentOrderPage response = paymentOrderServiceClient.getScheduledPaymentOrders(
                 currentPosition,
                 paymentSchedulerProperties.getIteratorProperties().getPageSize());
 
-        if (response.getTotalElements().equals(ZERO) || response.getPaymentOrders().isEmpty()) {
+        // A streamed page may have had all of its orders discarded, only a page that came back empty ends the run.
+        if (response.getTotalElements().equals(ZERO) || response.getFetchedCount() == 0) {
             log.info("No more scheduled payment orders available");
             hasMoreElements = false;
-            return emptyList();
+            return PaymentOrderPage.empty();
         }
 
         totalElements = response.getTotalElements();
         ++currentPosition;
 
-        return response.getPaymentOrders();
+        return response;
     }
 }
@@ -0,0 +1,83 @@
+package com.backbase.accelerators.payment.iterator;
+
+import com.backbase.accelerators.payment.client.PaymentOrderServiceClient;
+import com.backbase.accelerators.payment.client.PaymentOrderServiceClient.DueDate;
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import com.backbase.accelerators.payment.eligibility.EligibilityFilter;
+import com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics;
+import com.backbase.accelerators.payment.run.RunContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static com.backbase.accelerators.payment.config.PaymentSchedulerProperties.IteratorMode.SNAPSHOT;
+
+/**
+ * Creates the page iterator for a scheduler run according to {@code payment-scheduler.iterator-properties.mode}.
+ */
+@Slf4j
+@Component
+public class ScheduledPaymentOrderIteratorFactory {
+
+    private final PaymentOrderServiceClient paymentOrderServiceClient;
+    private final PaymentSchedulerProperties paymentSchedulerProperties;
+    private final PaymentSchedulerMetrics paymentSchedulerMetrics;
+
+    public ScheduledPaymentOrderIteratorFactory(
+            PaymentOrderServiceClient paymentOrderServiceClient,
+            PaymentSchedulerProperties paymentSchedulerProperties,
+            PaymentSchedulerMetrics paymentSchedulerMetrics) {
+
+        /* Executed orders drop out of a due date filtered result set while the run is still paging through it, so
+         * iterators that page by index would skip orders. Only the snapshot reads the whole set before executing. */
+        if (paymentSchedulerProperties.getQueryFilters().isDueDateFilterEnabled()
+                && paymentSchedulerProperties.getIteratorProperties().getMode() != SNAPSHOT) {
+            throw new IllegalStateException(
+                    "payment-scheduler.query-filters.due-date-filter-enabled requires iterator-properties.mode SNAPSHOT");
+        }
+
+        this.paymentOrderServiceClient = paymentOrderServiceClient;
+        this.paymentSchedulerProperties = paymentSchedulerProperties;
+        this.paymentSchedulerMetrics = paymentSchedulerMetrics;
+    }
+
+    public PaymentOrderPageIterator create(RunContext runContext) {
+        PaymentSchedulerProperties.IteratorProperties iteratorProperties = paymentSchedulerProperties.getIteratorProperties();
+        log.info("Initializing scheduled payment order iterator in {} mode", iteratorProperties.getMode());
+
+        ScheduledPaymentOrderIterator iterator = new ScheduledPaymentOrderIterator(
+                paymentOrderServiceClient,
+                paymentSchedulerProperties);
+
+        switch (iteratorProperties.getMode()) {
+            case PREFETCH:
+                return new PrefetchingScheduledPaymentOrderIterator(iterator, iteratorProperties.getPrefetchDepth());
+            case FAN_OUT:
+                return new ConcurrentPageScheduledPaymentOrderIterator(
+                        paymentOrderServiceClient,
+                        iteratorProperties.getPageSize(),
+                        iteratorProperties.getFetchParallelism(),
+                        iteratorProperties.getBufferSize());
+            case SNAPSHOT:
+                return new SnapshotScheduledPaymentOrderIterator(
+                        snapshotQueries(runContext.getBusinessDate()),
+                        new EligibilityFilter(runContext.getEligibilityEvaluator(), paymentSchedulerMetrics),
+                        iteratorProperties.getPageSize());
+            case SEQUENTIAL:
+            default:
+                return iterator;
+        }
+    }
+
+    private List<PageQuery> snapshotQueries(LocalDate businessDate) {
+        if (!paymentSchedulerProperties.getQueryFilters().isDueDateFilterEnabled()) {
+            return List.of(paymentOrderServiceClient::getScheduledPaymentOrders);
+        }
+
+        return List.of(
+                (page, size) -> paymentOrderServiceClient.getDuePaymentOrders(DueDate.NEXT_EXECUTION_DATE, businessDate, page, size),
+                (page, size) -> paymentOrderServiceClient.getDuePaymentOrders(DueDate.START_DATE, businessDate, page, size));
+    }
+}
@@ -0,0 +1,145 @@
+package com.backbase.accelerators.payment.iterator;
+
+import com.backbase.accelerators.payment.client.PaymentOrderServiceClient;
+import com.backbase.accelerators.payment.model.PaymentOrderPage;
+import com.backbase.payments.v2.service.model.GetPaymentOrderResponse;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Reads the complete set of due payment orders before the first payment is executed, then serves it in chunks of
+ * {@code pageSize}. Only the orders accepted by the eligibility filter of the run are held, so the snapshot stays the
+ * size of the due set even when the orders are not filtered by due date on the server; of the other orders only the
+ * ids are kept, so that an order read twice is counted as fetched once. The chunks carry a share of the fetched
+ * orders in proportion to their size.
+ *
+ * <p>Updating next execution dates during the run moves orders out of the filtered result set; taking the snapshot up
+ * front keeps those updates from shifting later pages, so every due order is visited exactly once and the number of
+ * requests per run is {@code ceil(totalElements / pageSize)} per query.
+ */
+@Slf4j
+public class SnapshotScheduledPaymentOrderIterator implements PaymentOrderPageIterator {
+
+    private final List<PageQuery> queries;
+    private final Predicate<GetPaymentOrderResponse> eligibilityFilter;
+    private final int pageSize;
+
+    private Iterator<PaymentOrderPage> chunks;
+    private int fetchedCount;
+    private int discardedWhileRead;
+
+    public SnapshotScheduledPaymentOrderIterator(
+            PaymentOrderServiceClient paymentOrderServiceClient,
+            Predicate<GetPaymentOrderResponse> eligibilityFilter,
+            int pageSize) {
+
+        this(List.of(paymentOrderServiceClient::getScheduledPaymentOrders), eligibilityFilter, pageSize);
+    }
+
+    /**
+     * Takes the snapshot over the union of several queries, e.g. one per date that makes an order due.
+     */
+    SnapshotScheduledPaymentOrderIterator(
+            List<PageQuery> queries,
+            Predicate<GetPaymentOrderResponse> eligibilityFilter,
+            int pageSize) {
+
+        this.queries = queries;
+        this.eligibilityFilter = eligibilityFilter;
+        this.pageSize = pageSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (chunks == null) {
+            chunks = takeSnapshot();
+        }
+
+        return chunks.hasNext();
+    }
+
+    @Override
+    public PaymentOrderPage next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException("No more scheduled payment orders available");
+        }
+
+        return chunks.next();
+    }
+
+    private Iterator<PaymentOrderPage> takeSnapshot() {
+        // Keyed by id, so an order that moves between pages or matches several queries is only kept once.
+        Map<String, GetPaymentOrderResponse> dueOrdersById = new LinkedHashMap<>();
+        Set<String> fetchedIds = new HashSet<>();
+
+        int requests = 0;
+        for (PageQuery query : queries) {
+            requests += read(query, fetchedIds, dueOrdersById);
+        }
+        fetchedCount = fetchedIds.size() + discardedWhileRead;
+
+        log.info("Snapshot of {} due payment orders out of {} fetched taken in {} requests",
+                dueOrdersById.size(), fetchedCount, requests);
+        return partition(new ArrayList<>(dueOrdersById.values())).iterator();
+    }
+
+    private int read(PageQuery query, Set<String> fetchedIds, Map<String, GetPaymentOrderResponse> dueOrdersById) {
+        int page = 0;
+        int totalPages = 1;
+
+        while (page < totalPages) {
+            PaymentOrderPage response = query.fetch(page, pageSize);
+            if (response.getFetchedCount() == 0) {
+                break;
+            }
+
+            if (page == 0) {
+                totalPages = Page.totalPages(response.getTotalElements(), pageSize);
+            }
+
+            // The ids of orders discarded while the page was read are not known, those are counted as reported.
+            discardedWhileRead += response.getFetchedCount() - response.getPaymentOrders().size();
+
+            for (GetPaymentOrderResponse paymentOrder : response.getPaymentOrders()) {
+                if (!fetchedIds.add(paymentOrder.getId())) {
+                    continue;
+                }
+
+                if (eligibilityFilter.test(paymentOrder)) {
+                    dueOrdersById.put(paymentOrder.getId(), paymentOrder);
+                }
+            }
+            ++page;
+        }
+
+        return page;
+    }
+
+    private List<PaymentOrderPage> partition(List<GetPaymentOrderResponse> paymentOrders) {
+        List<PaymentOrderPage> partitions = new ArrayList<>();
+        BigDecimal totalElements = BigDecimal.valueOf(paymentOrders.size());
+        int remainingFetched = fetchedCount;
+
+        for (int from = 0; from < paymentOrders.size(); from += pageSize) {
+            int to = Math.min(from + pageSize, paymentOrders.size());
+            int chunkFetched = to == paymentOrders.size()
+                    ? remainingFetched
+                    : (int) ((long) fetchedCount * (to - from) / paymentOrders.size());
+            remainingFetched -= chunkFetched;
+
+            partitions.add(new PaymentOrderPage(paymentOrders.subList(from, to), totalElements, chunkFetched));
+        }
+
+        return partitions;
+    }
+}
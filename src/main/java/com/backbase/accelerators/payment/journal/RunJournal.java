@@ -0,0 +1,314 @@
+package com.backbase.accelerators.payment.journal;
+
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import com.backbase.accelerators.payment.model.PaymentOrderExecutionResponse;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import static org.apache.commons.lang3.StringUtils.isNotBlank;
+
+/**
+ * Append-only journal of the progress of every payment: submitted to the core, transaction record written and next
+ * execution date updated. One JSON entry per line; a line torn by a crash is ignored when the journal is read back.
+ *
+ * <p>On start-up the journal is replayed, so that the next run can finish the stages a crashed run left incomplete,
+ * and the payments submitted today are not submitted again (see {@code ExecutedTodayIndex}). Once a run has written everything back the journal
+ * is compacted to the payments that are still incomplete or were executed today.
+ *
+ * <p>Disabled unless {@code journal.enabled} is set and {@code journal.file} is configured.
+ */
+@Slf4j
+@Component
+public class RunJournal {
+
+    private final boolean enabled;
+    private final boolean fsync;
+    private final Path file;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, JournaledPayment> payments = new LinkedHashMap<>();
+    private List<PaymentOrderExecutionResponse> recoveredUnrecorded = new ArrayList<>();
+    private List<PaymentOrderExecutionResponse> recoveredUnupdated = new ArrayList<>();
+    private FileChannel channel;
+
+    public RunJournal(PaymentSchedulerProperties paymentSchedulerProperties, ObjectMapper objectMapper) {
+        PaymentSchedulerProperties.JournalProperties journalProperties = paymentSchedulerProperties.getJournal();
+
+        this.enabled = journalProperties.isEnabled() && isNotBlank(journalProperties.getFile());
+        this.fsync = journalProperties.isFsync();
+        this.file = enabled ? Paths.get(journalProperties.getFile()) : null;
+        this.objectMapper = objectMapper;
+
+        if (enabled) {
+            replay();
+            open();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void submitted(PaymentOrderExecutionResponse paymentOrderExecutionResponse) {
+        if (!enabled) {
+            return;
+        }
+
+        String paymentOrderId = paymentOrderExecutionResponse.getOriginalScheduledPaymentOrder().getId();
+        append(new Entry(
+                Stage.SUBMITTED,
+                paymentOrderId,
+                paymentOrderExecutionResponse.getBusinessDate(),
+                paymentOrderExecutionResponse));
+    }
+
+    public void recorded(PaymentOrderExecutionResponse paymentOrderExecutionResponse) {
+        if (enabled) {
+            recorded(paymentOrderExecutionResponse.getOriginalScheduledPaymentOrder().getId());
+        }
+    }
+
+    public void recorded(String paymentOrderId) {
+        if (enabled) {
+            append(new Entry(Stage.RECORDED, paymentOrderId, null, null));
+        }
+    }
+
+    public void updated(PaymentOrderExecutionResponse paymentOrderExecutionResponse) {
+        if (enabled) {
+            updated(paymentOrderExecutionResponse.getOriginalScheduledPaymentOrder().getId());
+        }
+    }
+
+    public void updated(String paymentOrderId) {
+        if (enabled) {
+            append(new Entry(Stage.UPDATED, paymentOrderId, null, null));
+        }
+    }
+
+    /**
+     * Ids of the payment orders journaled as submitted for the given execution date.
+     */
+    public synchronized List<String> submittedOn(LocalDate executionDate) {
+        return payments.values().stream()
+                .filter(payment -> executionDate.equals(payment.executionDate))
+                .map(payment -> payment.paymentOrderId)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Takes the payments that a previous instance submitted but whose transaction record was never written. Payments
+     * of this instance are not included, their records are still on their way.
+     */
+    public synchronized List<PaymentOrderExecutionResponse> takeUnrecorded() {
+        List<PaymentOrderExecutionResponse> taken = recoveredUnrecorded;
+        recoveredUnrecorded = new ArrayList<>();
+
+        return taken;
+    }
+
+    /**
+     * Takes the payments that a previous instance submitted but whose next execution date was never updated.
+     */
+    public synchronized List<PaymentOrderExecutionResponse> takeUnupdated() {
+        List<PaymentOrderExecutionResponse> taken = recoveredUnupdated;
+        recoveredUnupdated = new ArrayList<>();
+
+        return taken;
+    }
+
+    /**
+     * Rewrites the journal with only the payments that are incomplete or were executed on the business date, and
+     * drops the others from memory.
+     */
+    public synchronized void compact(LocalDate businessDate) {
+        if (!enabled) {
+            return;
+        }
+
+        payments.values().removeIf(payment ->
+                payment.recorded && payment.updated && !businessDate.equals(payment.executionDate));
+
+        Path compacted = file.resolveSibling(file.getFileName() + ".compacting");
+        List<String> lines = new ArrayList<>();
+        for (JournaledPayment payment : payments.values()) {
+            lines.add(toJson(new Entry(Stage.SUBMITTED, payment.paymentOrderId, payment.executionDate, payment.response)));
+            if (payment.recorded) {
+                lines.add(toJson(new Entry(Stage.RECORDED, payment.paymentOrderId, null, null)));
+            }
+            if (payment.updated) {
+                lines.add(toJson(new Entry(Stage.UPDATED, payment.paymentOrderId, null, null)));
+            }
+        }
+
+        try {
+            close();
+            Files.write(compacted, lines, StandardCharsets.UTF_8);
+            Files.move(compacted, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not compact journal " + file, e);
+        } finally {
+            open();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+
+        try {
+            channel.close();
+        } catch (IOException e) {
+            log.warn("Could not close journal {}: {}", file, e.getMessage());
+        }
+        channel = null;
+    }
+
+    private synchronized void append(Entry entry) {
+        apply(entry);
+
+        try {
+            channel.write(ByteBuffer.wrap((toJson(entry) + System.lineSeparator()).getBytes(StandardCharsets.UTF_8)));
+            if (fsync) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append to journal " + file, e);
+        }
+    }
+
+    private void apply(Entry entry) {
+        if (entry.getStage() == Stage.SUBMITTED) {
+            payments.put(entry.getPaymentOrderId(), new JournaledPayment(
+                    entry.getPaymentOrderId(),
+                    entry.getExecutionDate(),
+                    entry.getResponse()));
+            return;
+        }
+
+        JournaledPayment payment = payments.get(entry.getPaymentOrderId());
+        if (payment == null) {
+            // E.g. a spilled transaction record of a payment that was compacted away.
+            return;
+        }
+
+        if (entry.getStage() == Stage.RECORDED) {
+            payment.recorded = true;
+        } else {
+            payment.updated = true;
+        }
+    }
+
+    private void replay() {
+        if (Files.notExists(file)) {
+            return;
+        }
+
+        try {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                try {
+                    apply(objectMapper.readValue(line, Entry.class));
+                } catch (JsonProcessingException e) {
+                    log.warn("Ignoring unreadable journal entry, most likely torn by a crash: {}", e.getOriginalMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read journal " + file, e);
+        }
+
+        recoveredUnrecorded = incomplete(payment -> !payment.recorded);
+        recoveredUnupdated = incomplete(payment -> !payment.updated);
+
+        log.info("Replayed journal {}: {} payments not recorded, {} payments not updated",
+                file,
+                recoveredUnrecorded.size(),
+                recoveredUnupdated.size());
+    }
+
+    private List<PaymentOrderExecutionResponse> incomplete(Predicate<JournaledPayment> predicate) {
+        return payments.values().stream()
+                .filter(predicate)
+                .map(payment -> payment.response)
+                .collect(Collectors.toList());
+    }
+
+    private void open() {
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not open journal " + file, e);
+        }
+    }
+
+    private String toJson(Entry entry) {
+        try {
+            return objectMapper.writeValueAsString(entry);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    enum Stage {
+        SUBMITTED,
+        RECORDED,
+        UPDATED
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    static class Entry {
+
+        private Stage stage;
+        private String paymentOrderId;
+        private LocalDate executionDate;
+        private PaymentOrderExecutionResponse response;
+    }
+
+    private static class JournaledPayment {
+
+        private final String paymentOrderId;
+        private final LocalDate executionDate;
+        private final PaymentOrderExecutionResponse response;
+        private boolean recorded;
+        private boolean updated;
+
+        private JournaledPayment(String paymentOrderId, LocalDate executionDate, PaymentOrderExecutionResponse response) {
+            this.paymentOrderId = paymentOrderId;
+            this.executionDate = executionDate;
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.backbase.accelerators.payment.limiter;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Concurrency limit that adapts to what the downstream can absorb, using additive increase / multiplicative
+ * decrease (AIMD). Every call that completes within {@code latencyThreshold} raises the limit by {@code 1/limit},
+ * i.e. by roughly one per round trip of a full window. A dropped call (error, retryable rejection, or a response
+ * slower than the threshold) multiplies the limit by {@code backoffRatio}. The limit stays between
+ * {@code minLimit} and {@code maxLimit}.
+ *
+ * <p>Callers that find the limit reached wait in FIFO order. Permits are handed out as futures, so a non-blocking
+ * caller can wait without holding a thread.
+ *
+ * <p>Publishes {@code concurrency.limit}, {@code concurrency.in-flight} and {@code concurrency.queue-time}, tagged
+ * with the limiter name.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+    private final Timer queueTime;
+
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimiter(
+            String name,
+            int initialLimit,
+            int minLimit,
+            int maxLimit,
+            double backoffRatio,
+            Duration latencyThreshold,
+            MeterRegistry meterRegistry) {
+
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+
+        Gauge.builder("concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("limiter", name)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.in-flight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("limiter", name)
+                .register(meterRegistry);
+        this.queueTime = Timer.builder("concurrency.queue-time")
+                .tag("limiter", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A limiter that never makes callers wait, for when adaptive limiting is disabled. Metrics are still published.
+     */
+    public static AdaptiveConcurrencyLimiter unlimited(String name, MeterRegistry meterRegistry) {
+        return new AdaptiveConcurrencyLimiter(
+                name,
+                Integer.MAX_VALUE,
+                Integer.MAX_VALUE,
+                Integer.MAX_VALUE,
+                1.0,
+                Duration.ofNanos(Long.MAX_VALUE),
+                meterRegistry);
+    }
+
+    /**
+     * Completes with a permit once one is free. Every permit must be completed with exactly one of its outcome methods.
+     */
+    public CompletableFuture<Permit> acquireAsync() {
+        Waiter waiter = new Waiter(System.nanoTime());
+
+        synchronized (this) {
+            if (waiters.isEmpty() && inFlight < currentLimit()) {
+                inFlight++;
+                return CompletableFuture.completedFuture(grant(waiter));
+            }
+            waiters.addLast(waiter);
+        }
+
+        return waiter.future;
+    }
+
+    public synchronized int getLimit() {
+        return currentLimit();
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    private int currentLimit() {
+        return (int) limit;
+    }
+
+    private Permit grant(Waiter waiter) {
+        long now = System.nanoTime();
+        queueTime.record(Duration.ofNanos(now - waiter.enqueuedAtNanos));
+
+        return new Permit(now);
+    }
+
+    private void release(Outcome outcome) {
+        List<Waiter> granted = new ArrayList<>();
+
+        synchronized (this) {
+            inFlight--;
+
+            if (outcome == Outcome.DROPPED) {
+                double previous = limit;
+                limit = Math.max(minLimit, limit * backoffRatio);
+                if (currentLimit() < (int) previous) {
+                    log.debug("Concurrency limit {} decreased to {}", name, currentLimit());
+                }
+            } else if (outcome == Outcome.SUCCESS && inFlight * 2 >= currentLimit()) {
+                // Only grow while the limit is actually being used, an idle downstream says nothing about capacity.
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+
+            while (!waiters.isEmpty() && inFlight < currentLimit()) {
+                inFlight++;
+                granted.add(waiters.pollFirst());
+            }
+        }
+
+        // Completed outside the lock, the waiter's continuation may run on this thread.
+        for (Waiter waiter : granted) {
+            Permit permit = grant(waiter);
+            if (!waiter.future.complete(permit)) {
+                // The waiter gave up (its future was cancelled), hand the permit on.
+                permit.ignore();
+            }
+        }
+    }
+
+    private enum Outcome {
+        SUCCESS,
+        DROPPED,
+        IGNORED
+    }
+
+    private static class Waiter {
+
+        private final long enqueuedAtNanos;
+        private final CompletableFuture<Permit> future = new CompletableFuture<>();
+
+        private Waiter(long enqueuedAtNanos) {
+            this.enqueuedAtNanos = enqueuedAtNanos;
+        }
+    }
+
+    public class Permit {
+
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        /**
+         * The downstream handled the call. Counts as a drop when it took longer than the latency threshold.
+         */
+        public void success() {
+            boolean slow = System.nanoTime() - startNanos > latencyThresholdNanos;
+            complete(slow ? Outcome.DROPPED : Outcome.SUCCESS);
+        }
+
+        /**
+         * The downstream failed or pushed back, the limit is reduced.
+         */
+        public void dropped() {
+            complete(Outcome.DROPPED);
+        }
+
+        /**
+         * The call says nothing about downstream capacity, e.g. it was cancelled or failed before being sent.
+         */
+        public void ignore() {
+            complete(Outcome.IGNORED);
+        }
+
+        private void complete(Outcome outcome) {
+            if (released.compareAndSet(false, true)) {
+                release(outcome);
+            }
+        }
+    }
+}
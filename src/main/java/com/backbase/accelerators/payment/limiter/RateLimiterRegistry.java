@@ -0,0 +1,94 @@
+package com.backbase.accelerators.payment.limiter;
+
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Paces requests per downstream service and payment type. A payment type with a limit of its own gets a dedicated
+ * bucket (its lane), every other payment type shares the downstream's {@code shared} bucket. Downstreams without
+ * configured limits are not paced.
+ *
+ * <p>Time spent waiting for a token is published as {@code rate-limit.wait}, tagged with downstream and lane.
+ */
+@Slf4j
+public class RateLimiterRegistry {
+
+    private static final String SHARED_LANE = "shared";
+
+    private final Map<String, Map<String, Lane>> lanesByDownstream = new HashMap<>();
+
+    public RateLimiterRegistry(
+            Map<String, PaymentSchedulerProperties.DownstreamRateLimits> rateLimits,
+            MeterRegistry meterRegistry) {
+
+        rateLimits.forEach((downstream, limits) -> {
+            Map<String, Lane> lanes = new HashMap<>();
+
+            if (limits.getShared() != null) {
+                lanes.put(SHARED_LANE, lane(downstream, SHARED_LANE, limits.getShared(), meterRegistry));
+            }
+            limits.getPaymentTypes().forEach((paymentType, limit) ->
+                    lanes.put(paymentType, lane(downstream, paymentType, limit, meterRegistry)));
+
+            log.info("Rate limiting {} with lanes {}", downstream, lanes.keySet());
+            lanesByDownstream.put(downstream, lanes);
+        });
+    }
+
+    /**
+     * Reserves a token for a request of the given payment type and returns how long to wait before sending it.
+     */
+    public Duration reserve(String downstream, String paymentType) {
+        Lane lane = findLane(downstream, paymentType);
+        if (lane == null) {
+            return Duration.ZERO;
+        }
+
+        Duration wait = Duration.ofNanos(lane.bucket.reserve(System.nanoTime()));
+        lane.waitTime.record(wait);
+
+        return wait;
+    }
+
+    private Lane findLane(String downstream, String paymentType) {
+        Map<String, Lane> lanes = lanesByDownstream.get(downstream);
+        if (lanes == null) {
+            return null;
+        }
+
+        Lane lane = lanes.get(Objects.toString(paymentType, SHARED_LANE));
+        return lane != null ? lane : lanes.get(SHARED_LANE);
+    }
+
+    private static Lane lane(
+            String downstream,
+            String laneName,
+            PaymentSchedulerProperties.RateLimit limit,
+            MeterRegistry meterRegistry) {
+
+        Timer waitTime = Timer.builder("rate-limit.wait")
+                .tag("downstream", downstream)
+                .tag("lane", laneName)
+                .register(meterRegistry);
+
+        return new Lane(new TokenBucket(limit.getPermitsPerSecond(), limit.getBurst()), waitTime);
+    }
+
+    private static class Lane {
+
+        private final TokenBucket bucket;
+        private final Timer waitTime;
+
+        private Lane(TokenBucket bucket, Timer waitTime) {
+            this.bucket = bucket;
+            this.waitTime = waitTime;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.backbase.accelerators.payment.limiter;
+
+/**
+ * Token bucket implemented as a generic cell rate algorithm: instead of counting tokens it tracks the theoretical
+ * arrival time of the next request. Callers reserve a slot and are told how long to wait for it, so waiting can be
+ * done by sleeping or by scheduling, whatever suits the caller.
+ */
+class TokenBucket {
+
+    private final long intervalNanos;
+    private final long burstToleranceNanos;
+    private long theoreticalArrivalNanos;
+
+    TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+
+        this.intervalNanos = (long) (1_000_000_000L / permitsPerSecond);
+        this.burstToleranceNanos = intervalNanos * (Math.max(1, burst) - 1);
+        this.theoreticalArrivalNanos = System.nanoTime();
+    }
+
+    /**
+     * Reserves the next slot and returns the nanoseconds to wait before using it, zero when a token is available.
+     */
+    synchronized long reserve(long nowNanos) {
+        long arrival = Math.max(theoreticalArrivalNanos, nowNanos);
+        long waitNanos = Math.max(0, arrival - burstToleranceNanos - nowNanos);
+        theoreticalArrivalNanos = arrival + intervalNanos;
+
+        return waitNanos;
+    }
+}
@@ -6,10 +6,13 @@ import com.backbase.payments.scheduled.v1.service.model.PostScheduledPaymentOrde
 import com.backbase.payments.v2.outbound.model.PaymentOrdersPostRequestBody;
 import com.backbase.payments.v2.service.model.GetPaymentOrderResponse;
 import org.mapstruct.BeanMapping;
+import org.mapstruct.Context;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
 
+import java.time.LocalDate;
+
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
 public interface PaymentOrderMapper {
 
@@ -26,8 +29,8 @@ public interface PaymentOrderMapper {
     @Mapping(target = "additions", source = "additions")
     @Mapping(target = "schedule", ignore = true)
     @Mapping(target = "transferTransactionInformation.counterpartyAccount.identification.schemeName", constant = "BBAN")
-    @Mapping(target = "requestedExecutionDate", expression = "java(java.time.LocalDate.now())")
-    PaymentOrdersPostRequestBody toOutBoundRequest(ScheduledPaymentOrder scheduledPaymentOrder);
+    @Mapping(target = "requestedExecutionDate", expression = "java(businessDate)")
+    PaymentOrdersPostRequestBody toOutBoundRequest(ScheduledPaymentOrder scheduledPaymentOrder, @Context LocalDate businessDate);
 
     ScheduledPaymentOrder toScheduledPaymentOrder(GetPaymentOrderResponse getPaymentOrderResponse);
 
@@ -35,7 +38,7 @@ public interface PaymentOrderMapper {
     @Mapping(target = "scheduledPaymentOrderId", source = "originalScheduledPaymentOrder.id")
     @Mapping(target = "bankReferenceId", source = "paymentOrdersPostResponseBody.bankReferenceId")
     @Mapping(target = "status", source = "paymentOrdersPostResponseBody.bankStatus")
-    @Mapping(target = "executionDate", expression = "java(java.time.LocalDate.now())")
+    @Mapping(target = "executionDate", source = "businessDate")
     @Mapping(target = "amount", source = "originalScheduledPaymentOrder.transferTransactionInformation.instructedAmount.amount")
     @Mapping(target = "reasonCode", source = "paymentOrdersPostResponseBody.reasonCode")
     @Mapping(target = "reasonText", source = "paymentOrdersPostResponseBody.reasonText")
@@ -0,0 +1,141 @@
+package com.backbase.accelerators.payment.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Central place for the meters published by the scheduled payment executor.
+ */
+@Component
+public class PaymentSchedulerMetrics {
+
+    public static final String FETCH_PAYMENT_ORDERS = "payment-orders.fetch";
+    public static final String SUBMIT_PAYMENT_ORDER = "outbound.submit";
+    public static final String CREATE_TRANSACTION_RECORD = "transaction-records.create";
+    public static final String VALIDATE_EXECUTION_DATE = "execution-date.validate";
+    public static final String UPDATE_NEXT_EXECUTION_DATE = "next-execution-date.update";
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_REJECTED = "rejected";
+    public static final String OUTCOME_ERROR = "error";
+
+    private static final String PREFIX = "payment.scheduler.";
+    private static final String UNKNOWN_PAYMENT_TYPE = "unknown";
+
+    private final MeterRegistry meterRegistry;
+    private final DistributionSummary filterSelectivity;
+    private final Timer transactionRecordLag;
+
+    public PaymentSchedulerMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+
+        this.filterSelectivity = DistributionSummary.builder(PREFIX + "filter.selectivity")
+                .description("Fraction of each fetched page that was eligible for execution")
+                .register(meterRegistry);
+
+        this.transactionRecordLag = Timer.builder(PREFIX + "transaction-records.lag")
+                .description("Time between buffering a transaction record and it being written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Times a remote call of the given stage, tagged with whether it returned or threw.
+     */
+    public <T> T time(String stage, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = OUTCOME_ERROR;
+
+        try {
+            T result = call.get();
+            outcome = OUTCOME_SUCCESS;
+
+            return result;
+        } finally {
+            sample.stop(stageTimer(stage, Tags.of("outcome", outcome)));
+        }
+    }
+
+    public Timer.Sample startTimer() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void recordPaymentOrderSubmission(Timer.Sample sample, String paymentType, String outcome) {
+        sample.stop(stageTimer(SUBMIT_PAYMENT_ORDER, Tags.of("paymentType", paymentType(paymentType), "outcome", outcome)));
+    }
+
+    public void recordFetched(String paymentType) {
+        orderCounter("orders.fetched", paymentType).increment();
+    }
+
+    /**
+     * Counts an order dropped by the named eligibility predicate.
+     */
+    public void recordFilteredOut(String paymentType, String predicate) {
+        meterRegistry.counter(PREFIX + "orders.filtered-out",
+                "paymentType", paymentType(paymentType),
+                "predicate", predicate).increment();
+    }
+
+    public void recordEligible(String paymentType) {
+        orderCounter("orders.eligible", paymentType).increment();
+    }
+
+    public void recordExecuted(String paymentType) {
+        orderCounter("orders.executed", paymentType).increment();
+    }
+
+    public void recordRejected(String paymentType) {
+        orderCounter("orders.rejected", paymentType).increment();
+    }
+
+    public void recordRetried(String paymentType) {
+        orderCounter("orders.retried", paymentType).increment();
+    }
+
+    public void recordFilterSelectivity(int fetched, int eligible) {
+        if (fetched > 0) {
+            filterSelectivity.record((double) eligible / fetched);
+        }
+    }
+
+    public void recordWriteBack(String result) {
+        meterRegistry.counter(PREFIX + "write-back.updates", "result", result).increment();
+    }
+
+    public void registerTransactionRecordQueue(Collection<?> queue) {
+        Gauge.builder(PREFIX + "transaction-records.queued", queue, Collection::size)
+                .description("Transaction records waiting to be written")
+                .register(meterRegistry);
+    }
+
+    public void recordTransactionRecordLag(Duration lag) {
+        transactionRecordLag.record(lag);
+    }
+
+    private Timer stageTimer(String stage, Tags tags) {
+        // Percentiles for dashboards, histogram buckets so that Prometheus can aggregate p99 across replicas.
+        return Timer.builder(PREFIX + stage)
+                .tags(tags)
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter orderCounter(String name, String paymentType) {
+        return meterRegistry.counter(PREFIX + name, "paymentType", paymentType(paymentType));
+    }
+
+    private String paymentType(String paymentType) {
+        return Objects.toString(paymentType, UNKNOWN_PAYMENT_TYPE);
+    }
+}
@@ -3,10 +3,14 @@ package com.backbase.accelerators.payment.model;
 import lombok.Data;
 import com.backbase.payments.v2.outbound.model.PaymentOrdersPostResponseBody;
 
+import java.time.LocalDate;
+
 @Data
 public class PaymentOrderExecutionResponse {
 
     private ScheduledPaymentOrder originalScheduledPaymentOrder;
     private PaymentOrdersPostResponseBody paymentOrdersPostResponseBody;
+    // The business date of the run that executed the payment, which its write-back is based on.
+    private LocalDate businessDate;
 
 }
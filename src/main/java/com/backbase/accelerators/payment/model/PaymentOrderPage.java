@@ -0,0 +1,42 @@
+package com.backbase.accelerators.payment.model;
+
+import com.backbase.payments.v2.service.model.GetPaymentOrderResponse;
+import com.backbase.payments.v2.service.model.PaymentOrderPostFilterResponse;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static java.math.BigDecimal.ZERO;
+import static java.util.Collections.emptyList;
+import static java.util.Objects.nonNull;
+
+/**
+ * A page of payment orders as read by the scheduler. The orders that were not due may already have been discarded
+ * while the page was read; the fetched count is the number of orders the page was taken from, so it tells whether more
+ * pages follow when none were kept, and the filter selectivity still covers the discarded orders.
+ */
+@Value
+public class PaymentOrderPage {
+
+    private static final PaymentOrderPage EMPTY = new PaymentOrderPage(emptyList(), ZERO, 0);
+
+    List<GetPaymentOrderResponse> paymentOrders;
+    BigDecimal totalElements;
+    int fetchedCount;
+
+    /**
+     * A page of which every fetched payment order was kept.
+     */
+    public static PaymentOrderPage of(PaymentOrderPostFilterResponse response) {
+        List<GetPaymentOrderResponse> paymentOrders = nonNull(response.getPaymentOrders())
+                ? response.getPaymentOrders()
+                : emptyList();
+
+        return new PaymentOrderPage(paymentOrders, response.getTotalElements(), paymentOrders.size());
+    }
+
+    public static PaymentOrderPage empty() {
+        return EMPTY;
+    }
+}
@@ -0,0 +1,55 @@
+package com.backbase.accelerators.payment.queue;
+
+import com.backbase.accelerators.payment.model.ScheduledPaymentOrder;
+import com.backbase.accelerators.payment.service.ScheduledPaymentExecutorService;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jms.listener.SessionAwareMessageListener;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.Session;
+import javax.jms.TextMessage;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Consumes chunks of scheduled payment orders from the work queue. The listener runs in a transacted session: a
+ * chunk is acknowledged when this method returns, and rolled back for redelivery when it throws. Payments of a chunk
+ * that failed part way are submitted again on redelivery.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class PaymentOrderWorkQueueListener implements SessionAwareMessageListener<Message> {
+
+    private static final TypeReference<List<ScheduledPaymentOrder>> CHUNK_TYPE = new TypeReference<>() {
+    };
+
+    private final ScheduledPaymentExecutorService scheduledPaymentExecutorService;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void onMessage(Message message, Session session) throws JMSException {
+        List<ScheduledPaymentOrder> scheduledPaymentOrders = readChunk(message);
+
+        log.info("Received chunk of {} scheduled payment orders, redelivered: {}",
+                scheduledPaymentOrders.size(),
+                message.getJMSRedelivered());
+
+        scheduledPaymentExecutorService.executeScheduledPaymentOrders(scheduledPaymentOrders);
+    }
+
+    private List<ScheduledPaymentOrder> readChunk(Message message) throws JMSException {
+        if (!(message instanceof TextMessage)) {
+            throw new IllegalArgumentException("Unexpected work queue message type: " + message.getClass().getName());
+        }
+
+        try {
+            return objectMapper.readValue(((TextMessage) message).getText(), CHUNK_TYPE);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unreadable work queue message " + message.getJMSMessageID(), e);
+        }
+    }
+}
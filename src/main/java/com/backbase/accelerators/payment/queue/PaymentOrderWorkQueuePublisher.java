@@ -0,0 +1,93 @@
+package com.backbase.accelerators.payment.queue;
+
+import com.backbase.accelerators.payment.index.ExecutedTodayIndex;
+import com.backbase.accelerators.payment.model.ScheduledPaymentOrder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jms.core.JmsTemplate;
+
+import javax.jms.Message;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Publishes due scheduled payment orders to the work queue in chunks. A chunk is a JSON array of payment orders, with
+ * the ids of its payment orders in the {@code paymentOrderIds} message property for tracing.
+ *
+ * <p>A payment order is claimed in the index of orders published today before it is published, so that later runs of
+ * the day do not publish it again while it still looks due. Claims of orders that could not be published are
+ * released.
+ */
+@Slf4j
+public class PaymentOrderWorkQueuePublisher {
+
+    static final String PAYMENT_ORDER_IDS_PROPERTY = "paymentOrderIds";
+
+    private final JmsTemplate jmsTemplate;
+    private final ObjectMapper objectMapper;
+    private final String queueName;
+    private final int chunkSize;
+    private final ExecutedTodayIndex publishedToday;
+
+    public PaymentOrderWorkQueuePublisher(
+            JmsTemplate jmsTemplate,
+            ObjectMapper objectMapper,
+            String queueName,
+            int chunkSize,
+            ExecutedTodayIndex publishedToday) {
+
+        this.jmsTemplate = jmsTemplate;
+        this.objectMapper = objectMapper;
+        this.queueName = queueName;
+        this.chunkSize = chunkSize;
+        this.publishedToday = publishedToday;
+    }
+
+    public void publish(List<ScheduledPaymentOrder> scheduledPaymentOrders) {
+        List<ScheduledPaymentOrder> claimed = scheduledPaymentOrders.stream()
+                .filter(scheduledPaymentOrder -> publishedToday.add(scheduledPaymentOrder.getId()))
+                .collect(Collectors.toList());
+
+        if (claimed.size() < scheduledPaymentOrders.size()) {
+            log.info("Skipping {} scheduled payment orders that were already published today",
+                    scheduledPaymentOrders.size() - claimed.size());
+        }
+
+        for (int from = 0; from < claimed.size(); from += chunkSize) {
+            List<ScheduledPaymentOrder> chunk = claimed.subList(from, Math.min(from + chunkSize, claimed.size()));
+
+            try {
+                send(chunk);
+            } catch (RuntimeException e) {
+                claimed.subList(from, claimed.size()).forEach(scheduledPaymentOrder ->
+                        publishedToday.remove(scheduledPaymentOrder.getId()));
+                throw e;
+            }
+        }
+    }
+
+    private void send(List<ScheduledPaymentOrder> chunk) {
+        String payload = toJson(chunk);
+        String paymentOrderIds = chunk.stream()
+                .map(ScheduledPaymentOrder::getId)
+                .collect(Collectors.joining(","));
+
+        jmsTemplate.send(queueName, session -> {
+            Message message = session.createTextMessage(payload);
+            message.setStringProperty(PAYMENT_ORDER_IDS_PROPERTY, paymentOrderIds);
+            return message;
+        });
+
+        log.debug("Published chunk of {} scheduled payment orders to {}: {}", chunk.size(), queueName, paymentOrderIds);
+    }
+
+    private String toJson(List<ScheduledPaymentOrder> chunk) {
+        try {
+            return objectMapper.writeValueAsString(chunk);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.backbase.accelerators.payment.resilience;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+
+/**
+ * Count-based circuit breaker. After {@code failureThreshold} consecutive failures the circuit opens and calls are
+ * refused without reaching the downstream. Once {@code openDuration} has passed, up to {@code halfOpenTrialCalls}
+ * calls are let through: a success closes the circuit again, a failure re-opens it.
+ *
+ * <p>Publishes {@code circuit-breaker.state} (0 closed, 1 open, 2 half-open) and {@code circuit-breaker.rejected},
+ * tagged with the circuit breaker name.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final long openDurationNanos;
+    private final int halfOpenTrialCalls;
+    private final Counter rejected;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private int trialCalls;
+    private long openedAtNanos;
+
+    public CircuitBreaker(
+            String name,
+            int failureThreshold,
+            Duration openDuration,
+            int halfOpenTrialCalls,
+            MeterRegistry meterRegistry) {
+
+        this.name = name;
+        this.failureThreshold = failureThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+        this.halfOpenTrialCalls = halfOpenTrialCalls;
+
+        Gauge.builder("circuit-breaker.state", this, circuitBreaker -> circuitBreaker.getState().ordinal())
+                .tag("name", name)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("circuit-breaker.rejected")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A circuit breaker that never opens, for when circuit breaking is disabled. Metrics are still published.
+     */
+    public static CircuitBreaker disabled(String name, MeterRegistry meterRegistry) {
+        return new CircuitBreaker(name, Integer.MAX_VALUE, Duration.ZERO, Integer.MAX_VALUE, meterRegistry);
+    }
+
+    /**
+     * Returns whether a call may be made now. A permitted call must report its outcome with {@link #onSuccess()},
+     * {@link #onFailure()} or {@link #onIgnored()}.
+     */
+    public synchronized boolean tryAcquirePermission() {
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openDurationNanos) {
+            log.info("Circuit breaker {} is half-open, letting {} trial calls through", name, halfOpenTrialCalls);
+            state = State.HALF_OPEN;
+            trialCalls = 0;
+        }
+
+        if (state == State.CLOSED || (state == State.HALF_OPEN && trialCalls++ < halfOpenTrialCalls)) {
+            return true;
+        }
+
+        rejected.increment();
+        return false;
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+
+        if (state == State.HALF_OPEN) {
+            log.info("Circuit breaker {} closed", name);
+            state = State.CLOSED;
+        }
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            log.warn("Circuit breaker {} opened after {} consecutive failures", name, consecutiveFailures);
+            state = State.OPEN;
+            openedAtNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Reports a call whose outcome says nothing about the health of the downstream, e.g. a rejected request. It
+     * neither resets nor adds to the consecutive failures, and hands a half-open trial call back.
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && trialCalls > 0) {
+            trialCalls--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
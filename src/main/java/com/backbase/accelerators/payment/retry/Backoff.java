@@ -0,0 +1,21 @@
+package com.backbase.accelerators.payment.retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Exponential backoff with equal jitter: the delay doubles from {@code base} with every attempt up to {@code max},
+ * half of it is fixed and the other half random, so failed work does not retry in step.
+ */
+public final class Backoff {
+
+    private Backoff() {
+    }
+
+    public static long delayMillis(Duration base, Duration max, int attempt) {
+        long exponential = Math.min(max.toMillis(), base.toMillis() << Math.min(Math.max(attempt - 1, 0), 30));
+
+        long half = exponential / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+}
@@ -0,0 +1,181 @@
+package com.backbase.accelerators.payment.retry;
+
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import com.backbase.accelerators.payment.exception.RetryablePaymentOrderException;
+import com.backbase.accelerators.payment.model.ScheduledPaymentOrder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds payments that failed with a retryable error until the main pass of a run is over, so that transient core
+ * failures do not take worker capacity away from fresh payments.
+ *
+ * <p>A parked payment becomes due after an exponential backoff with jitter, starting at
+ * {@code retry-backoff-delay-millis} and capped at {@code deferred-retry.max-backoff}. The retries of a run are
+ * limited to {@code deferred-retry.budget-percent} of its first submissions; payments that do not fit in the budget,
+ * or that ran out of attempts, are abandoned and recovered by the caller.
+ */
+@Slf4j
+@Component
+public class DeferredRetryQueue {
+
+    private final PaymentSchedulerProperties paymentSchedulerProperties;
+    private final PriorityQueue<DeferredPayment> parked = new PriorityQueue<>(Comparator.comparingLong(DeferredPayment::getDueAtNanos));
+    private final List<DeferredPayment> abandoned = new ArrayList<>();
+
+    private final Counter parkedCounter;
+    private final Counter retriedCounter;
+    private final Counter abandonedCounter;
+
+    private long submissions;
+    private long retries;
+
+    public DeferredRetryQueue(PaymentSchedulerProperties paymentSchedulerProperties, MeterRegistry meterRegistry) {
+        this.paymentSchedulerProperties = paymentSchedulerProperties;
+        this.parkedCounter = meterRegistry.counter("payment.scheduler.deferred-retry.payments", "result", "parked");
+        this.retriedCounter = meterRegistry.counter("payment.scheduler.deferred-retry.payments", "result", "retried");
+        this.abandonedCounter = meterRegistry.counter("payment.scheduler.deferred-retry.payments", "result", "abandoned");
+    }
+
+    public boolean isEnabled() {
+        return paymentSchedulerProperties.getDeferredRetry().isEnabled();
+    }
+
+    public synchronized void startRun() {
+        parked.clear();
+        abandoned.clear();
+        submissions = 0;
+        retries = 0;
+    }
+
+    /**
+     * Counts a first submission of a payment towards the retry budget of the run.
+     */
+    public synchronized void recordSubmission() {
+        submissions++;
+    }
+
+    /**
+     * Parks a payment whose given attempt failed. Returns false when the payment has no attempts left, in which
+     * case the caller should recover it straight away.
+     */
+    public synchronized boolean park(ScheduledPaymentOrder scheduledPaymentOrder, int attempt, RetryablePaymentOrderException failure) {
+        if (attempt >= paymentSchedulerProperties.getRetryMaxAttempts()) {
+            return false;
+        }
+
+        long backoffMillis = backoffMillis(attempt);
+        parked.add(new DeferredPayment(
+                scheduledPaymentOrder,
+                attempt + 1,
+                failure,
+                System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(backoffMillis)));
+        parkedCounter.increment();
+
+        log.info("Deferred retry of scheduled payment order {} by {} ms, attempt {} failed: {}",
+                scheduledPaymentOrder.getId(),
+                backoffMillis,
+                attempt,
+                failure.getMessage());
+
+        return true;
+    }
+
+    public synchronized boolean hasParked() {
+        return !parked.isEmpty();
+    }
+
+    /**
+     * Waits until the earliest parked payment is due and takes every payment that is due by then. Payments beyond
+     * the retry budget are moved to the abandoned list instead.
+     */
+    public List<DeferredPayment> awaitDue() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            if (parked.isEmpty()) {
+                return List.of();
+            }
+            waitNanos = parked.peek().getDueAtNanos() - System.nanoTime();
+        }
+
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+
+        synchronized (this) {
+            long now = System.nanoTime();
+            long budget = (long) Math.ceil(submissions * paymentSchedulerProperties.getDeferredRetry().getBudgetPercent() / 100.0);
+            List<DeferredPayment> due = new ArrayList<>();
+
+            while (!parked.isEmpty() && parked.peek().getDueAtNanos() <= now) {
+                DeferredPayment deferredPayment = parked.poll();
+
+                if (retries < budget) {
+                    retries++;
+                    retriedCounter.increment();
+                    due.add(deferredPayment);
+                } else {
+                    abandonedCounter.increment();
+                    abandoned.add(deferredPayment);
+                }
+            }
+
+            if (!abandoned.isEmpty()) {
+                log.warn("Retry budget of {} retries for this run is used up, {} payments will not be retried",
+                        budget,
+                        abandoned.size());
+            }
+
+            return due;
+        }
+    }
+
+    /**
+     * Takes the payments that will not be retried, because the retry budget of the run was used up.
+     */
+    public synchronized List<DeferredPayment> takeAbandoned() {
+        List<DeferredPayment> taken = new ArrayList<>(abandoned);
+        abandoned.clear();
+
+        return taken;
+    }
+
+    /**
+     * Takes every payment that is still parked or abandoned, e.g. because the run stops waiting for deferred retries.
+     */
+    public synchronized List<DeferredPayment> takeRemaining() {
+        List<DeferredPayment> taken = new ArrayList<>(abandoned);
+        abandoned.clear();
+        while (!parked.isEmpty()) {
+            taken.add(parked.poll());
+        }
+
+        return taken;
+    }
+
+    private long backoffMillis(int attempt) {
+        return Backoff.delayMillis(
+                Duration.ofMillis(paymentSchedulerProperties.getRetryBackoffDelayMillis()),
+                paymentSchedulerProperties.getDeferredRetry().getMaxBackoff(),
+                attempt);
+    }
+
+    @Value
+    public static class DeferredPayment {
+
+        ScheduledPaymentOrder scheduledPaymentOrder;
+        int attempt;
+        RetryablePaymentOrderException lastFailure;
+        long dueAtNanos;
+    }
+}
@@ -0,0 +1,35 @@
+package com.backbase.accelerators.payment.run;
+
+import com.backbase.accelerators.payment.shard.LeaseStore;
+import lombok.RequiredArgsConstructor;
+
+import java.time.Duration;
+
+/**
+ * Run lock held as a lease in the shared {@link LeaseStore}. A replica that dies while running loses the lock once
+ * the lease expires.
+ */
+@RequiredArgsConstructor
+public class LeaseRunLock implements RunLock {
+
+    static final String RUN_LEASE = "run";
+
+    private final LeaseStore leaseStore;
+    private final String owner;
+    private final Duration ttl;
+
+    @Override
+    public boolean tryAcquire() {
+        return leaseStore.tryAcquire(RUN_LEASE, owner, ttl);
+    }
+
+    @Override
+    public boolean renew() {
+        return leaseStore.tryAcquire(RUN_LEASE, owner, ttl);
+    }
+
+    @Override
+    public void release() {
+        leaseStore.release(RUN_LEASE, owner);
+    }
+}
@@ -0,0 +1,40 @@
+package com.backbase.accelerators.payment.run;
+
+import com.backbase.accelerators.payment.eligibility.EligibilityEvaluator;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * What a scheduler run holds fixed from start to end. The business date is read from the clock once, so that a run
+ * that straddles midnight keeps executing the payments of the day it started on.
+ */
+public final class RunContext {
+
+    private final Instant startedAt;
+    private final LocalDate businessDate;
+    private final EligibilityEvaluator eligibilityEvaluator;
+
+    private RunContext(Instant startedAt, LocalDate businessDate) {
+        this.startedAt = startedAt;
+        this.businessDate = businessDate;
+        this.eligibilityEvaluator = new EligibilityEvaluator(businessDate);
+    }
+
+    public static RunContext start(Clock clock) {
+        return new RunContext(clock.instant(), LocalDate.now(clock));
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public LocalDate getBusinessDate() {
+        return businessDate;
+    }
+
+    public EligibilityEvaluator getEligibilityEvaluator() {
+        return eligibilityEvaluator;
+    }
+}
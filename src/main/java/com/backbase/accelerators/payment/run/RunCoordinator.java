@@ -0,0 +1,226 @@
+package com.backbase.accelerators.payment.run;
+
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties.OverlapPolicy;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts runs on a dedicated thread so that no two runs of this replica overlap, and takes the {@link RunLock} so
+ * that runs of different replicas do not overlap either. A trigger that arrives while a run is active is handled by
+ * the {@link OverlapPolicy}: skipped, queued up to {@code maxQueuedRuns}, or coalesced with the other waiting
+ * triggers into one follow-up run.
+ *
+ * <p>Every run gets an id, which is put in the logging context as {@code runId}. Publishes
+ * {@code payment.scheduler.run.triggers} tagged with the decision taken, {@code payment.scheduler.run.duration} tagged
+ * with the outcome, {@code payment.scheduler.run.lock.failures} tagged with the lock operation that threw, and the
+ * {@code payment.scheduler.run.active} and {@code payment.scheduler.run.pending} gauges.
+ */
+@Slf4j
+public class RunCoordinator {
+
+    public static final String RUN_ID_MDC_KEY = "runId";
+
+    private static final String PREFIX = "payment.scheduler.run.";
+
+    private final RunLock runLock;
+    private final OverlapPolicy overlapPolicy;
+    private final int maxQueuedRuns;
+    private final Duration lockRenewInterval;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService runner;
+    private final ScheduledExecutorService lockRenewer;
+
+    private boolean active;
+    private int pending;
+    private Runnable pendingRun;
+    private volatile String activeRunId;
+
+    public RunCoordinator(
+            RunLock runLock,
+            OverlapPolicy overlapPolicy,
+            int maxQueuedRuns,
+            Duration lockRenewInterval,
+            MeterRegistry meterRegistry) {
+
+        this.runLock = runLock;
+        this.overlapPolicy = overlapPolicy;
+        this.maxQueuedRuns = maxQueuedRuns;
+        this.lockRenewInterval = lockRenewInterval;
+        this.meterRegistry = meterRegistry;
+        this.runner = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("payment-scheduler-run-"));
+        this.lockRenewer = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("run-lock-renewer-"));
+
+        Gauge.builder(PREFIX + "active", this, coordinator -> coordinator.getActiveRunId() != null ? 1 : 0)
+                .register(meterRegistry);
+        Gauge.builder(PREFIX + "pending", this, RunCoordinator::getPending)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the run, or applies the overlap policy when a run is already active. Returns without waiting for the run.
+     */
+    public void trigger(Runnable run) {
+        String decision;
+
+        synchronized (this) {
+            if (!active) {
+                active = true;
+                decision = "started";
+                runner.execute(() -> runAll(run));
+            } else if (overlapPolicy == OverlapPolicy.QUEUE && pending < maxQueuedRuns) {
+                pending++;
+                pendingRun = run;
+                decision = "queued";
+            } else if (overlapPolicy == OverlapPolicy.COALESCE) {
+                pending = 1;
+                pendingRun = run;
+                decision = "coalesced";
+            } else {
+                decision = "skipped";
+            }
+        }
+
+        if (!decision.equals("started")) {
+            log.info("Run {} is still active, trigger {}", activeRunId, decision);
+        }
+        meterRegistry.counter(PREFIX + "triggers", "decision", decision).increment();
+    }
+
+    /**
+     * Whether a run is active or waiting to start, including runs that found the run lock taken.
+     */
+    public synchronized boolean isActive() {
+        return active;
+    }
+
+    public String getActiveRunId() {
+        return activeRunId;
+    }
+
+    public synchronized int getPending() {
+        return pending;
+    }
+
+    public void shutdown() {
+        lockRenewer.shutdownNow();
+        runner.shutdownNow();
+    }
+
+    private void runAll(Runnable run) {
+        Runnable next = run;
+        try {
+            while (next != null) {
+                runOnce(next);
+                next = takePending();
+            }
+        } finally {
+            if (next != null) {
+                // Left by an unexpected error, later triggers must still be able to start a run.
+                reset();
+            }
+        }
+    }
+
+    private synchronized void reset() {
+        log.error("Run coordinator stopped unexpectedly, dropping {} pending runs", pending);
+        active = false;
+        pending = 0;
+        pendingRun = null;
+    }
+
+    private synchronized Runnable takePending() {
+        if (pending == 0) {
+            active = false;
+            return null;
+        }
+
+        pending--;
+        return pendingRun;
+    }
+
+    private void runOnce(Runnable run) {
+        String runId = UUID.randomUUID().toString();
+
+        boolean acquired;
+        try {
+            acquired = runLock.tryAcquire();
+        } catch (RuntimeException e) {
+            log.error("Could not acquire run lock, skipping run {}: {}", runId, e.getMessage(), e);
+            lockFailed("acquire");
+            return;
+        }
+
+        if (!acquired) {
+            log.info("Run lock is held by another replica, skipping run {}", runId);
+            meterRegistry.counter(PREFIX + "triggers", "decision", "locked").increment();
+            return;
+        }
+
+        long intervalMillis = lockRenewInterval.toMillis();
+        ScheduledFuture<?> renewal = lockRenewer.scheduleWithFixedDelay(
+                () -> renewLock(runId), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+
+        MDC.put(RUN_ID_MDC_KEY, runId);
+        activeRunId = runId;
+        log.info("Starting run {}", runId);
+
+        long startNanos = System.nanoTime();
+        String outcome = "success";
+        try {
+            run.run();
+        } catch (RuntimeException e) {
+            outcome = "failure";
+            log.error("Run {} failed: {}", runId, e.getMessage(), e);
+        } finally {
+            renewal.cancel(false);
+            releaseLock(runId);
+
+            Duration duration = Duration.ofNanos(System.nanoTime() - startNanos);
+            Timer.builder(PREFIX + "duration")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(duration);
+            log.info("Finished run {} in {} ms", runId, duration.toMillis());
+
+            activeRunId = null;
+            MDC.remove(RUN_ID_MDC_KEY);
+        }
+    }
+
+    private void releaseLock(String runId) {
+        try {
+            runLock.release();
+        } catch (RuntimeException e) {
+            // The lock expires on its own once it is no longer renewed.
+            log.error("Could not release run lock after run {}: {}", runId, e.getMessage(), e);
+            lockFailed("release");
+        }
+    }
+
+    private void lockFailed(String operation) {
+        meterRegistry.counter(PREFIX + "lock.failures", "operation", operation).increment();
+    }
+
+    private void renewLock(String runId) {
+        try {
+            if (!runLock.renew()) {
+                log.warn("Run lock was lost during run {}, another replica may start a run", runId);
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not renew run lock during run {}: {}", runId, e.getMessage(), e);
+            lockFailed("renew");
+        }
+    }
+}
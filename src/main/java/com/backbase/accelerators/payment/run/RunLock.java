@@ -0,0 +1,40 @@
+package com.backbase.accelerators.payment.run;
+
+/**
+ * Lock that keeps runs of different replicas apart. Runs within a replica are kept apart by the
+ * {@link RunCoordinator} itself.
+ */
+public interface RunLock {
+
+    boolean tryAcquire();
+
+    /**
+     * Extends the lock while a run is active. Returns false if the lock was lost.
+     */
+    boolean renew();
+
+    void release();
+
+    /**
+     * A lock that is always granted, for when runs only need to be kept apart within the replica.
+     */
+    static RunLock local() {
+        return new RunLock() {
+
+            @Override
+            public boolean tryAcquire() {
+                return true;
+            }
+
+            @Override
+            public boolean renew() {
+                return true;
+            }
+
+            @Override
+            public void release() {
+                // Nothing to release.
+            }
+        };
+    }
+}
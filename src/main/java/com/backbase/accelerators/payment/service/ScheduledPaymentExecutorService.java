@@ -1,6 +1,12 @@
 package com.backbase.accelerators.payment.service;
 
+import com.backbase.accelerators.payment.model.ScheduledPaymentOrder;
+
+import java.util.List;
+
 public interface ScheduledPaymentExecutorService {
 
     void execute();
+
+    void executeScheduledPaymentOrders(List<ScheduledPaymentOrder> scheduledPaymentOrders);
 }
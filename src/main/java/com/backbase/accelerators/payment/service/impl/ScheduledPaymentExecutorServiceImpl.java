@@ -4,25 +4,48 @@ import com.backbase.accelerators.payment.client.PaymentOrderOutboundClient;
 import com.backbase.accelerators.payment.client.PaymentOrderServiceClient;
 import com.backbase.accelerators.payment.client.ScheduledPaymentOrderServiceClient;
 import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import com.backbase.accelerators.payment.eligibility.Eligibility;
+import com.backbase.accelerators.payment.eligibility.EligibilityEvaluator;
+import com.backbase.accelerators.payment.engine.PaymentExecutionEngine;
 import com.backbase.accelerators.payment.event.EventEmitter;
-import com.backbase.accelerators.payment.iterator.ScheduledPaymentOrderIterator;
+import com.backbase.accelerators.payment.exception.RetryablePaymentOrderException;
+import com.backbase.accelerators.payment.index.ExecutedTodayIndex;
+import com.backbase.accelerators.payment.iterator.PaymentOrderPageIterator;
+import com.backbase.accelerators.payment.iterator.ScheduledPaymentOrderIteratorFactory;
+import com.backbase.accelerators.payment.journal.RunJournal;
 import com.backbase.accelerators.payment.mapper.PaymentOrderMapper;
+import com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics;
+import com.backbase.accelerators.payment.model.PaymentOrderPage;
 import com.backbase.accelerators.payment.model.PaymentOrderExecutionResponse;
 import com.backbase.accelerators.payment.model.ScheduledPaymentOrder;
+import com.backbase.accelerators.payment.queue.PaymentOrderWorkQueuePublisher;
+import com.backbase.accelerators.payment.retry.DeferredRetryQueue;
+import com.backbase.accelerators.payment.run.RunContext;
+import com.backbase.accelerators.payment.run.RunCoordinator;
 import com.backbase.accelerators.payment.service.ScheduledPaymentExecutorService;
-import com.backbase.accelerators.payment.util.ScheduledPaymentUtil;
+import com.backbase.accelerators.payment.shard.ShardCoordinator;
+import com.backbase.accelerators.payment.writeback.NextExecutionDateWriter;
+import com.backbase.accelerators.payment.writeback.TransactionRecordWriter;
 import com.backbase.payments.v2.outbound.model.PaymentOrdersPostRequestBody;
 import com.backbase.payments.v2.outbound.model.PaymentOrdersPostResponseBody;
 import com.backbase.payments.v2.service.model.GetPaymentOrderResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Clock;
+import java.time.LocalDate;
 import java.util.List;
-import java.util.function.Predicate;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static com.backbase.payments.v2.service.model.Status.REJECTED;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -34,49 +57,280 @@ public class ScheduledPaymentExecutorServiceImpl implements ScheduledPaymentExec
     private final PaymentSchedulerProperties paymentSchedulerProperties;
     private final PaymentOrderMapper paymentOrderMapper;
     private final EventEmitter eventEmitter;
+    private final PaymentExecutionEngine paymentExecutionEngine;
+    private final ScheduledPaymentOrderIteratorFactory scheduledPaymentOrderIteratorFactory;
+    private final PaymentSchedulerMetrics paymentSchedulerMetrics;
+    private final NextExecutionDateWriter nextExecutionDateWriter;
+    private final TransactionRecordWriter transactionRecordWriter;
+    private final DeferredRetryQueue deferredRetryQueue;
+    private final ShardCoordinator shardCoordinator;
+    private final ObjectProvider<PaymentOrderWorkQueuePublisher> paymentOrderWorkQueuePublisher;
+    private final RunCoordinator runCoordinator;
+    private final RunJournal runJournal;
+    private final ExecutedTodayIndex executedTodayIndex;
+    private final Clock clock;
 
-    @Override
+    /**
+     * Cron entry point. The run itself is started by the run coordinator, which keeps runs from overlapping.
+     */
     @Scheduled(cron = "${payment-scheduler.cron-expression}")
+    public void trigger() {
+        runCoordinator.trigger(this::execute);
+    }
+
+    @Override
     public void execute() {
         log.info("Entering ScheduledPaymentExecutorServiceImpl.execute()");
-        ScheduledPaymentOrderIterator iterator = initializeScheduledPaymentOrderIterator();
+        PaymentSchedulerProperties.WorkQueueProperties workQueueProperties = paymentSchedulerProperties.getWorkQueue();
+        if (workQueueProperties.isEnabled() && !workQueueProperties.isPublisher()) {
+            log.debug("Replica only consumes the work queue, skipping run");
+            return;
+        }
+
+        RunContext runContext = RunContext.start(clock);
+        log.info("Starting run for business date {}", runContext.getBusinessDate());
 
-        while (iterator.hasNext()) {
-            List<GetPaymentOrderResponse> getPaymentOrderResponseList = iterator.next();
-            log.info("Iterator retrieved batch of {} scheduled payment orders", getPaymentOrderResponseList.size());
-            executePayments(getPaymentOrderResponseList);
+        // Restricted dates may change between runs, validation results are only reused within a run.
+        scheduledPaymentOrderServiceClient.clearExecutionDateValidationCache();
+        deferredRetryQueue.startRun();
+        paymentOrderServiceClient.startRun(runContext);
+
+        Set<Integer> ownedShards = shardCoordinator.rebalance();
+        if (ownedShards.isEmpty()) {
+            log.info("Replica {} owns no shards, skipping run", shardCoordinator.getReplicaId());
+            return;
+        }
+
+        try (PaymentOrderPageIterator iterator = scheduledPaymentOrderIteratorFactory.create(runContext)) {
+            resumeIncompletePayments();
+
+            while (iterator.hasNext()) {
+                PaymentOrderPage paymentOrderPage = iterator.next();
+                log.info("Iterator retrieved batch of {} scheduled payment orders", paymentOrderPage.getPaymentOrders().size());
+                List<ScheduledPaymentOrder> scheduledPaymentOrders = selectDuePayments(
+                        paymentOrderPage, runContext.getEligibilityEvaluator());
+
+                PaymentOrderWorkQueuePublisher publisher = paymentOrderWorkQueuePublisher.getIfAvailable();
+                if (publisher != null) {
+                    publisher.publish(scheduledPaymentOrders);
+                } else {
+                    executePayments(scheduledPaymentOrders, deferredRetryQueue.isEnabled(), runContext.getBusinessDate());
+                }
+            }
+
+            retryDeferredPayments(runContext.getBusinessDate());
+        } finally {
+            // The run is complete only once every transaction record and next execution date has been written back.
+            transactionRecordWriter.flush();
+            nextExecutionDateWriter.flush();
+            runJournal.compact(runContext.getBusinessDate());
         }
     }
 
-    private void executePayments(List<GetPaymentOrderResponse> getPaymentOrderResponseList) {
-        List<ScheduledPaymentOrder> scheduledPaymentOrders = getPaymentOrderResponseList.parallelStream()
+    /**
+     * Finishes the stages that the previous instance journaled as incomplete, e.g. because it crashed after
+     * submitting a payment but before its next execution date was updated.
+     */
+    private void resumeIncompletePayments() {
+        List<PaymentOrderExecutionResponse> unrecorded = runJournal.takeUnrecorded();
+        List<PaymentOrderExecutionResponse> unupdated = runJournal.takeUnupdated();
+
+        if (!unrecorded.isEmpty() || !unupdated.isEmpty()) {
+            log.info("Resuming {} unrecorded and {} unupdated payments from the journal", unrecorded.size(), unupdated.size());
+        }
+
+        unrecorded.forEach(transactionRecordWriter::submit);
+        unupdated.forEach(nextExecutionDateWriter::submit);
+    }
+
+    /**
+     * Executes payment orders taken from the work queue. Retries are done inline, as the deferred retry lane belongs
+     * to a run, and so is the business date, which is taken from the clock instead. Returns once the transaction
+     * records and next execution dates of the payments have been written.
+     */
+    @Override
+    public void executeScheduledPaymentOrders(List<ScheduledPaymentOrder> scheduledPaymentOrders) {
+        executePayments(scheduledPaymentOrders, false, LocalDate.now(clock));
+
+        transactionRecordWriter.flush();
+        nextExecutionDateWriter.flush();
+    }
+
+    private List<ScheduledPaymentOrder> selectDuePayments(
+            PaymentOrderPage paymentOrderPage, EligibilityEvaluator eligibilityEvaluator) {
+        List<GetPaymentOrderResponse> getPaymentOrderResponseList = paymentOrderPage.getPaymentOrders();
+        getPaymentOrderResponseList.forEach(getPaymentOrderResponse ->
+                paymentSchedulerMetrics.recordFetched(getPaymentOrderResponse.getPaymentType()));
+
+        // Filtering is CPU-bound and cheap, the remote calls per payment are dispatched to the execution engine.
+        List<ScheduledPaymentOrder> scheduledPaymentOrders = getPaymentOrderResponseList.stream()
+                .filter(getPaymentOrderResponse -> shardCoordinator.owns(getPaymentOrderResponse.getId()))
+                .filter(getPaymentOrderResponse -> !executedTodayIndex.contains(getPaymentOrderResponse.getId()))
+                .filter(getPaymentOrderResponse -> isDue(getPaymentOrderResponse, eligibilityEvaluator))
+                // Only orders that will be executed are copied, the fetched page is dropped once it has been filtered.
                 .map(paymentOrderMapper::toScheduledPaymentOrder)
-                .filter(ScheduledPaymentUtil::isPaymentScheduledForToday)
-                .filter(Predicate.not(ScheduledPaymentUtil::isEndDateInThePast))
-                .filter(Predicate.not(ScheduledPaymentUtil::isRepeatCountMet))
                 .collect(Collectors.toList());
 
-        scheduledPaymentOrders.parallelStream()
-                .map(this::executePayment)
-                .map(scheduledPaymentOrderServiceClient::createScheduledPaymentOrderTransaction)
-                .forEach(paymentOrderServiceClient::updateNextExecutionDate);
+        // Orders discarded while the batch was read count towards the fetched orders as well.
+        paymentSchedulerMetrics.recordFilterSelectivity(
+                paymentOrderPage.getFetchedCount(), scheduledPaymentOrders.size());
+
+        return scheduledPaymentOrders;
+    }
+
+    /**
+     * Evaluates the eligibility of a payment order once and counts it as eligible or under the reason it was dropped.
+     */
+    private boolean isDue(GetPaymentOrderResponse getPaymentOrderResponse, EligibilityEvaluator eligibilityEvaluator) {
+        Eligibility eligibility = eligibilityEvaluator.evaluate(getPaymentOrderResponse);
+        if (eligibility.isDue()) {
+            paymentSchedulerMetrics.recordEligible(getPaymentOrderResponse.getPaymentType());
+        } else {
+            paymentSchedulerMetrics.recordFilteredOut(getPaymentOrderResponse.getPaymentType(), eligibility.getReason());
+        }
+
+        return eligibility.isDue();
+    }
+
+    private void executePayments(
+            List<ScheduledPaymentOrder> scheduledPaymentOrders,
+            boolean deferRetries,
+            LocalDate businessDate) {
+
+        // Claimed right before submission, so that a payment order is only executed once a day on this replica.
+        List<ScheduledPaymentOrder> claimed = scheduledPaymentOrders.stream()
+                .filter(scheduledPaymentOrder -> executedTodayIndex.add(scheduledPaymentOrder.getId()))
+                .collect(Collectors.toList());
+
+        if (claimed.size() < scheduledPaymentOrders.size()) {
+            log.info("Skipping {} scheduled payment orders that were already executed today",
+                    scheduledPaymentOrders.size() - claimed.size());
+        }
+
+        paymentExecutionEngine.executeAllAsync(
+                claimed,
+                scheduledPaymentOrder -> executePayment(scheduledPaymentOrder, 1, deferRetries, businessDate),
+                this::recordPayment);
     }
 
-    private PaymentOrderExecutionResponse executePayment(ScheduledPaymentOrder scheduledPaymentOrder) {
-        PaymentOrdersPostRequestBody request = paymentOrderMapper.toOutBoundRequest(scheduledPaymentOrder);
-        PaymentOrdersPostResponseBody response = paymentOrderOutboundClient.sendToPaymentOrderOutboundService(request);
+    private void retryDeferredPayments(LocalDate businessDate) {
+        try {
+            while (deferredRetryQueue.hasParked()) {
+                List<DeferredRetryQueue.DeferredPayment> due = deferredRetryQueue.awaitDue();
+                log.info("Retrying {} deferred scheduled payment orders", due.size());
+
+                paymentExecutionEngine.executeAllAsync(
+                        due,
+                        deferredPayment -> executePayment(
+                                deferredPayment.getScheduledPaymentOrder(),
+                                deferredPayment.getAttempt(),
+                                true,
+                                businessDate),
+                        this::recordPayment);
+
+                deferredRetryQueue.takeAbandoned().forEach(deferredPayment -> recoverPayment(deferredPayment, businessDate));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while waiting for deferred retries, recovering remaining payments");
+
+            // Still claimed for today, so a later run would skip them if they were not recovered here.
+            deferredRetryQueue.takeRemaining().forEach(deferredPayment -> recoverPayment(deferredPayment, businessDate));
+        }
+    }
+
+    private void recordPayment(PaymentOrderExecutionResponse paymentOrderExecutionResponse) {
+        String paymentType = paymentOrderExecutionResponse.getOriginalScheduledPaymentOrder().getPaymentType();
+        if (REJECTED.getValue().equalsIgnoreCase(paymentOrderExecutionResponse.getPaymentOrdersPostResponseBody().getBankStatus())) {
+            paymentSchedulerMetrics.recordRejected(paymentType);
+        } else {
+            paymentSchedulerMetrics.recordExecuted(paymentType);
+        }
+
+        runJournal.submitted(paymentOrderExecutionResponse);
+        transactionRecordWriter.submit(paymentOrderExecutionResponse);
+        nextExecutionDateWriter.submit(paymentOrderExecutionResponse);
+    }
+
+    private void recoverPayment(DeferredRetryQueue.DeferredPayment deferredPayment, LocalDate businessDate) {
+        ScheduledPaymentOrder scheduledPaymentOrder = deferredPayment.getScheduledPaymentOrder();
+        PaymentOrdersPostResponseBody response = paymentOrderOutboundClient.recover(
+                deferredPayment.getLastFailure(),
+                paymentOrderMapper.toOutBoundRequest(scheduledPaymentOrder, businessDate));
+
+        recordPayment(toPaymentOrderExecutionResponse(scheduledPaymentOrder, response, businessDate));
+    }
+
+    private CompletableFuture<PaymentOrderExecutionResponse> executePayment(
+            ScheduledPaymentOrder scheduledPaymentOrder,
+            int attempt,
+            boolean deferRetries,
+            LocalDate businessDate) {
+
+        PaymentOrdersPostRequestBody request = paymentOrderMapper.toOutBoundRequest(scheduledPaymentOrder, businessDate);
+
+        if (!deferRetries) {
+            return paymentOrderOutboundClient.sendToPaymentOrderOutboundService(request)
+                    .thenApply(response -> toPaymentOrderExecutionResponse(scheduledPaymentOrder, response, businessDate))
+                    .whenComplete((response, throwable) -> logFailure(scheduledPaymentOrder, throwable));
+        }
+
+        if (attempt == 1) {
+            deferredRetryQueue.recordSubmission();
+        }
+
+        // A retryable failure parks the payment and fails this future, the payment is recorded once it is settled.
+        return paymentOrderOutboundClient.submitOnce(request)
+                .handle((response, throwable) -> {
+                    if (throwable == null) {
+                        return CompletableFuture.completedFuture(
+                                toPaymentOrderExecutionResponse(scheduledPaymentOrder, response, businessDate));
+                    }
+
+                    Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+                    if (cause instanceof RetryablePaymentOrderException) {
+                        RetryablePaymentOrderException retryable = (RetryablePaymentOrderException) cause;
+                        if (!deferredRetryQueue.park(scheduledPaymentOrder, attempt, retryable)) {
+                            return CompletableFuture.completedFuture(toPaymentOrderExecutionResponse(
+                                    scheduledPaymentOrder,
+                                    paymentOrderOutboundClient.recover(retryable, request),
+                                    businessDate));
+                        }
+
+                        paymentSchedulerMetrics.recordRetried(scheduledPaymentOrder.getPaymentType());
+                    } else {
+                        logFailure(scheduledPaymentOrder, cause);
+                    }
+
+                    return CompletableFuture.<PaymentOrderExecutionResponse>failedFuture(cause);
+                })
+                .thenCompose(Function.identity());
+    }
+
+    private void logFailure(ScheduledPaymentOrder scheduledPaymentOrder, Throwable throwable) {
+        if (throwable != null) {
+            // Nothing was recorded for the payment, a later run may try it again.
+            executedTodayIndex.remove(scheduledPaymentOrder.getId());
+
+            log.error("Error occurred processing scheduled payment order {}: {}",
+                    scheduledPaymentOrder.getId(),
+                    throwable.getMessage(),
+                    throwable);
+        }
+    }
+
+    private PaymentOrderExecutionResponse toPaymentOrderExecutionResponse(
+            ScheduledPaymentOrder scheduledPaymentOrder,
+            PaymentOrdersPostResponseBody response,
+            LocalDate businessDate) {
+
         log.info("Response from payment order outbound service: {}", response);
 
         PaymentOrderExecutionResponse paymentOrderExecutionResponse = new PaymentOrderExecutionResponse();
         paymentOrderExecutionResponse.setOriginalScheduledPaymentOrder(scheduledPaymentOrder);
         paymentOrderExecutionResponse.setPaymentOrdersPostResponseBody(response);
+        paymentOrderExecutionResponse.setBusinessDate(businessDate);
 
         return paymentOrderExecutionResponse;
     }
-
-    private ScheduledPaymentOrderIterator initializeScheduledPaymentOrderIterator() {
-        return new ScheduledPaymentOrderIterator(
-                paymentOrderServiceClient,
-                paymentSchedulerProperties);
-    }
 }
@@ -0,0 +1,66 @@
+package com.backbase.accelerators.payment.shard;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lease store that only coordinates the replicas within one JVM. Suitable for a single replica and for tests.
+ */
+public class InMemoryLeaseStore implements LeaseStore {
+
+    private final Clock clock;
+    private final Map<String, Lease> leases = new HashMap<>();
+
+    public InMemoryLeaseStore(Clock clock) {
+        this.clock = clock;
+    }
+
+    @Override
+    public synchronized boolean tryAcquire(String lease, String owner, Duration ttl) {
+        Instant now = clock.instant();
+        Lease current = leases.get(lease);
+
+        if (current != null && !current.owner.equals(owner) && current.expiresAt.isAfter(now)) {
+            return false;
+        }
+
+        leases.put(lease, new Lease(owner, now.plus(ttl)));
+        return true;
+    }
+
+    @Override
+    public synchronized void release(String lease, String owner) {
+        Lease current = leases.get(lease);
+        if (current != null && current.owner.equals(owner)) {
+            leases.remove(lease);
+        }
+    }
+
+    @Override
+    public synchronized Map<String, String> activeLeases(String prefix) {
+        Instant now = clock.instant();
+        Map<String, String> active = new HashMap<>();
+
+        leases.forEach((name, lease) -> {
+            if (name.startsWith(prefix) && lease.expiresAt.isAfter(now)) {
+                active.put(name, lease.owner);
+            }
+        });
+
+        return active;
+    }
+
+    private static class Lease {
+
+        private final String owner;
+        private final Instant expiresAt;
+
+        private Lease(String owner, Instant expiresAt) {
+            this.owner = owner;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
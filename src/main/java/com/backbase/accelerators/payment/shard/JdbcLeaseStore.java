@@ -0,0 +1,69 @@
+package com.backbase.accelerators.payment.shard;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Lease store backed by the {@code payment_scheduler_lease} table, see {@code db/payment-scheduler-lease.sql}. Expiry
+ * times are taken from the replica's clock, so the clocks of the replicas should be kept in sync well within the
+ * lease time to live.
+ */
+public class JdbcLeaseStore implements LeaseStore {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+
+    public JdbcLeaseStore(JdbcTemplate jdbcTemplate, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean tryAcquire(String lease, String owner, Duration ttl) {
+        long now = clock.millis();
+        long expiresAt = now + ttl.toMillis();
+
+        // A single conditional update, so two replicas can never both take over an expired lease.
+        int updated = jdbcTemplate.update(
+                "UPDATE payment_scheduler_lease SET owner = ?, expires_at = ? "
+                        + "WHERE lease_name = ? AND (owner = ? OR expires_at <= ?)",
+                owner, expiresAt, lease, owner, now);
+
+        if (updated == 1) {
+            return true;
+        }
+
+        try {
+            jdbcTemplate.update(
+                    "INSERT INTO payment_scheduler_lease (lease_name, owner, expires_at) VALUES (?, ?, ?)",
+                    lease, owner, expiresAt);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void release(String lease, String owner) {
+        jdbcTemplate.update("DELETE FROM payment_scheduler_lease WHERE lease_name = ? AND owner = ?", lease, owner);
+    }
+
+    @Override
+    public Map<String, String> activeLeases(String prefix) {
+        Map<String, String> active = new HashMap<>();
+
+        jdbcTemplate.query(
+                "SELECT lease_name, owner FROM payment_scheduler_lease WHERE lease_name LIKE ? AND expires_at > ?",
+                rs -> {
+                    active.put(rs.getString("lease_name"), rs.getString("owner"));
+                },
+                prefix + "%", clock.millis());
+
+        return active;
+    }
+}
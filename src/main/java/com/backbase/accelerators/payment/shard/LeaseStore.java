@@ -0,0 +1,28 @@
+package com.backbase.accelerators.payment.shard;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Named, time-bound leases shared by the scheduler replicas. A lease is held by one owner until it is released or
+ * its time to live passes without a renewal.
+ */
+public interface LeaseStore {
+
+    /**
+     * Takes the lease if it is free or expired, or renews it if the owner already holds it.
+     *
+     * @return true if the owner holds the lease for another {@code ttl}
+     */
+    boolean tryAcquire(String lease, String owner, Duration ttl);
+
+    /**
+     * Releases the lease if the owner holds it.
+     */
+    void release(String lease, String owner);
+
+    /**
+     * Returns the unexpired leases whose name starts with the prefix, mapped to their owner.
+     */
+    Map<String, String> activeLeases(String prefix);
+}
@@ -0,0 +1,183 @@
+package com.backbase.accelerators.payment.shard;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits the scheduled payment orders across the scheduler replicas. An order belongs to shard
+ * {@code hash(id) mod shardCount}, and a replica only executes the orders of the shards it holds a lease on.
+ *
+ * <p>Every replica keeps a membership lease and claims shard leases up to its fair share of
+ * {@code ceil(shardCount / replicas)}. Leases are renewed in the background every third of their time to live. A
+ * replica that stops renewing loses its leases once they expire, and the remaining replicas claim its shards. Surplus
+ * shards, e.g. after a replica joined, are only given up by {@link #rebalance()} at the start of a run, when none of
+ * their payments are still being executed by this replica.
+ */
+@Slf4j
+public class ShardCoordinator {
+
+    static final String MEMBER_LEASE_PREFIX = "member/";
+    static final String SHARD_LEASE_PREFIX = "shard/";
+
+    private final LeaseStore leaseStore;
+    private final String replicaId;
+    private final int shardCount;
+    private final Duration leaseTtl;
+    private final boolean sharded;
+    private final ScheduledExecutorService heartbeat;
+
+    private volatile Set<Integer> ownedShards;
+
+    public ShardCoordinator(
+            LeaseStore leaseStore,
+            String replicaId,
+            int shardCount,
+            Duration leaseTtl,
+            MeterRegistry meterRegistry) {
+
+        this(leaseStore, replicaId, shardCount, leaseTtl, true, meterRegistry);
+    }
+
+    private ShardCoordinator(
+            LeaseStore leaseStore,
+            String replicaId,
+            int shardCount,
+            Duration leaseTtl,
+            boolean sharded,
+            MeterRegistry meterRegistry) {
+
+        this.leaseStore = leaseStore;
+        this.replicaId = replicaId;
+        this.shardCount = shardCount;
+        this.leaseTtl = leaseTtl;
+        this.sharded = sharded;
+        this.heartbeat = sharded
+                ? Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("shard-heartbeat-"))
+                : null;
+        this.ownedShards = sharded ? Set.of() : Set.of(0);
+
+        Gauge.builder("sharding.owned-shards", this, coordinator -> coordinator.getOwnedShards().size())
+                .tag("replica", replicaId)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A coordinator for a single replica that owns every payment order, for when sharding is disabled.
+     */
+    public static ShardCoordinator unsharded(String replicaId, MeterRegistry meterRegistry) {
+        return new ShardCoordinator(null, replicaId, 1, Duration.ZERO, false, meterRegistry);
+    }
+
+    public void start() {
+        if (!sharded) {
+            return;
+        }
+
+        long intervalMillis = Math.max(1, leaseTtl.toMillis() / 3);
+        heartbeat.scheduleWithFixedDelay(this::renew, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public void stop() {
+        if (!sharded) {
+            return;
+        }
+
+        heartbeat.shutdownNow();
+
+        // Released on a graceful shutdown so that the other replicas do not have to wait for the leases to expire.
+        synchronized (this) {
+            ownedShards.forEach(shard -> leaseStore.release(shardLease(shard), replicaId));
+            ownedShards = Set.of();
+            leaseStore.release(MEMBER_LEASE_PREFIX + replicaId, replicaId);
+        }
+    }
+
+    /**
+     * Renews the leases of this replica, gives up shards beyond its fair share and claims free shards up to it.
+     * Must only be called while no payments are being executed.
+     */
+    public synchronized Set<Integer> rebalance() {
+        if (sharded) {
+            claim(true);
+        }
+
+        return ownedShards;
+    }
+
+    public boolean owns(String paymentOrderId) {
+        if (!sharded) {
+            return true;
+        }
+
+        return ownedShards.contains(shardOf(paymentOrderId, shardCount));
+    }
+
+    public Set<Integer> getOwnedShards() {
+        return ownedShards;
+    }
+
+    public String getReplicaId() {
+        return replicaId;
+    }
+
+    static int shardOf(String paymentOrderId, int shardCount) {
+        return Math.floorMod(paymentOrderId.hashCode(), shardCount);
+    }
+
+    private synchronized void renew() {
+        try {
+            claim(false);
+        } catch (RuntimeException e) {
+            log.error("Could not renew shard leases of replica {}: {}", replicaId, e.getMessage(), e);
+        }
+    }
+
+    private void claim(boolean releaseSurplus) {
+        leaseStore.tryAcquire(MEMBER_LEASE_PREFIX + replicaId, replicaId, leaseTtl);
+
+        int replicas = Math.max(1, leaseStore.activeLeases(MEMBER_LEASE_PREFIX).size());
+        int fairShare = (shardCount + replicas - 1) / replicas;
+        Map<String, String> shardLeases = leaseStore.activeLeases(SHARD_LEASE_PREFIX);
+
+        TreeSet<Integer> owned = new TreeSet<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            if (replicaId.equals(shardLeases.get(shardLease(shard)))
+                    && leaseStore.tryAcquire(shardLease(shard), replicaId, leaseTtl)) {
+                owned.add(shard);
+            }
+        }
+
+        if (releaseSurplus) {
+            while (owned.size() > fairShare) {
+                int surplus = owned.pollLast();
+                leaseStore.release(shardLease(surplus), replicaId);
+            }
+        }
+
+        for (int shard = 0; shard < shardCount && owned.size() < fairShare; shard++) {
+            if (!shardLeases.containsKey(shardLease(shard))
+                    && leaseStore.tryAcquire(shardLease(shard), replicaId, leaseTtl)) {
+                owned.add(shard);
+            }
+        }
+
+        if (!owned.equals(ownedShards)) {
+            log.info("Replica {} of {} now owns {} of {} shards", replicaId, replicas, owned.size(), shardCount);
+        }
+        ownedShards = Set.copyOf(owned);
+    }
+
+    private static String shardLease(int shard) {
+        return SHARD_LEASE_PREFIX + shard;
+    }
+}
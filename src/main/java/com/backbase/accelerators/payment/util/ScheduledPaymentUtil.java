@@ -7,28 +7,26 @@ import lombok.extern.slf4j.Slf4j;
 import java.time.LocalDate;
 import java.util.Optional;
 
-import static com.backbase.accelerators.payment.constants.DataModelAdditions.EXECUTION_COUNT;
 import static com.backbase.accelerators.payment.constants.DataModelAdditions.ORIGINAL_NEXT_EXECUTION_DATE;
 import static com.backbase.payments.v2.service.model.SimpleSchedule.TransferFrequencyEnum.BIWEEKLY;
 import static com.backbase.payments.v2.service.model.SimpleSchedule.TransferFrequencyEnum.DAILY;
 import static com.backbase.payments.v2.service.model.SimpleSchedule.TransferFrequencyEnum.MONTHLY;
 import static com.backbase.payments.v2.service.model.SimpleSchedule.TransferFrequencyEnum.QUARTERLY;
 import static com.backbase.payments.v2.service.model.SimpleSchedule.TransferFrequencyEnum.WEEKLY;
-import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 import static java.util.Objects.requireNonNull;
 
 @Slf4j
 public class ScheduledPaymentUtil {
 
-    public static LocalDate calculateNextExecutionDate(ScheduledPaymentOrder scheduledPaymentOrder) {
+    public static LocalDate calculateNextExecutionDate(ScheduledPaymentOrder scheduledPaymentOrder, LocalDate businessDate) {
         log.info("Calculating next execution date for scheduled payment: {}", scheduledPaymentOrder.getId());
 
         SimpleSchedule.TransferFrequencyEnum frequency = requireNonNull(scheduledPaymentOrder.getSchedule()).getTransferFrequency();
         SimpleSchedule.EveryEnum everyEnum = requireNonNull(scheduledPaymentOrder.getSchedule().getEvery());
 
         LocalDate nextExecutionDate = calculateNextExecutionDate(
-                getCurrentExecutionDate(scheduledPaymentOrder),
+                getCurrentExecutionDate(scheduledPaymentOrder, businessDate),
                 frequency,
                 everyEnum);
 
@@ -46,18 +44,18 @@ public class ScheduledPaymentUtil {
         return nextExecutionDate;
     }
 
-    private static LocalDate getCurrentExecutionDate(ScheduledPaymentOrder scheduledPaymentOrder) {
+    private static LocalDate getCurrentExecutionDate(ScheduledPaymentOrder scheduledPaymentOrder, LocalDate businessDate) {
         /* The ORIGINAL_NEXT_EXECUTION_DATE represents the date the payment was naturally supposed to be executed
         per the initiator's instruction, but was adjusted due to it falling on a weekend/restricted date.
 
         If the ORIGINAL_NEXT_EXECUTION_DATE is present in the additions, then we will calculate the new 'next' execute date
-        from this date, otherwise, we will calculate it from today's date. */
+        from this date, otherwise, we will calculate it from the business date of the run. */
 
         return Optional.ofNullable(scheduledPaymentOrder)
                 .map(ScheduledPaymentOrder::getAdditions)
                 .map(additions -> additions.get(ORIGINAL_NEXT_EXECUTION_DATE.getValue()))
                 .map(LocalDate::parse)
-                .orElse(LocalDate.now());
+                .orElse(businessDate);
     }
 
     private static LocalDate calculateNextExecutionDate(
@@ -86,53 +84,6 @@ public class ScheduledPaymentUtil {
         return nextExecutionDate;
     }
 
-    public static boolean isEndDateInThePast(ScheduledPaymentOrder scheduledPaymentOrder) {
-        LocalDate endDate = Optional.ofNullable(scheduledPaymentOrder.getSchedule())
-                .map(SimpleSchedule::getEndDate)
-                .orElse(null);
-
-        if (isNull(endDate)) {
-            return false;
-        }
-
-        boolean isEndDateInThePast = endDate.isBefore(LocalDate.now());
-        if (isEndDateInThePast) {
-            log.info("End date for scheduled Payment Order {} has already passed. End date: {}",
-                    scheduledPaymentOrder.getId(),
-                    endDate);
-        }
-
-        return isEndDateInThePast;
-    }
-
-    public static boolean isPaymentScheduledForToday(ScheduledPaymentOrder scheduledPaymentOrder) {
-        LocalDate today = LocalDate.now();
-        LocalDate nextExecutionDate = scheduledPaymentOrder.getSchedule().getNextExecutionDate();
-
-        return (nonNull(nextExecutionDate) && nextExecutionDate.equals(today))
-                || scheduledPaymentOrder.getSchedule().getStartDate().equals(today);
-
-    }
-
-    public static boolean isRepeatCountMet(ScheduledPaymentOrder scheduledPaymentOrder) {
-        Optional<Integer> repeatCount = Optional.ofNullable(scheduledPaymentOrder.getSchedule())
-                .map(SimpleSchedule::getRepeat);
-
-        Optional<Integer> executionCount = Optional.ofNullable(scheduledPaymentOrder.getAdditions())
-                .map(additions -> additions.get(EXECUTION_COUNT.getValue()))
-                .map(Integer::parseInt);
-
-        if (repeatCount.isPresent() && executionCount.isPresent() && repeatCount.get().equals(executionCount.get())) {
-            log.info("Scheduled payment order {} has met it's repetition count of: {}",
-                    scheduledPaymentOrder.getId(),
-                    repeatCount.get());
-
-            return true;
-        }
-
-        return false;
-    }
-
     private ScheduledPaymentUtil() {
     }
 }
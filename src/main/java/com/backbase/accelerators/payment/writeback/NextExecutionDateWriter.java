@@ -0,0 +1,227 @@
+package com.backbase.accelerators.payment.writeback;
+
+import com.backbase.accelerators.payment.client.PaymentOrderServiceClient;
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import com.backbase.accelerators.payment.journal.RunJournal;
+import com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics;
+import com.backbase.accelerators.payment.model.PaymentOrderExecutionResponse;
+import com.backbase.accelerators.payment.retry.Backoff;
+import com.backbase.payments.v2.service.model.PaymentOrderPutRequest;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-back stage for next execution date updates. Updates are accumulated and flushed in batches when
+ * {@code batch-size} is reached or every {@code flush-interval}, and each batch is sent by a pool of
+ * {@code concurrency} senders. The payment order service has no bulk update endpoint, so every update is still its
+ * own PUT; only the failed items of a batch are queued again after an exponential backoff starting at
+ * {@code retry-backoff}, up to {@code max-attempts}.
+ *
+ * <p>When write-back is disabled, updates are sent synchronously on the calling thread.
+ */
+@Slf4j
+@Component
+public class NextExecutionDateWriter {
+
+    private final PaymentOrderServiceClient paymentOrderServiceClient;
+    private final PaymentSchedulerMetrics paymentSchedulerMetrics;
+    private final PaymentSchedulerProperties.WriteBackProperties writeBackProperties;
+    private final RunJournal runJournal;
+
+    private final List<PendingUpdate> buffer = new ArrayList<>();
+    private final Set<CompletableFuture<Void>> inFlight = ConcurrentHashMap.newKeySet();
+    private final Semaphore capacity;
+    private final ExecutorService senders;
+    private final ScheduledExecutorService flusher;
+
+    public NextExecutionDateWriter(
+            PaymentOrderServiceClient paymentOrderServiceClient,
+            PaymentSchedulerMetrics paymentSchedulerMetrics,
+            PaymentSchedulerProperties paymentSchedulerProperties,
+            RunJournal runJournal) {
+
+        this.paymentOrderServiceClient = paymentOrderServiceClient;
+        this.paymentSchedulerMetrics = paymentSchedulerMetrics;
+        this.writeBackProperties = paymentSchedulerProperties.getWriteBack();
+        this.runJournal = runJournal;
+        this.capacity = new Semaphore(writeBackProperties.getMaxPendingUpdates());
+
+        if (writeBackProperties.isEnabled()) {
+            this.senders = Executors.newFixedThreadPool(
+                    writeBackProperties.getConcurrency(),
+                    new CustomizableThreadFactory("next-execution-date-writer-"));
+
+            this.flusher = Executors.newSingleThreadScheduledExecutor(
+                    new CustomizableThreadFactory("next-execution-date-flusher-"));
+
+            long flushIntervalMillis = writeBackProperties.getFlushInterval().toMillis();
+            this.flusher.scheduleWithFixedDelay(
+                    this::flushBuffer, flushIntervalMillis, flushIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.senders = null;
+            this.flusher = null;
+        }
+    }
+
+    public void submit(PaymentOrderExecutionResponse paymentOrderExecutionResponse) {
+        if (!writeBackProperties.isEnabled()) {
+            paymentOrderServiceClient.updateNextExecutionDate(paymentOrderExecutionResponse);
+            runJournal.updated(paymentOrderExecutionResponse);
+            return;
+        }
+
+        String paymentOrderId = paymentOrderExecutionResponse.getOriginalScheduledPaymentOrder().getId();
+        PaymentOrderPutRequest request = paymentOrderServiceClient.createNextExecutionDateUpdate(paymentOrderExecutionResponse);
+
+        // Blocks the submitting payment when too many updates are waiting to be written.
+        capacity.acquireUninterruptibly();
+        enqueue(new PendingUpdate(paymentOrderId, request, 1));
+    }
+
+    /**
+     * Sends all buffered updates, including retries of failed ones once their backoff has passed, and waits until
+     * every update has either been written or has exhausted its attempts.
+     */
+    public void flush() {
+        if (!writeBackProperties.isEnabled()) {
+            return;
+        }
+
+        do {
+            flushBuffer();
+            CompletableFuture.allOf(inFlight.toArray(new CompletableFuture[0])).join();
+        } while (hasPendingUpdates());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (writeBackProperties.isEnabled()) {
+            flush();
+            flusher.shutdownNow();
+            senders.shutdown();
+        }
+    }
+
+    private void enqueue(PendingUpdate pendingUpdate) {
+        List<PendingUpdate> batch = null;
+
+        synchronized (buffer) {
+            buffer.add(pendingUpdate);
+            if (buffer.size() >= writeBackProperties.getBatchSize()) {
+                batch = drainBuffer();
+            }
+        }
+
+        if (batch != null) {
+            send(batch);
+        }
+    }
+
+    private void flushBuffer() {
+        List<PendingUpdate> batch;
+        synchronized (buffer) {
+            batch = drainBuffer();
+        }
+
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+    }
+
+    private List<PendingUpdate> drainBuffer() {
+        List<PendingUpdate> batch = new ArrayList<>(buffer);
+        buffer.clear();
+
+        return batch;
+    }
+
+    private void send(List<PendingUpdate> batch) {
+        log.debug("Writing batch of {} next execution date updates", batch.size());
+
+        CompletableFuture<?>[] updates = batch.stream()
+                .map(pendingUpdate -> CompletableFuture.runAsync(() -> write(pendingUpdate), senders))
+                .toArray(CompletableFuture[]::new);
+
+        CompletableFuture<Void> completion = CompletableFuture.allOf(updates);
+        inFlight.add(completion);
+        completion.whenComplete((result, throwable) -> inFlight.remove(completion));
+    }
+
+    private void write(PendingUpdate pendingUpdate) {
+        try {
+            paymentOrderServiceClient.updatePaymentOrder(pendingUpdate.getPaymentOrderId(), pendingUpdate.getRequest());
+            runJournal.updated(pendingUpdate.getPaymentOrderId());
+            paymentSchedulerMetrics.recordWriteBack("success");
+            capacity.release();
+        } catch (Exception e) {
+            handleFailure(pendingUpdate, e);
+        }
+    }
+
+    private void handleFailure(PendingUpdate pendingUpdate, Exception e) {
+        if (pendingUpdate.getAttempt() < writeBackProperties.getMaxAttempts()) {
+            log.warn("Attempt {} to update next execution date for scheduled payment order {} failed, will retry: {}",
+                    pendingUpdate.getAttempt(),
+                    pendingUpdate.getPaymentOrderId(),
+                    e.getMessage());
+
+            paymentSchedulerMetrics.recordWriteBack("retry");
+            retryLater(pendingUpdate.nextAttempt());
+            return;
+        }
+
+        log.error("Could not update next execution date for scheduled payment order {} after {} attempts: {}",
+                pendingUpdate.getPaymentOrderId(),
+                pendingUpdate.getAttempt(),
+                e.getMessage());
+
+        paymentSchedulerMetrics.recordWriteBack("failed");
+        capacity.release();
+    }
+
+    private void retryLater(PendingUpdate pendingUpdate) {
+        long backoffMillis = Backoff.delayMillis(
+                writeBackProperties.getRetryBackoff(),
+                writeBackProperties.getMaxRetryBackoff(),
+                pendingUpdate.getAttempt() - 1);
+
+        // Tracked with the in-flight batches, so that flush waits for the retry to be queued.
+        CompletableFuture<Void> retry = CompletableFuture.runAsync(
+                () -> enqueue(pendingUpdate),
+                CompletableFuture.delayedExecutor(backoffMillis, TimeUnit.MILLISECONDS, senders));
+        inFlight.add(retry);
+        retry.whenComplete((result, throwable) -> inFlight.remove(retry));
+    }
+
+    private boolean hasPendingUpdates() {
+        synchronized (buffer) {
+            return !buffer.isEmpty() || !inFlight.isEmpty();
+        }
+    }
+
+    @Value
+    private static class PendingUpdate {
+
+        String paymentOrderId;
+        PaymentOrderPutRequest request;
+        int attempt;
+
+        PendingUpdate nextAttempt() {
+            return new PendingUpdate(paymentOrderId, request, attempt + 1);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.backbase.accelerators.payment.writeback;
+
+import com.backbase.payments.scheduled.v1.service.model.PostScheduledPaymentOrderTransactionRequest;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Durable overflow for transaction records that could not be kept in memory: one JSON document per line.
+ * Records are appended when the in-memory buffer is full or on shutdown, and read back once there is room again.
+ */
+@Slf4j
+class TransactionRecordSpillFile {
+
+    private final Path file;
+    private final Path replaying;
+    private final ObjectMapper objectMapper;
+
+    TransactionRecordSpillFile(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.replaying = file.resolveSibling(file.getFileName() + ".replaying");
+        this.objectMapper = objectMapper;
+    }
+
+    synchronized void append(PostScheduledPaymentOrderTransactionRequest request) {
+        try (BufferedWriter writer = Files.newBufferedWriter(
+                file,
+                StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND)) {
+
+            writer.write(objectMapper.writeValueAsString(request));
+            writer.newLine();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spill transaction record to " + file, e);
+        }
+    }
+
+    synchronized boolean isEmpty() {
+        try {
+            return Files.notExists(replaying) && (Files.notExists(file) || Files.size(file) == 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Takes every spilled record out of the file.
+     */
+    synchronized List<PostScheduledPaymentOrderTransactionRequest> drain() {
+        List<PostScheduledPaymentOrderTransactionRequest> requests = new ArrayList<>();
+
+        try {
+            // A leftover replay file means the previous replay did not complete; read it before taking new records.
+            if (Files.notExists(replaying)) {
+                if (isEmpty()) {
+                    return requests;
+                }
+                Files.move(file, replaying, StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            for (String line : Files.readAllLines(replaying, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    requests.add(read(line));
+                }
+            }
+
+            Files.delete(replaying);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read spilled transaction records from " + file, e);
+        }
+
+        log.info("Read {} spilled transaction records from {}", requests.size(), file);
+        return requests;
+    }
+
+    private PostScheduledPaymentOrderTransactionRequest read(String line) {
+        try {
+            return objectMapper.readValue(line, PostScheduledPaymentOrderTransactionRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException("Could not parse spilled transaction record: " + line, e);
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.backbase.accelerators.payment.writeback;
+
+import com.backbase.accelerators.payment.client.ScheduledPaymentOrderServiceClient;
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import com.backbase.accelerators.payment.journal.RunJournal;
+import com.backbase.accelerators.payment.mapper.PaymentOrderMapper;
+import com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics;
+import com.backbase.accelerators.payment.model.PaymentOrderExecutionResponse;
+import com.backbase.accelerators.payment.retry.Backoff;
+import com.backbase.payments.scheduled.v1.service.model.PostScheduledPaymentOrderTransactionRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.Objects.nonNull;
+
+/**
+ * Takes scheduled payment order transaction records off the payment's critical path. Records are mapped on the
+ * payment thread, put in a bounded in-memory buffer and written in batches by background writers.
+ *
+ * <p>When the buffer is full, records are spilled to {@code spill-file} if one is configured, otherwise the payment
+ * thread waits for room. On shutdown the buffer is drained; whatever cannot be written is spilled, and spilled
+ * records are written once the buffer has room again. Failed records are buffered again after an exponential backoff
+ * starting at {@code retry-backoff}, up to {@code max-attempts}. When disabled, records are written synchronously.
+ */
+@Slf4j
+@Component
+public class TransactionRecordWriter {
+
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final ScheduledPaymentOrderServiceClient scheduledPaymentOrderServiceClient;
+    private final PaymentOrderMapper paymentOrderMapper;
+    private final PaymentSchedulerMetrics paymentSchedulerMetrics;
+    private final PaymentSchedulerProperties.TransactionRecordProperties transactionRecordProperties;
+    private final RunJournal runJournal;
+
+    private final BlockingQueue<PendingRecord> buffer;
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final Object drained = new Object();
+    private final TransactionRecordSpillFile spillFile;
+    private final ExecutorService writers;
+
+    private volatile boolean running = true;
+
+    public TransactionRecordWriter(
+            ScheduledPaymentOrderServiceClient scheduledPaymentOrderServiceClient,
+            PaymentOrderMapper paymentOrderMapper,
+            PaymentSchedulerMetrics paymentSchedulerMetrics,
+            PaymentSchedulerProperties paymentSchedulerProperties,
+            ObjectMapper objectMapper,
+            RunJournal runJournal) {
+
+        this.scheduledPaymentOrderServiceClient = scheduledPaymentOrderServiceClient;
+        this.paymentOrderMapper = paymentOrderMapper;
+        this.paymentSchedulerMetrics = paymentSchedulerMetrics;
+        this.transactionRecordProperties = paymentSchedulerProperties.getTransactionRecords();
+        this.runJournal = runJournal;
+        this.buffer = new ArrayBlockingQueue<>(transactionRecordProperties.getBufferCapacity());
+        this.spillFile = nonNull(transactionRecordProperties.getSpillFile())
+                ? new TransactionRecordSpillFile(Paths.get(transactionRecordProperties.getSpillFile()), objectMapper)
+                : null;
+
+        paymentSchedulerMetrics.registerTransactionRecordQueue(buffer);
+
+        if (transactionRecordProperties.isEnabled()) {
+            // Records spilled by a previous instance are picked up before new work arrives.
+            replaySpilledRecords();
+
+            int writerThreads = transactionRecordProperties.getWriterThreads();
+            this.writers = Executors.newFixedThreadPool(writerThreads, new CustomizableThreadFactory("transaction-record-writer-"));
+            for (int i = 0; i < writerThreads; i++) {
+                writers.execute(this::writeLoop);
+            }
+        } else {
+            this.writers = null;
+        }
+    }
+
+    public void submit(PaymentOrderExecutionResponse paymentOrderExecutionResponse) {
+        if (!transactionRecordProperties.isEnabled()) {
+            scheduledPaymentOrderServiceClient.createScheduledPaymentOrderTransaction(paymentOrderExecutionResponse);
+            runJournal.recorded(paymentOrderExecutionResponse);
+            return;
+        }
+
+        PostScheduledPaymentOrderTransactionRequest request =
+                paymentOrderMapper.toPostScheduledPaymentOrderTransactionRequest(paymentOrderExecutionResponse);
+
+        PendingRecord pendingRecord = new PendingRecord(request, System.nanoTime(), 1);
+        if (offer(pendingRecord)) {
+            return;
+        }
+
+        if (nonNull(spillFile)) {
+            log.warn("Transaction record buffer is full, spilling record for scheduled payment order {}",
+                    request.getScheduledPaymentOrderId());
+            spillFile.append(request);
+            runJournal.recorded(request.getScheduledPaymentOrderId());
+            return;
+        }
+
+        putUninterruptibly(pendingRecord);
+    }
+
+    /**
+     * Waits until every buffered record has been written or given up on.
+     */
+    public void flush() {
+        if (!transactionRecordProperties.isEnabled()) {
+            return;
+        }
+
+        synchronized (drained) {
+            while (outstanding.get() > 0) {
+                try {
+                    drained.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!transactionRecordProperties.isEnabled()) {
+            return;
+        }
+
+        log.info("Flushing {} buffered transaction records before shutdown", buffer.size());
+        flush();
+        running = false;
+        writers.shutdown();
+
+        try {
+            if (!writers.awaitTermination(transactionRecordProperties.getShutdownTimeout().toMillis(), TimeUnit.MILLISECONDS)) {
+                writers.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writers.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+
+        spillRemaining();
+    }
+
+    private void writeLoop() {
+        List<PendingRecord> batch = new ArrayList<>(transactionRecordProperties.getBatchSize());
+
+        while (running || !buffer.isEmpty()) {
+            try {
+                PendingRecord first = buffer.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    replaySpilledRecords();
+                    continue;
+                }
+
+                batch.add(first);
+                buffer.drainTo(batch, transactionRecordProperties.getBatchSize() - 1);
+                batch.forEach(this::write);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void write(PendingRecord pendingRecord) {
+        PostScheduledPaymentOrderTransactionRequest request = pendingRecord.getRequest();
+
+        try {
+            scheduledPaymentOrderServiceClient.createScheduledPaymentOrderTransaction(request);
+            runJournal.recorded(request.getScheduledPaymentOrderId());
+            paymentSchedulerMetrics.recordTransactionRecordLag(Duration.ofNanos(System.nanoTime() - pendingRecord.getEnqueuedAtNanos()));
+        } catch (Exception e) {
+            if (pendingRecord.getAttempt() < transactionRecordProperties.getMaxAttempts()) {
+                log.warn("Attempt {} to create transaction record for scheduled payment order {} failed, will retry: {}",
+                        pendingRecord.getAttempt(),
+                        request.getScheduledPaymentOrderId(),
+                        e.getMessage());
+                retryLater(pendingRecord.nextAttempt());
+                return;
+            }
+
+            giveUp(request, e.getMessage());
+        } finally {
+            complete(1);
+        }
+    }
+
+    // Outstanding is raised for the retry before the failed attempt completes, so flush() waits out the backoff.
+    private void retryLater(PendingRecord pendingRecord) {
+        outstanding.incrementAndGet();
+
+        long backoffMillis = Backoff.delayMillis(
+                transactionRecordProperties.getRetryBackoff(),
+                transactionRecordProperties.getMaxRetryBackoff(),
+                pendingRecord.getAttempt() - 1);
+
+        CompletableFuture.runAsync(() -> {
+            if (!buffer.offer(pendingRecord)) {
+                giveUp(pendingRecord.getRequest(), "transaction record buffer is full");
+                complete(1);
+            }
+        }, CompletableFuture.delayedExecutor(backoffMillis, TimeUnit.MILLISECONDS));
+    }
+
+    private void giveUp(PostScheduledPaymentOrderTransactionRequest request, String reason) {
+        log.error("Could not create transaction record for scheduled payment order {}: {}",
+                request.getScheduledPaymentOrderId(),
+                reason);
+
+        if (nonNull(spillFile)) {
+            // A spilled record is replayed later, the journal does not need to resubmit it.
+            spillFile.append(request);
+            runJournal.recorded(request.getScheduledPaymentOrderId());
+        }
+    }
+
+    private void complete(int records) {
+        if (outstanding.addAndGet(-records) == 0) {
+            synchronized (drained) {
+                drained.notifyAll();
+            }
+        }
+    }
+
+    private void replaySpilledRecords() {
+        if (!running || spillFile == null || spillFile.isEmpty()
+                || buffer.remainingCapacity() < transactionRecordProperties.getBufferCapacity() / 2) {
+            return;
+        }
+
+        for (PostScheduledPaymentOrderTransactionRequest request : spillFile.drain()) {
+            if (!offer(new PendingRecord(request, System.nanoTime(), 1))) {
+                spillFile.append(request);
+            }
+        }
+    }
+
+    private void spillRemaining() {
+        List<PendingRecord> remaining = new ArrayList<>();
+        buffer.drainTo(remaining);
+        complete(remaining.size());
+
+        if (remaining.isEmpty()) {
+            return;
+        }
+
+        if (spillFile == null) {
+            log.error("{} transaction records could not be written before shutdown", remaining.size());
+            return;
+        }
+
+        log.warn("Spilling {} transaction records that could not be written before shutdown", remaining.size());
+        remaining.forEach(pendingRecord -> {
+            spillFile.append(pendingRecord.getRequest());
+            runJournal.recorded(pendingRecord.getRequest().getScheduledPaymentOrderId());
+        });
+    }
+
+    // Outstanding is raised before the record becomes visible to writers, so flush() never sees a transient zero.
+    private boolean offer(PendingRecord pendingRecord) {
+        outstanding.incrementAndGet();
+        if (buffer.offer(pendingRecord)) {
+            return true;
+        }
+
+        complete(1);
+        return false;
+    }
+
+    private void putUninterruptibly(PendingRecord pendingRecord) {
+        outstanding.incrementAndGet();
+        try {
+            buffer.put(pendingRecord);
+        } catch (InterruptedException e) {
+            complete(1);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while buffering transaction record", e);
+        }
+    }
+
+    @Value
+    private static class PendingRecord {
+
+        PostScheduledPaymentOrderTransactionRequest request;
+        long enqueuedAtNanos;
+        int attempt;
+
+        PendingRecord nextAttempt() {
+            return new PendingRecord(request, enqueuedAtNanos, attempt + 1);
+        }
+    }
+}
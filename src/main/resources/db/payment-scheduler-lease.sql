@@ -0,0 +1,5 @@
+CREATE TABLE payment_scheduler_lease (
+    lease_name VARCHAR(255) NOT NULL PRIMARY KEY,
+    owner      VARCHAR(255) NOT NULL,
+    expires_at BIGINT       NOT NULL
+);
@@ -0,0 +1,30 @@
+package com.backbase.accelerators.payment.client;
+
+import com.backbase.payments.v2.outbound.model.PaymentOrdersPostRequestBody;
+import com.backbase.payments.v2.outbound.model.PaymentOrdersPostResponseBody;
+import com.backbase.payments.v2.outbound.reactive.api.PaymentOrderIntegrationOutboundApi;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Submits payment orders through the WebClient-based outbound API. A response without a body completes empty, which
+ * is turned into a failure so that it is handled like any other failed submission.
+ */
+public class WebClientPaymentOrderIntegrationOutboundApi implements AsyncPaymentOrderIntegrationOutboundApi {
+
+    private final PaymentOrderIntegrationOutboundApi paymentOrderIntegrationOutboundApi;
+
+    public WebClientPaymentOrderIntegrationOutboundApi(PaymentOrderIntegrationOutboundApi paymentOrderIntegrationOutboundApi) {
+        this.paymentOrderIntegrationOutboundApi = paymentOrderIntegrationOutboundApi;
+    }
+
+    @Override
+    public CompletableFuture<PaymentOrdersPostResponseBody> postPaymentOrders(PaymentOrdersPostRequestBody paymentOrdersPostRequestBody) {
+        return paymentOrderIntegrationOutboundApi.postPaymentOrders(paymentOrdersPostRequestBody)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException(
+                        "Payment order outbound service returned no response for payment order "
+                                + paymentOrdersPostRequestBody.getId())))
+                .toFuture();
+    }
+}
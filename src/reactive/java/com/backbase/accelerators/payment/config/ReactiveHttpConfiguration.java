@@ -0,0 +1,72 @@
+package com.backbase.accelerators.payment.config;
+
+import com.backbase.accelerators.payment.client.AsyncPaymentOrderIntegrationOutboundApi;
+import com.backbase.accelerators.payment.client.WebClientPaymentOrderIntegrationOutboundApi;
+import com.backbase.payments.v2.outbound.reactive.api.PaymentOrderIntegrationOutboundApi;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import javax.validation.constraints.Pattern;
+
+import static com.backbase.accelerators.payment.config.PaymentOrderOutboundServiceApiConfiguration.PAYMENT_ORDER_INTEGRATION_SERVICE_ID;
+
+/**
+ * WebClient-based variant of the payment order outbound API, enabled with {@code payment-scheduler.http.mode: REACTIVE},
+ * so that payment submissions wait for their response without holding a thread. The other services are still called
+ * through the RestTemplate-based APIs, as their callers have no non-blocking path.
+ * Only compiled with the {@code reactive-http} Maven profile, which also brings in WebFlux.
+ *
+ * <p>The WebClient is built from the application's {@link WebClient.Builder}, so registered customizers apply, and
+ * resolves service ids through the load balancer like the inter-service RestTemplate does.
+ */
+@Configuration
+@ConditionalOnProperty(name = ReactiveHttpConfiguration.HTTP_MODE_PROPERTY, havingValue = "reactive")
+public class ReactiveHttpConfiguration {
+
+    public static final String HTTP_MODE_PROPERTY = "payment-scheduler.http.mode";
+    public static final String INTER_SERVICE_WEB_CLIENT_BEAN_NAME = "paymentSchedulerInterServiceWebClient";
+
+    @Value("${backbase.communication.http.default-scheme:http}")
+    @Pattern(regexp = "https?")
+    private String scheme;
+
+    @Bean(name = INTER_SERVICE_WEB_CLIENT_BEAN_NAME)
+    public WebClient interServiceWebClient(
+            WebClient.Builder webClientBuilder,
+            ObjectProvider<ReactorLoadBalancerExchangeFilterFunction> loadBalancerExchangeFilterFunction) {
+
+        WebClient.Builder builder = webClientBuilder.clone();
+        loadBalancerExchangeFilterFunction.ifAvailable(builder::filter);
+
+        return builder.build();
+    }
+
+    @Bean
+    public PaymentOrderIntegrationOutboundApi reactivePaymentOrderIntegrationOutboundApi(
+            @Qualifier(INTER_SERVICE_WEB_CLIENT_BEAN_NAME) WebClient webClient,
+            ObjectMapper objectMapper) {
+
+        com.backbase.payments.v2.outbound.reactive.ApiClient apiClient =
+                new com.backbase.payments.v2.outbound.reactive.ApiClient(
+                        webClient,
+                        objectMapper,
+                        com.backbase.payments.v2.outbound.reactive.ApiClient.createDefaultDateFormat());
+        apiClient.setBasePath(scheme + "://" + PAYMENT_ORDER_INTEGRATION_SERVICE_ID);
+
+        return new PaymentOrderIntegrationOutboundApi(apiClient);
+    }
+
+    @Bean
+    public AsyncPaymentOrderIntegrationOutboundApi asyncPaymentOrderIntegrationOutboundApi(
+            PaymentOrderIntegrationOutboundApi reactivePaymentOrderIntegrationOutboundApi) {
+
+        return new WebClientPaymentOrderIntegrationOutboundApi(reactivePaymentOrderIntegrationOutboundApi);
+    }
+}
@@ -0,0 +1,54 @@
+package com.backbase.accelerators.payment.client;
+
+import com.backbase.payments.v2.outbound.model.PaymentOrdersPostRequestBody;
+import com.backbase.payments.v2.outbound.model.PaymentOrdersPostResponseBody;
+import com.backbase.payments.v2.outbound.reactive.api.PaymentOrderIntegrationOutboundApi;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WebClientPaymentOrderIntegrationOutboundApiTest {
+
+    @Mock
+    private PaymentOrderIntegrationOutboundApi paymentOrderIntegrationOutboundApi;
+
+    @Test
+    public void should_complete_with_response_of_outbound_service() {
+        when(paymentOrderIntegrationOutboundApi.postPaymentOrders(any()))
+                .thenReturn(Mono.just(new PaymentOrdersPostResponseBody().bankStatus("ACCEPTED")));
+
+        PaymentOrdersPostResponseBody response = new WebClientPaymentOrderIntegrationOutboundApi(paymentOrderIntegrationOutboundApi)
+                .postPaymentOrders(new PaymentOrdersPostRequestBody().id("1"))
+                .join();
+
+        assertEquals("ACCEPTED", response.getBankStatus());
+    }
+
+    @Test
+    public void should_fail_when_outbound_service_returns_no_response() {
+        when(paymentOrderIntegrationOutboundApi.postPaymentOrders(any())).thenReturn(Mono.empty());
+
+        CompletableFuture<PaymentOrdersPostResponseBody> response =
+                new WebClientPaymentOrderIntegrationOutboundApi(paymentOrderIntegrationOutboundApi)
+                        .postPaymentOrders(new PaymentOrdersPostRequestBody().id("1"));
+
+        try {
+            response.join();
+            fail("Expected the submission to fail");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.backbase.accelerators.payment.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SingleFlightCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void should_load_each_key_once_for_concurrent_lookups() throws Exception {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>("test", Duration.ofMinutes(1), 10, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        Function<String, String> slowLoader = key -> {
+            loads.incrementAndGet();
+            await(release);
+            return key.toUpperCase();
+        };
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            Future<?>[] lookups = new Future<?>[8];
+            for (int i = 0; i < lookups.length; i++) {
+                lookups[i] = executorService.submit(() -> assertEquals("KEY", cache.get("key", slowLoader)));
+            }
+
+            Thread.sleep(50);
+            release.countDown();
+
+            for (Future<?> lookup : lookups) {
+                lookup.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").counter().count(), 0.0);
+        assertEquals(7.0, meterRegistry.get("cache.gets").tag("result", "hit").counter().count(), 0.0);
+    }
+
+    @Test
+    public void should_reload_expired_entries() throws Exception {
+        SingleFlightCache<String, Integer> cache = new SingleFlightCache<>("test", Duration.ofMillis(10), 10, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("key", key -> loads.incrementAndGet());
+        Thread.sleep(20);
+        cache.get("key", key -> loads.incrementAndGet());
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    public void should_evict_oldest_entries_beyond_max_size() {
+        SingleFlightCache<Integer, Integer> cache = new SingleFlightCache<>("test", Duration.ofMinutes(1), 2, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, key -> loads.incrementAndGet());
+        cache.get(2, key -> loads.incrementAndGet());
+        cache.get(3, key -> loads.incrementAndGet());
+        cache.get(1, key -> loads.incrementAndGet());
+
+        assertEquals(4, loads.get());
+        assertEquals(2.0, meterRegistry.get("cache.evictions").counter().count(), 0.0);
+    }
+
+    @Test
+    public void should_evict_least_recently_used_entries() {
+        SingleFlightCache<Integer, Integer> cache = new SingleFlightCache<>("test", Duration.ofMinutes(1), 2, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1, key -> loads.incrementAndGet());
+        cache.get(2, key -> loads.incrementAndGet());
+        cache.get(1, key -> loads.incrementAndGet());
+        cache.get(3, key -> loads.incrementAndGet());
+        cache.get(1, key -> loads.incrementAndGet());
+
+        assertEquals(3, loads.get());
+        assertEquals(1.0, meterRegistry.get("cache.evictions").counter().count(), 0.0);
+    }
+
+    @Test
+    public void should_not_evict_entries_that_are_still_loading() throws Exception {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>("test", Duration.ofMinutes(1), 1, meterRegistry);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Function<String, String> slowLoader = key -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return key.toUpperCase();
+        };
+
+        ExecutorService executorService = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executorService.submit(() -> cache.get("slow", slowLoader));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            // Exceeds the size while "slow" is loading, which must stay in place for the lookup below.
+            assertEquals("OTHER", cache.get("other", String::toUpperCase));
+            Future<String> second = executorService.submit(() -> cache.get("slow", slowLoader));
+
+            Thread.sleep(50);
+            release.countDown();
+
+            assertEquals("SLOW", first.get(5, TimeUnit.SECONDS));
+            assertEquals("SLOW", second.get(5, TimeUnit.SECONDS));
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void should_not_cache_failed_loads() {
+        SingleFlightCache<String, String> cache = new SingleFlightCache<>("test", Duration.ofMinutes(1), 10, meterRegistry);
+
+        try {
+            cache.get("key", key -> {
+                throw new IllegalStateException("unavailable");
+            });
+            fail("Expected the load failure to be propagated");
+        } catch (IllegalStateException e) {
+            assertEquals("unavailable", e.getMessage());
+        }
+
+        assertEquals("value", cache.get("key", key -> "value"));
+    }
+
+    private void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.backbase.accelerators.payment.calendar;
+
+import com.backbase.payments.scheduled.v1.service.model.ValidateExecutionDateResponse;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.backbase.payments.scheduled.v1.service.model.ValidateExecutionDateResponse.StatusEnum.OK;
+import static com.backbase.payments.scheduled.v1.service.model.ValidateExecutionDateResponse.StatusEnum.RESTRICTED_DATE_DETECTED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BusinessCalendarTest {
+
+    private final Clock clock = Clock.fixed(Instant.parse("2024-03-04T10:00:00Z"), ZoneOffset.UTC);
+    private final LocalDate today = LocalDate.now(clock);
+
+    @Test
+    public void should_return_ok_for_available_date() {
+        BusinessCalendar businessCalendar = loadedCalendar(Set.of(today.plusDays(3)));
+
+        ValidateExecutionDateResponse response = businessCalendar.resolve(today.plusDays(2)).orElseThrow();
+
+        assertEquals(OK, response.getStatus());
+        assertEquals(today.plusDays(2), response.getOriginalExecutionDate());
+    }
+
+    @Test
+    public void should_return_nearest_available_dates_for_restricted_date() {
+        BusinessCalendar businessCalendar = loadedCalendar(Set.of(today.plusDays(4), today.plusDays(5), today.plusDays(6)));
+
+        ValidateExecutionDateResponse response = businessCalendar.resolve(today.plusDays(5)).orElseThrow();
+
+        assertEquals(RESTRICTED_DATE_DETECTED, response.getStatus());
+        assertEquals(today.plusDays(5), response.getOriginalExecutionDate());
+        assertEquals(today.plusDays(3), response.getNextAvailableExecutionDateBefore());
+        assertEquals(today.plusDays(7), response.getNextAvailableExecutionDateAfter());
+    }
+
+    @Test
+    public void should_not_resolve_dates_outside_the_window() {
+        BusinessCalendar businessCalendar = loadedCalendar(Set.of());
+
+        assertFalse(businessCalendar.resolve(today.plusDays(30)).isPresent());
+        assertFalse(businessCalendar.resolve(today.minusDays(1)).isPresent());
+    }
+
+    @Test
+    public void should_not_resolve_before_the_calendar_is_loaded() {
+        BusinessCalendar businessCalendar = new BusinessCalendar((from, to) -> Set.of(), 30, clock);
+
+        assertFalse(businessCalendar.resolve(today).isPresent());
+    }
+
+    @Test
+    public void should_keep_previous_window_when_refresh_fails() {
+        BusinessCalendar businessCalendar = new BusinessCalendar(new FailingAfterFirstLoad(), 10, clock);
+        businessCalendar.refresh();
+        businessCalendar.refresh();
+
+        Optional<ValidateExecutionDateResponse> response = businessCalendar.resolve(today.plusDays(1));
+        assertTrue(response.isPresent());
+    }
+
+    private BusinessCalendar loadedCalendar(Set<LocalDate> restrictedDates) {
+        BusinessCalendar businessCalendar = new BusinessCalendar((from, to) -> restrictedDates, 10, clock);
+        businessCalendar.refresh();
+
+        return businessCalendar;
+    }
+
+    private static class FailingAfterFirstLoad implements RestrictedDateSource {
+
+        private boolean loaded;
+
+        @Override
+        public Set<LocalDate> getRestrictedDates(LocalDate from, LocalDate to) {
+            if (loaded) {
+                throw new IllegalStateException("scheduled payment order service unavailable");
+            }
+            loaded = true;
+            return Set.of();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.backbase.accelerators.payment.client;
+
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import com.backbase.accelerators.payment.exception.RetryablePaymentOrderException;
+import com.backbase.accelerators.payment.limiter.AdaptiveConcurrencyLimiter;
+import com.backbase.accelerators.payment.limiter.RateLimiterRegistry;
+import com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics;
+import com.backbase.accelerators.payment.resilience.CircuitBreaker;
+import com.backbase.payments.v2.outbound.api.PaymentOrderIntegrationOutboundApi;
+import com.backbase.payments.v2.outbound.model.PaymentOrdersPostRequestBody;
+import com.backbase.payments.v2.outbound.model.PaymentOrdersPostResponseBody;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PaymentOrderOutboundClientTest {
+
+    @Mock
+    private PaymentOrderIntegrationOutboundApi paymentOrderIntegrationOutboundApi;
+
+    @Mock
+    private ObjectProvider<AsyncPaymentOrderIntegrationOutboundApi> asyncPaymentOrderIntegrationOutboundApi;
+
+    @Mock
+    private AsyncPaymentOrderIntegrationOutboundApi asyncApi;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+    private CircuitBreaker circuitBreaker;
+    private PaymentOrderOutboundClient paymentOrderOutboundClient;
+
+    @Before
+    public void setUp() {
+        PaymentSchedulerProperties paymentSchedulerProperties = new PaymentSchedulerProperties();
+        paymentSchedulerProperties.setRetryErrorCodes(List.of("COCC-101"));
+        paymentSchedulerProperties.setRetryExceptionClasses(List.of(IllegalStateException.class.getName()));
+        paymentSchedulerProperties.setRetryMaxAttempts(3);
+        paymentSchedulerProperties.setRetryBackoffDelayMillis(10);
+
+        circuitBreaker = new CircuitBreaker("test", 3, Duration.ofMinutes(1), 1, meterRegistry);
+        paymentOrderOutboundClient = new PaymentOrderOutboundClient(
+                paymentOrderIntegrationOutboundApi,
+                paymentSchedulerProperties,
+                AdaptiveConcurrencyLimiter.unlimited("test", meterRegistry),
+                new RateLimiterRegistry(Map.of(), meterRegistry),
+                circuitBreaker,
+                new PaymentSchedulerMetrics(meterRegistry),
+                executorService,
+                asyncPaymentOrderIntegrationOutboundApi);
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void should_retry_retryable_rejection_until_accepted() {
+        when(paymentOrderIntegrationOutboundApi.postPaymentOrders(any()))
+                .thenReturn(new PaymentOrdersPostResponseBody().bankStatus("REJECTED").reasonCode("COCC-101"))
+                .thenReturn(new PaymentOrdersPostResponseBody().bankStatus("ACCEPTED"));
+
+        PaymentOrdersPostResponseBody response = paymentOrderOutboundClient.sendToPaymentOrderOutboundService(request()).join();
+
+        assertEquals("ACCEPTED", response.getBankStatus());
+        verify(paymentOrderIntegrationOutboundApi, times(2)).postPaymentOrders(any());
+    }
+
+    @Test
+    public void should_time_each_submission_and_count_retries_by_payment_type() {
+        when(paymentOrderIntegrationOutboundApi.postPaymentOrders(any()))
+                .thenReturn(new PaymentOrdersPostResponseBody().bankStatus("REJECTED").reasonCode("COCC-101"))
+                .thenReturn(new PaymentOrdersPostResponseBody().bankStatus("ACCEPTED"));
+
+        paymentOrderOutboundClient.sendToPaymentOrderOutboundService(request()).join();
+
+        assertEquals(1, meterRegistry.get("payment.scheduler.outbound.submit")
+                .tags("paymentType", "ACH_DEBIT", "outcome", "rejected").timer().count());
+        assertEquals(1, meterRegistry.get("payment.scheduler.outbound.submit")
+                .tags("paymentType", "ACH_DEBIT", "outcome", "success").timer().count());
+        assertEquals(1.0, meterRegistry.get("payment.scheduler.orders.retried")
+                .tag("paymentType", "ACH_DEBIT").counter().count(), 0.0);
+    }
+
+    @Test
+    public void should_recover_after_max_attempts() {
+        when(paymentOrderIntegrationOutboundApi.postPaymentOrders(any()))
+                .thenThrow(new IllegalStateException("core unavailable"));
+
+        PaymentOrdersPostResponseBody response = paymentOrderOutboundClient.sendToPaymentOrderOutboundService(request()).join();
+
+        assertEquals("REJECTED", response.getBankStatus());
+        assertEquals("Could not process scheduled payment", response.getReasonText());
+        verify(paymentOrderIntegrationOutboundApi, times(3)).postPaymentOrders(any());
+    }
+
+    @Test
+    public void should_fail_fast_while_circuit_is_open() {
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+
+        PaymentOrdersPostResponseBody response = paymentOrderOutboundClient.sendToPaymentOrderOutboundService(request()).join();
+
+        assertEquals("REJECTED", response.getBankStatus());
+        verify(paymentOrderIntegrationOutboundApi, times(0)).postPaymentOrders(any());
+    }
+
+    @Test
+    public void should_not_retry_other_exceptions() {
+        when(paymentOrderIntegrationOutboundApi.postPaymentOrders(any()))
+                .thenThrow(new IllegalArgumentException("bad request"));
+
+        PaymentOrdersPostResponseBody response = paymentOrderOutboundClient.sendToPaymentOrderOutboundService(request()).join();
+
+        assertEquals("REJECTED", response.getBankStatus());
+        assertEquals("bad request", response.getErrorDescription());
+        verify(paymentOrderIntegrationOutboundApi, times(1)).postPaymentOrders(any());
+    }
+
+    @Test
+    public void should_not_open_circuit_on_non_retryable_exceptions() {
+        when(paymentOrderIntegrationOutboundApi.postPaymentOrders(any()))
+                .thenThrow(new IllegalArgumentException("bad request"));
+
+        for (int i = 0; i < 5; i++) {
+            paymentOrderOutboundClient.sendToPaymentOrderOutboundService(request()).join();
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        verify(paymentOrderIntegrationOutboundApi, times(5)).postPaymentOrders(any());
+    }
+
+    @Test
+    public void should_open_circuit_on_transport_failures() {
+        when(paymentOrderIntegrationOutboundApi.postPaymentOrders(any()))
+                .thenThrow(new ResourceAccessException("connection refused"));
+
+        for (int i = 0; i < 3; i++) {
+            paymentOrderOutboundClient.sendToPaymentOrderOutboundService(request()).join();
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void should_fail_submit_once_with_retryable_exception_instead_of_retrying() {
+        when(paymentOrderIntegrationOutboundApi.postPaymentOrders(any()))
+                .thenReturn(new PaymentOrdersPostResponseBody().bankStatus("REJECTED").reasonCode("COCC-101"));
+
+        try {
+            paymentOrderOutboundClient.submitOnce(request()).join();
+            fail("Expected a retryable failure");
+        } catch (CompletionException e) {
+            assertTrue(e.getCause() instanceof RetryablePaymentOrderException);
+        }
+
+        verify(paymentOrderIntegrationOutboundApi, times(1)).postPaymentOrders(any());
+    }
+
+    @Test
+    public void should_recover_failed_non_blocking_submission() {
+        when(asyncPaymentOrderIntegrationOutboundApi.getIfAvailable()).thenReturn(asyncApi);
+        when(asyncApi.postPaymentOrders(any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("no response")));
+
+        PaymentOrdersPostResponseBody response = paymentOrderOutboundClient.sendToPaymentOrderOutboundService(request()).join();
+
+        assertEquals("REJECTED", response.getBankStatus());
+        verify(asyncApi, times(3)).postPaymentOrders(any());
+        verify(paymentOrderIntegrationOutboundApi, times(0)).postPaymentOrders(any());
+        assertEquals(3, meterRegistry.get("payment.scheduler.outbound.submit")
+                .tags("paymentType", "ACH_DEBIT", "outcome", "error").timer().count());
+    }
+
+    private PaymentOrdersPostRequestBody request() {
+        PaymentOrdersPostRequestBody request = new PaymentOrdersPostRequestBody();
+        request.setId("1");
+        request.setPaymentType("ACH_DEBIT");
+
+        return request;
+    }
+}
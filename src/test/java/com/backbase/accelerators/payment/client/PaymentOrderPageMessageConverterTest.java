@@ -0,0 +1,98 @@
+package com.backbase.accelerators.payment.client;
+
+import com.backbase.accelerators.payment.model.PaymentOrderPage;
+import com.backbase.payments.v2.service.model.GetPaymentOrderResponse;
+import com.backbase.payments.v2.service.model.PaymentOrderPostFilterResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PaymentOrderPageMessageConverterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final PaymentOrderPageMessageConverter converter = new PaymentOrderPageMessageConverter(objectMapper);
+
+    @Test
+    public void should_only_read_pages_of_payment_orders() {
+        assertTrue(converter.canRead(PaymentOrderPostFilterResponse.class, null, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canRead(GetPaymentOrderResponse.class, null, MediaType.APPLICATION_JSON));
+        assertFalse(converter.canWrite(PaymentOrderPostFilterResponse.class, null, MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    public void should_keep_every_payment_order_without_filter() throws Exception {
+        PaymentOrderPostFilterResponse page = read(page(5, 12));
+
+        assertEquals(new BigDecimal(12), page.getTotalElements());
+        assertEquals(5, page.getPaymentOrders().size());
+    }
+
+    @Test
+    public void should_discard_payment_orders_while_reading() throws Exception {
+        byte[] body = page(5, 5);
+
+        PaymentOrderPage page = PaymentOrderPageMessageConverter.filtering(
+                paymentOrder -> Integer.parseInt(paymentOrder.getId()) % 2 == 0,
+                () -> read(body));
+
+        assertEquals(List.of("2", "4"), page.getPaymentOrders().stream()
+                .map(GetPaymentOrderResponse::getId)
+                .collect(Collectors.toList()));
+        assertEquals(5, page.getFetchedCount());
+        assertEquals(new BigDecimal(5), page.getTotalElements());
+    }
+
+    @Test
+    public void should_report_fetched_count_when_every_payment_order_is_discarded() throws Exception {
+        byte[] body = page(5, 5);
+
+        PaymentOrderPage page = PaymentOrderPageMessageConverter.filtering(paymentOrder -> false, () -> read(body));
+
+        assertTrue(page.getPaymentOrders().isEmpty());
+        assertEquals(5, page.getFetchedCount());
+    }
+
+    @Test
+    public void should_count_every_payment_order_of_a_page_it_did_not_read() {
+        PaymentOrderPostFilterResponse response = new PaymentOrderPostFilterResponse()
+                .totalElements(new BigDecimal(2))
+                .paymentOrders(List.of(new GetPaymentOrderResponse().id("1"), new GetPaymentOrderResponse().id("2")));
+
+        PaymentOrderPage page = PaymentOrderPageMessageConverter.filtering(paymentOrder -> false, () -> response);
+
+        assertEquals(2, page.getPaymentOrders().size());
+        assertEquals(2, page.getFetchedCount());
+    }
+
+    private PaymentOrderPostFilterResponse read(byte[] body) {
+        MockHttpInputMessage inputMessage = new MockHttpInputMessage(body);
+        inputMessage.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+
+        try {
+            return (PaymentOrderPostFilterResponse) converter.read(PaymentOrderPostFilterResponse.class, null, inputMessage);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private byte[] page(int numberOfElements, int totalElements) throws Exception {
+        List<GetPaymentOrderResponse> paymentOrders = new ArrayList<>();
+        for (int i = 0; i < numberOfElements; i++) {
+            paymentOrders.add(new GetPaymentOrderResponse().id(String.valueOf(i + 1)).paymentType("ACH_DEBIT"));
+        }
+
+        return objectMapper.writeValueAsBytes(new PaymentOrderPostFilterResponse()
+                .totalElements(new BigDecimal(totalElements))
+                .paymentOrders(paymentOrders));
+    }
+}
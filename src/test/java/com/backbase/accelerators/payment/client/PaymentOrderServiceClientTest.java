@@ -1,7 +1,9 @@
 package com.backbase.accelerators.payment.client;
 
 import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics;
 import com.backbase.accelerators.payment.model.PaymentOrderExecutionResponse;
+import com.backbase.accelerators.payment.model.PaymentOrderPage;
 import com.backbase.accelerators.payment.model.ScheduledPaymentOrder;
 import com.backbase.payments.scheduled.v1.service.model.ValidateExecutionDateResponse;
 import com.backbase.payments.v2.outbound.model.PaymentOrderPutResponseBody;
@@ -15,11 +17,13 @@ import com.backbase.payments.v2.service.model.PaymentOrderPutRequest;
 import com.backbase.payments.v2.service.model.PaymentOrderPutResponse;
 import com.backbase.payments.v2.service.model.SimpleSchedule;
 import com.backbase.payments.v2.service.model.SimpleTransaction;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Answers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import java.math.BigDecimal;
@@ -39,6 +43,7 @@ import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -54,6 +59,11 @@ public class PaymentOrderServiceClientTest {
     @Mock(answer = Answers.RETURNS_DEEP_STUBS)
     private PaymentSchedulerProperties paymentSchedulerProperties;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private PaymentSchedulerMetrics paymentSchedulerMetrics = new PaymentSchedulerMetrics(meterRegistry);
+
     @InjectMocks
     private PaymentOrderServiceClient paymentOrderServiceClient;
 
@@ -83,11 +93,12 @@ public class PaymentOrderServiceClientTest {
                 any(PaymentOrderPostFilterRequest.class)))
                 .thenReturn(paymentOrderPostFilterResponse(1));
 
-        PaymentOrderPostFilterResponse result = paymentOrderServiceClient.getScheduledPaymentOrders(0, 100);
+        PaymentOrderPage result = paymentOrderServiceClient.getScheduledPaymentOrders(0, 100);
         List<GetPaymentOrderResponse> getPaymentOrderResponse = result.getPaymentOrders();
 
         assertEquals(1, result.getTotalElements().intValue());
         assertEquals(1, getPaymentOrderResponse.size());
+        assertEquals(1, result.getFetchedCount());
 
         assertEquals("1", getPaymentOrderResponse.get(0).getId());
         assertEquals(RECURRING, getPaymentOrderResponse.get(0).getPaymentMode());
@@ -95,6 +106,116 @@ public class PaymentOrderServiceClientTest {
         assertEquals(MONTHLY, getPaymentOrderResponse.get(0).getSchedule().getTransferFrequency());
         assertEquals(NONE, getPaymentOrderResponse.get(0).getSchedule().getNonWorkingDayExecutionStrategy());
         assertEquals(_1, getPaymentOrderResponse.get(0).getSchedule().getEvery());
+        assertEquals(1, meterRegistry.get("payment.scheduler.payment-orders.fetch").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    public void should_request_orders_due_on_business_date_by_next_execution_date() {
+        LocalDate businessDate = LocalDate.parse("2022-11-14");
+        stubPostFilterPaymentOrders();
+
+        paymentOrderServiceClient.getDuePaymentOrders(PaymentOrderServiceClient.DueDate.NEXT_EXECUTION_DATE, businessDate, 0, 100);
+
+        verify(paymentOrdersApi).postFilterPaymentOrders(
+                isNull(),
+                isNull(),
+                isNull(),
+                isNull(),
+                isNull(),
+                eq(businessDate),
+                eq(businessDate),
+                isNull(),
+                eq(RECURRING.getValue()),
+                isNull(),
+                isNull(),
+                eq(businessDate),
+                isNull(),
+                eq(0),
+                eq(100),
+                isNull(),
+                isNull(),
+                any(PaymentOrderPostFilterRequest.class));
+    }
+
+    @Test
+    public void should_request_orders_starting_on_business_date_by_start_date() {
+        LocalDate businessDate = LocalDate.parse("2022-11-14");
+        stubPostFilterPaymentOrders();
+
+        // The order starts on the business date, but its next execution date is not set yet.
+        PaymentOrderPage result = paymentOrderServiceClient.getDuePaymentOrders(
+                PaymentOrderServiceClient.DueDate.START_DATE, businessDate, 0, 100);
+
+        assertEquals(businessDate, result.getPaymentOrders().get(0).getSchedule().getStartDate());
+        verify(paymentOrdersApi).postFilterPaymentOrders(
+                isNull(),
+                isNull(),
+                isNull(),
+                isNull(),
+                isNull(),
+                isNull(),
+                isNull(),
+                isNull(),
+                eq(RECURRING.getValue()),
+                eq(businessDate),
+                eq(businessDate),
+                eq(businessDate),
+                isNull(),
+                eq(0),
+                eq(100),
+                isNull(),
+                isNull(),
+                any(PaymentOrderPostFilterRequest.class));
+    }
+
+    @Test
+    public void should_not_filter_on_dates_when_fetching_all_scheduled_payment_orders() {
+        stubPostFilterPaymentOrders();
+
+        paymentOrderServiceClient.getScheduledPaymentOrders(0, 100);
+
+        verify(paymentOrdersApi).postFilterPaymentOrders(
+                isNull(),
+                isNull(),
+                isNull(),
+                isNull(),
+                isNull(),
+                isNull(),
+                isNull(),
+                isNull(),
+                eq(RECURRING.getValue()),
+                isNull(),
+                isNull(),
+                isNull(),
+                isNull(),
+                eq(0),
+                eq(100),
+                isNull(),
+                isNull(),
+                any(PaymentOrderPostFilterRequest.class));
+    }
+
+    private void stubPostFilterPaymentOrders() {
+        when(paymentOrdersApi.postFilterPaymentOrders(
+                any(),
+                any(),
+                any(),
+                any(),
+                any(),
+                any(),
+                any(),
+                any(),
+                any(),
+                any(),
+                any(),
+                any(),
+                any(),
+                anyInt(),
+                anyInt(),
+                any(),
+                any(),
+                any(PaymentOrderPostFilterRequest.class)))
+                .thenReturn(paymentOrderPostFilterResponse(1));
     }
 
     @Test
@@ -169,6 +290,7 @@ public class PaymentOrderServiceClientTest {
         PaymentOrderExecutionResponse paymentOrderExecutionResponse = new PaymentOrderExecutionResponse();
         paymentOrderExecutionResponse.setOriginalScheduledPaymentOrder(scheduledPaymentOrder);
         paymentOrderExecutionResponse.setPaymentOrdersPostResponseBody(paymentOrdersPostResponseBody);
+        paymentOrderExecutionResponse.setBusinessDate(LocalDate.now());
 
         return paymentOrderExecutionResponse;
     }
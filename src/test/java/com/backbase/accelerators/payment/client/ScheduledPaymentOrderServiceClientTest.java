@@ -1,6 +1,7 @@
 package com.backbase.accelerators.payment.client;
 
 import com.backbase.accelerators.payment.mapper.PaymentOrderMapper;
+import com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics;
 import com.backbase.accelerators.payment.model.PaymentOrderExecutionResponse;
 import com.backbase.accelerators.payment.model.ScheduledPaymentOrder;
 import com.backbase.payments.scheduled.v1.service.api.ScheduledPaymentOrderApi;
@@ -8,6 +9,7 @@ import com.backbase.payments.scheduled.v1.service.model.PostScheduledPaymentOrde
 import com.backbase.payments.v2.outbound.model.PaymentOrderPutResponseBody;
 import com.backbase.payments.v2.outbound.model.PaymentOrdersPostResponseBody;
 import com.backbase.payments.v2.service.model.SimpleSchedule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.InjectMocks;
@@ -31,6 +33,9 @@ public class ScheduledPaymentOrderServiceClientTest {
     @Spy
     private PaymentOrderMapper paymentOrderMapper;
 
+    @Spy
+    private PaymentSchedulerMetrics paymentSchedulerMetrics = new PaymentSchedulerMetrics(new SimpleMeterRegistry());
+
     @InjectMocks
     private ScheduledPaymentOrderServiceClient scheduledPaymentOrderServiceClient;
 
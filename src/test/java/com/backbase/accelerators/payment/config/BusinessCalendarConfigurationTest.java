@@ -0,0 +1,42 @@
+package com.backbase.accelerators.payment.config;
+
+import com.backbase.accelerators.payment.calendar.BusinessCalendar;
+import com.backbase.payments.scheduled.v1.service.api.ScheduledPaymentOrderApi;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+import static org.junit.Assert.assertTrue;
+
+@RunWith(MockitoJUnitRunner.class)
+public class BusinessCalendarConfigurationTest {
+
+    @Mock
+    private ScheduledPaymentOrderApi scheduledPaymentOrderApi;
+
+    @Test
+    public void should_not_create_restricted_date_source_when_calendar_is_disabled() {
+        BusinessCalendar businessCalendar = new BusinessCalendarConfiguration()
+                .businessCalendar(properties(false), scheduledPaymentOrderApi, Clock.systemUTC());
+
+        assertTrue(businessCalendar.resolve(LocalDate.now()).isEmpty());
+        businessCalendar.stop();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void should_require_file_when_enabled_calendar_reads_from_file() {
+        new BusinessCalendarConfiguration().businessCalendar(properties(true), scheduledPaymentOrderApi, Clock.systemUTC());
+    }
+
+    private PaymentSchedulerProperties properties(boolean enabled) {
+        PaymentSchedulerProperties paymentSchedulerProperties = new PaymentSchedulerProperties();
+        paymentSchedulerProperties.getBusinessCalendar().setEnabled(enabled);
+        paymentSchedulerProperties.getBusinessCalendar().setSource(PaymentSchedulerProperties.RestrictedDateSourceType.FILE);
+
+        return paymentSchedulerProperties;
+    }
+}
@@ -0,0 +1,51 @@
+package com.backbase.accelerators.payment.config;
+
+import com.backbase.accelerators.payment.client.PaymentOrderPageMessageConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class PaymentOrderServiceApiConfigurationTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    public void should_leave_shared_rest_template_untouched_when_streaming() {
+        RestTemplate restTemplate = new RestTemplate();
+        List<HttpMessageConverter<?>> messageConverters = new ArrayList<>(restTemplate.getMessageConverters());
+        PaymentSchedulerProperties.IteratorProperties iteratorProperties = new PaymentSchedulerProperties.IteratorProperties();
+        iteratorProperties.setStreamingEnabled(true);
+        PaymentSchedulerProperties paymentSchedulerProperties = new PaymentSchedulerProperties();
+        paymentSchedulerProperties.setIteratorProperties(iteratorProperties);
+
+        new PaymentOrderServiceApiConfiguration().paymentOrderApi(restTemplate, paymentSchedulerProperties, objectMapper);
+
+        assertEquals(messageConverters, restTemplate.getMessageConverters());
+    }
+
+    @Test
+    public void should_stream_pages_through_the_shared_interceptors() {
+        ClientHttpRequestInterceptor interceptor = (request, body, execution) -> execution.execute(request, body);
+        RestTemplate restTemplate = new RestTemplate();
+        restTemplate.getInterceptors().add(interceptor);
+
+        RestTemplate streamingRestTemplate =
+                PaymentOrderServiceApiConfiguration.streamingRestTemplate(restTemplate, objectMapper);
+
+        assertTrue(streamingRestTemplate.getMessageConverters().get(0) instanceof PaymentOrderPageMessageConverter);
+        assertEquals(
+                restTemplate.getMessageConverters().size() + 1,
+                streamingRestTemplate.getMessageConverters().size());
+        assertSame(restTemplate.getRequestFactory(), streamingRestTemplate.getRequestFactory());
+        assertSame(restTemplate.getErrorHandler(), streamingRestTemplate.getErrorHandler());
+    }
+}
@@ -0,0 +1,89 @@
+package com.backbase.accelerators.payment.eligibility;
+
+import com.backbase.accelerators.payment.model.ScheduledPaymentOrder;
+import com.backbase.accelerators.payment.run.RunContext;
+import com.backbase.payments.v2.service.model.SimpleSchedule;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.backbase.accelerators.payment.constants.DataModelAdditions.EXECUTION_COUNT;
+import static org.junit.Assert.assertEquals;
+
+public class EligibilityEvaluatorTest {
+
+    private static final LocalDate BUSINESS_DATE = LocalDate.of(2022, 6, 15);
+
+    private final EligibilityEvaluator eligibilityEvaluator = new EligibilityEvaluator(BUSINESS_DATE);
+
+    @Test
+    public void should_be_due_on_next_execution_date_or_start_date() {
+        assertEquals(Eligibility.DUE, eligibilityEvaluator.evaluate(
+                paymentOrder(BUSINESS_DATE.minusMonths(1), BUSINESS_DATE, null, null, null)));
+        assertEquals(Eligibility.DUE, eligibilityEvaluator.evaluate(
+                paymentOrder(BUSINESS_DATE, null, null, null, null)));
+    }
+
+    @Test
+    public void should_not_be_due_on_other_dates() {
+        assertEquals(Eligibility.NOT_SCHEDULED_FOR_TODAY, eligibilityEvaluator.evaluate(
+                paymentOrder(BUSINESS_DATE.minusMonths(1), BUSINESS_DATE.plusDays(1), null, null, null)));
+        assertEquals(Eligibility.NOT_SCHEDULED_FOR_TODAY, eligibilityEvaluator.evaluate(new ScheduledPaymentOrder()));
+    }
+
+    @Test
+    public void should_not_be_due_after_end_date() {
+        assertEquals(Eligibility.END_DATE_IN_THE_PAST, eligibilityEvaluator.evaluate(
+                paymentOrder(BUSINESS_DATE.minusMonths(1), BUSINESS_DATE, BUSINESS_DATE.minusDays(1), null, null)));
+        assertEquals(Eligibility.DUE, eligibilityEvaluator.evaluate(
+                paymentOrder(BUSINESS_DATE.minusMonths(1), BUSINESS_DATE, BUSINESS_DATE, null, null)));
+        assertEquals(Eligibility.DUE, eligibilityEvaluator.evaluate(
+                paymentOrder(BUSINESS_DATE.minusMonths(1), BUSINESS_DATE, BUSINESS_DATE.plusDays(1), null, null)));
+    }
+
+    @Test
+    public void should_not_be_due_once_repeat_count_is_met() {
+        assertEquals(Eligibility.REPEAT_COUNT_MET, eligibilityEvaluator.evaluate(
+                paymentOrder(BUSINESS_DATE.minusMonths(1), BUSINESS_DATE, null, 3, "3")));
+        assertEquals(Eligibility.DUE, eligibilityEvaluator.evaluate(
+                paymentOrder(BUSINESS_DATE.minusMonths(1), BUSINESS_DATE, null, 3, "2")));
+        assertEquals(Eligibility.DUE, eligibilityEvaluator.evaluate(
+                paymentOrder(BUSINESS_DATE.minusMonths(1), BUSINESS_DATE, null, 3, null)));
+    }
+
+    @Test
+    public void should_keep_business_date_of_run_start() {
+        Clock clock = Clock.fixed(Instant.parse("2022-06-15T23:59:59Z"), ZoneOffset.UTC);
+        RunContext runContext = RunContext.start(clock);
+
+        assertEquals(BUSINESS_DATE, runContext.getBusinessDate());
+        assertEquals(Eligibility.DUE, runContext.getEligibilityEvaluator().evaluate(
+                paymentOrder(BUSINESS_DATE.minusMonths(1), BUSINESS_DATE, null, null, null)));
+    }
+
+    private ScheduledPaymentOrder paymentOrder(
+            LocalDate startDate, LocalDate nextExecutionDate, LocalDate endDate, Integer repeat, String executionCount) {
+        SimpleSchedule schedule = new SimpleSchedule();
+        schedule.setStartDate(startDate);
+        schedule.setNextExecutionDate(nextExecutionDate);
+        schedule.setEndDate(endDate);
+        schedule.setRepeat(repeat);
+
+        Map<String, String> additions = new HashMap<>();
+        if (executionCount != null) {
+            additions.put(EXECUTION_COUNT.getValue(), executionCount);
+        }
+
+        ScheduledPaymentOrder scheduledPaymentOrder = new ScheduledPaymentOrder();
+        scheduledPaymentOrder.setId("1");
+        scheduledPaymentOrder.setSchedule(schedule);
+        scheduledPaymentOrder.setAdditions(additions);
+
+        return scheduledPaymentOrder;
+    }
+}
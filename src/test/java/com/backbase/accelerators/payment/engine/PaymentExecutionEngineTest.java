@@ -0,0 +1,118 @@
+package com.backbase.accelerators.payment.engine;
+
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class PaymentExecutionEngineTest {
+
+    private final ExecutorService executorService = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void should_never_have_more_calls_awaiting_a_response_than_max_concurrency() {
+        // The cached pool has no bound of its own, like the virtual thread executor.
+        PaymentExecutionEngine paymentExecutionEngine = new PaymentExecutionEngine(executorService, properties(4));
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+
+        try {
+            paymentExecutionEngine.executeAllAsync(items(50), item -> {
+                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                CompletableFuture<Integer> response = new CompletableFuture<>();
+                timer.schedule(() -> {
+                    inFlight.decrementAndGet();
+                    if (item == 3) {
+                        response.completeExceptionally(new IllegalStateException("boom"));
+                    } else {
+                        response.complete(item);
+                    }
+                }, 5, TimeUnit.MILLISECONDS);
+
+                return response;
+            }, result -> completed.incrementAndGet());
+        } finally {
+            timer.shutdownNow();
+        }
+
+        assertEquals(49, completed.get());
+        assertTrue(maxInFlight.get() <= 4);
+    }
+
+    @Test
+    public void should_continue_processing_when_a_completion_fails() {
+        PaymentExecutionEngine paymentExecutionEngine = new PaymentExecutionEngine(executorService, properties(2));
+        AtomicInteger processed = new AtomicInteger();
+
+        paymentExecutionEngine.executeAllAsync(items(10), CompletableFuture::completedFuture, item -> {
+            if (item == 3) {
+                throw new IllegalStateException("boom");
+            }
+            processed.incrementAndGet();
+        });
+
+        assertEquals(9, processed.get());
+    }
+
+    @Test
+    public void should_bound_payments_awaiting_their_completion_by_max_in_flight_requests() {
+        PaymentSchedulerProperties paymentSchedulerProperties = properties(8);
+        paymentSchedulerProperties.getExecution().setMaxInFlightRequests(10);
+        PaymentExecutionEngine paymentExecutionEngine = new PaymentExecutionEngine(executorService, paymentSchedulerProperties);
+
+        AtomicInteger unrecorded = new AtomicInteger();
+        AtomicInteger maxUnrecorded = new AtomicInteger();
+        AtomicInteger recorded = new AtomicInteger();
+
+        paymentExecutionEngine.executeAllAsync(items(50), item -> {
+            maxUnrecorded.accumulateAndGet(unrecorded.incrementAndGet(), Math::max);
+            return CompletableFuture.completedFuture(item);
+        }, result -> {
+            sleep(5);
+            unrecorded.decrementAndGet();
+            recorded.incrementAndGet();
+        });
+
+        assertEquals(50, recorded.get());
+        assertTrue(maxUnrecorded.get() <= 10);
+    }
+
+    private PaymentSchedulerProperties properties(int maxConcurrency) {
+        PaymentSchedulerProperties paymentSchedulerProperties = new PaymentSchedulerProperties();
+        paymentSchedulerProperties.getExecution().setMaxConcurrency(maxConcurrency);
+
+        return paymentSchedulerProperties;
+    }
+
+    private List<Integer> items(int numberOfItems) {
+        return IntStream.range(0, numberOfItems).boxed().collect(Collectors.toList());
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
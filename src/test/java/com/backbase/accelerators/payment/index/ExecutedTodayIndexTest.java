@@ -0,0 +1,96 @@
+package com.backbase.accelerators.payment.index;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ExecutedTodayIndexTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void should_add_each_payment_order_once() {
+        ExecutedTodayIndex index = new ExecutedTodayIndex(Clock.systemUTC(), 16, meterRegistry);
+
+        assertTrue(index.add("payment-order-1"));
+        assertFalse(index.add("payment-order-1"));
+        assertTrue(index.contains("payment-order-1"));
+        assertFalse(index.contains("payment-order-2"));
+    }
+
+    @Test
+    public void should_grow_beyond_expected_orders() {
+        ExecutedTodayIndex index = new ExecutedTodayIndex(Clock.systemUTC(), 16, meterRegistry);
+
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(index.add("payment-order-" + i));
+        }
+
+        assertEquals(100_000, index.size());
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(index.contains("payment-order-" + i));
+        }
+        assertFalse(index.contains("payment-order-100000"));
+    }
+
+    @Test
+    public void should_keep_other_orders_findable_after_remove() {
+        ExecutedTodayIndex index = new ExecutedTodayIndex(Clock.systemUTC(), 16, meterRegistry);
+        for (int i = 0; i < 1000; i++) {
+            index.add("payment-order-" + i);
+        }
+
+        for (int i = 0; i < 1000; i += 2) {
+            index.remove("payment-order-" + i);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i % 2 == 1, index.contains("payment-order-" + i));
+        }
+        assertEquals(500, index.size());
+    }
+
+    @Test
+    public void should_clear_when_day_rolls_over() {
+        MutableClock clock = new MutableClock(Instant.parse("2022-06-01T23:59:00Z"));
+        ExecutedTodayIndex index = new ExecutedTodayIndex(clock, 16, meterRegistry);
+        index.add("payment-order-1");
+
+        clock.now = Instant.parse("2022-06-02T00:01:00Z");
+
+        assertFalse(index.contains("payment-order-1"));
+        assertEquals(0, index.size());
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
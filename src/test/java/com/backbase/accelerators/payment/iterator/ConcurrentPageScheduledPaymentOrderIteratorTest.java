@@ -0,0 +1,84 @@
+package com.backbase.accelerators.payment.iterator;
+
+import com.backbase.accelerators.payment.client.PaymentOrderServiceClient;
+import com.backbase.accelerators.payment.model.PaymentOrderPage;
+import com.backbase.payments.v2.service.model.GetPaymentOrderResponse;
+import com.backbase.payments.v2.service.model.PaymentOrderPostFilterResponse;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ConcurrentPageScheduledPaymentOrderIteratorTest {
+
+    private static final int TOTAL_ELEMENTS = 23;
+    private static final int PAGE_SIZE = 5;
+
+    @Mock
+    private PaymentOrderServiceClient paymentOrderServiceClient;
+
+    @Test
+    public void should_fetch_all_remaining_pages_once_total_is_known() {
+        when(paymentOrderServiceClient.getScheduledPaymentOrders(anyInt(), eq(PAGE_SIZE)))
+                .thenAnswer(invocation -> page(invocation.getArgument(0)));
+
+        List<GetPaymentOrderResponse> getPaymentOrderResponseList = new ArrayList<>();
+        try (PaymentOrderPageIterator iterator = new ConcurrentPageScheduledPaymentOrderIterator(
+                paymentOrderServiceClient, PAGE_SIZE, 3, 2)) {
+
+            while (iterator.hasNext()) {
+                getPaymentOrderResponseList.addAll(iterator.next().getPaymentOrders());
+            }
+        }
+
+        Set<String> ids = getPaymentOrderResponseList.stream()
+                .map(GetPaymentOrderResponse::getId)
+                .collect(Collectors.toSet());
+
+        assertEquals(TOTAL_ELEMENTS, getPaymentOrderResponseList.size());
+        assertEquals(TOTAL_ELEMENTS, ids.size());
+        verify(paymentOrderServiceClient, never()).getScheduledPaymentOrders(eq(5), anyInt());
+    }
+
+    @Test
+    public void should_stop_when_first_page_is_empty() {
+        when(paymentOrderServiceClient.getScheduledPaymentOrders(anyInt(), anyInt()))
+                .thenReturn(PaymentOrderPage.of(new PaymentOrderPostFilterResponse()
+                        .totalElements(new BigDecimal("0"))
+                        .paymentOrders(emptyList())));
+
+        try (PaymentOrderPageIterator iterator = new ConcurrentPageScheduledPaymentOrderIterator(
+                paymentOrderServiceClient, PAGE_SIZE, 3, 2)) {
+
+            assertFalse(iterator.hasNext());
+        }
+    }
+
+    private PaymentOrderPage page(int page) {
+        List<GetPaymentOrderResponse> getPaymentOrderResponseList = new ArrayList<>();
+        for (int i = page * PAGE_SIZE; i < Math.min(TOTAL_ELEMENTS, (page + 1) * PAGE_SIZE); i++) {
+            getPaymentOrderResponseList.add(new GetPaymentOrderResponse().id(String.valueOf(i + 1)));
+        }
+
+        return PaymentOrderPage.of(new PaymentOrderPostFilterResponse()
+                .totalElements(new BigDecimal(TOTAL_ELEMENTS))
+                .paymentOrders(getPaymentOrderResponseList));
+    }
+
+}
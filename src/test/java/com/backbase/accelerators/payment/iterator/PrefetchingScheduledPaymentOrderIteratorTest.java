@@ -0,0 +1,102 @@
+package com.backbase.accelerators.payment.iterator;
+
+import com.backbase.accelerators.payment.client.PaymentOrderServiceClient;
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import com.backbase.accelerators.payment.model.PaymentOrderPage;
+import com.backbase.payments.v2.service.model.GetPaymentOrderResponse;
+import com.backbase.payments.v2.service.model.PaymentOrderPostFilterResponse;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Answers;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PrefetchingScheduledPaymentOrderIteratorTest {
+
+    @Mock
+    private PaymentOrderServiceClient paymentOrderServiceClient;
+
+    @Mock(answer = Answers.RETURNS_DEEP_STUBS)
+    private PaymentSchedulerProperties paymentSchedulerProperties;
+
+    @Test
+    public void should_return_all_pages_in_order() {
+        when(paymentOrderServiceClient.getScheduledPaymentOrders(anyInt(), anyInt()))
+                .thenReturn(paymentOrderPostFilterResponse(0, 5))
+                .thenReturn(paymentOrderPostFilterResponse(5, 5))
+                .thenReturn(paymentOrderPostFilterResponse(10, 2))
+                .thenReturn(paymentOrderPostFilterResponse(0, 0));
+
+        when(paymentSchedulerProperties.getIteratorProperties().getPageSize()).thenReturn(5);
+
+        List<GetPaymentOrderResponse> getPaymentOrderResponseList = new ArrayList<>();
+        try (PaymentOrderPageIterator iterator = prefetchingIterator()) {
+            while (iterator.hasNext()) {
+                getPaymentOrderResponseList.addAll(iterator.next().getPaymentOrders());
+            }
+        }
+
+        assertEquals(12, getPaymentOrderResponseList.size());
+        for (int i = 0; i < getPaymentOrderResponseList.size(); i++) {
+            assertEquals(String.valueOf(i + 1), getPaymentOrderResponseList.get(i).getId());
+        }
+    }
+
+    @Test
+    public void should_propagate_fetch_failure_and_stop() {
+        when(paymentOrderServiceClient.getScheduledPaymentOrders(anyInt(), anyInt()))
+                .thenReturn(paymentOrderPostFilterResponse(0, 5))
+                .thenThrow(new IllegalStateException("payment order service unavailable"));
+
+        when(paymentSchedulerProperties.getIteratorProperties().getPageSize()).thenReturn(5);
+
+        try (PaymentOrderPageIterator iterator = prefetchingIterator()) {
+            assertEquals(5, iterator.next().getPaymentOrders().size());
+
+            try {
+                iterator.next();
+                fail("Expected the fetch failure to be propagated");
+            } catch (IllegalStateException e) {
+                assertEquals("payment order service unavailable", e.getMessage());
+            }
+
+            assertFalse(iterator.hasNext());
+        }
+    }
+
+    private PaymentOrderPageIterator prefetchingIterator() {
+        return new PrefetchingScheduledPaymentOrderIterator(
+                new ScheduledPaymentOrderIterator(paymentOrderServiceClient, paymentSchedulerProperties),
+                2);
+    }
+
+    private PaymentOrderPage paymentOrderPostFilterResponse(int offset, int numberOfElements) {
+        if (numberOfElements == 0) {
+            return PaymentOrderPage.of(new PaymentOrderPostFilterResponse()
+                    .totalElements(new BigDecimal("0"))
+                    .paymentOrders(emptyList()));
+        }
+
+        List<GetPaymentOrderResponse> getPaymentOrderResponseList = new ArrayList<>();
+        for (int i = 0; i < numberOfElements; i++) {
+            getPaymentOrderResponseList.add(new GetPaymentOrderResponse().id(String.valueOf(offset + i + 1)));
+        }
+
+        return PaymentOrderPage.of(new PaymentOrderPostFilterResponse()
+                .totalElements(new BigDecimal(12))
+                .paymentOrders(getPaymentOrderResponseList));
+    }
+
+}
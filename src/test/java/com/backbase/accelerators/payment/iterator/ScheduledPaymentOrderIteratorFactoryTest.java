@@ -0,0 +1,75 @@
+package com.backbase.accelerators.payment.iterator;
+
+import com.backbase.accelerators.payment.client.PaymentOrderServiceClient;
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics;
+import com.backbase.accelerators.payment.model.PaymentOrderPage;
+import com.backbase.accelerators.payment.run.RunContext;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScheduledPaymentOrderIteratorFactoryTest {
+
+    @Mock
+    private PaymentOrderServiceClient paymentOrderServiceClient;
+
+    @Mock
+    private PaymentSchedulerMetrics paymentSchedulerMetrics;
+
+    @Test(expected = IllegalStateException.class)
+    public void should_reject_due_date_filter_outside_snapshot_mode() {
+        new ScheduledPaymentOrderIteratorFactory(
+                paymentOrderServiceClient,
+                properties(PaymentSchedulerProperties.IteratorMode.SEQUENTIAL, true),
+                paymentSchedulerMetrics);
+    }
+
+    @Test
+    public void should_query_both_due_dates_of_the_business_date_in_snapshot_mode() {
+        LocalDate businessDate = LocalDate.parse("2022-11-14");
+        when(paymentOrderServiceClient.getDuePaymentOrders(any(), any(), anyInt(), anyInt()))
+                .thenReturn(PaymentOrderPage.empty());
+        RunContext runContext = RunContext.start(Clock.fixed(Instant.parse("2022-11-14T12:00:00Z"), ZoneOffset.UTC));
+
+        PaymentOrderPageIterator iterator = new ScheduledPaymentOrderIteratorFactory(
+                paymentOrderServiceClient,
+                properties(PaymentSchedulerProperties.IteratorMode.SNAPSHOT, true),
+                paymentSchedulerMetrics)
+                .create(runContext);
+
+        assertTrue(iterator instanceof SnapshotScheduledPaymentOrderIterator);
+        assertFalse(iterator.hasNext());
+
+        verify(paymentOrderServiceClient).getDuePaymentOrders(
+                eq(PaymentOrderServiceClient.DueDate.NEXT_EXECUTION_DATE), eq(businessDate), eq(0), eq(5));
+        verify(paymentOrderServiceClient).getDuePaymentOrders(
+                eq(PaymentOrderServiceClient.DueDate.START_DATE), eq(businessDate), eq(0), eq(5));
+    }
+
+    private PaymentSchedulerProperties properties(PaymentSchedulerProperties.IteratorMode mode, boolean dueDateFilterEnabled) {
+        PaymentSchedulerProperties paymentSchedulerProperties = new PaymentSchedulerProperties();
+        paymentSchedulerProperties.setIteratorProperties(new PaymentSchedulerProperties.IteratorProperties());
+        paymentSchedulerProperties.getIteratorProperties().setMode(mode);
+        paymentSchedulerProperties.getIteratorProperties().setPageSize(5);
+        paymentSchedulerProperties.setQueryFilters(new PaymentSchedulerProperties.QueryFilters());
+        paymentSchedulerProperties.getQueryFilters().setDueDateFilterEnabled(dueDateFilterEnabled);
+
+        return paymentSchedulerProperties;
+    }
+}
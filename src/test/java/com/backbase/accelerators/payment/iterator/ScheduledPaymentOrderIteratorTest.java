@@ -2,6 +2,7 @@ package com.backbase.accelerators.payment.iterator;
 
 import com.backbase.accelerators.payment.client.PaymentOrderServiceClient;
 import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import com.backbase.accelerators.payment.model.PaymentOrderPage;
 import com.backbase.payments.v2.service.model.GetPaymentOrderResponse;
 import com.backbase.payments.v2.service.model.PaymentOrderPostFilterResponse;
 import org.junit.Test;
@@ -16,7 +17,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @RunWith(MockitoJUnitRunner.class)
@@ -41,17 +45,37 @@ public class ScheduledPaymentOrderIteratorTest {
 
         List<GetPaymentOrderResponse> getPaymentOrderResponseList = new ArrayList<>();
         while (scheduledPaymentOrderIterator.hasNext()) {
-            getPaymentOrderResponseList.addAll(scheduledPaymentOrderIterator.next());
+            getPaymentOrderResponseList.addAll(scheduledPaymentOrderIterator.next().getPaymentOrders());
         }
 
         System.out.println(getPaymentOrderResponseList);
     }
 
-    private PaymentOrderPostFilterResponse paymentOrderPostFilterResponse(int numberOfElements) {
+    @Test
+    public void should_continue_past_pages_whose_orders_were_all_discarded() {
+        PaymentOrderPage discarded = new PaymentOrderPage(emptyList(), new BigDecimal(10), 5);
+
+        when(paymentOrderServiceClient.getScheduledPaymentOrders(anyInt(), anyInt()))
+                .thenReturn(discarded)
+                .thenReturn(paymentOrderPostFilterResponse(5))
+                .thenReturn(paymentOrderPostFilterResponse(0));
+
+        when(paymentSchedulerProperties.getIteratorProperties().getPageSize()).thenReturn(5);
+
+        List<GetPaymentOrderResponse> getPaymentOrderResponseList = new ArrayList<>();
+        while (scheduledPaymentOrderIterator.hasNext()) {
+            getPaymentOrderResponseList.addAll(scheduledPaymentOrderIterator.next().getPaymentOrders());
+        }
+
+        assertEquals(5, getPaymentOrderResponseList.size());
+        verify(paymentOrderServiceClient, times(3)).getScheduledPaymentOrders(anyInt(), anyInt());
+    }
+
+    private PaymentOrderPage paymentOrderPostFilterResponse(int numberOfElements) {
         if (numberOfElements == 0) {
-            return new PaymentOrderPostFilterResponse()
+            return PaymentOrderPage.of(new PaymentOrderPostFilterResponse()
                     .totalElements(new BigDecimal("0"))
-                    .paymentOrders(emptyList());
+                    .paymentOrders(emptyList()));
         }
 
         List<GetPaymentOrderResponse> getPaymentOrderResponseList = new ArrayList<>();
@@ -59,9 +83,9 @@ public class ScheduledPaymentOrderIteratorTest {
             getPaymentOrderResponseList.add(new GetPaymentOrderResponse().id(String.valueOf(i + 1)));
         }
 
-        return new PaymentOrderPostFilterResponse()
+        return PaymentOrderPage.of(new PaymentOrderPostFilterResponse()
                 .totalElements(new BigDecimal(numberOfElements))
-                .paymentOrders(getPaymentOrderResponseList);
+                .paymentOrders(getPaymentOrderResponseList));
     }
 
 }
\ No newline at end of file
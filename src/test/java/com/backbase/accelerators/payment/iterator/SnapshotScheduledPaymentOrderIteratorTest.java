@@ -0,0 +1,153 @@
+package com.backbase.accelerators.payment.iterator;
+
+import com.backbase.accelerators.payment.client.PaymentOrderServiceClient;
+import com.backbase.accelerators.payment.model.PaymentOrderPage;
+import com.backbase.payments.v2.service.model.GetPaymentOrderResponse;
+import com.backbase.payments.v2.service.model.PaymentOrderPostFilterResponse;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SnapshotScheduledPaymentOrderIteratorTest {
+
+    @Mock
+    private PaymentOrderServiceClient paymentOrderServiceClient;
+
+    @Test
+    public void should_visit_every_due_order_exactly_once() {
+        // The second page overlaps the first, as happens when orders shift between requests.
+        when(paymentOrderServiceClient.getScheduledPaymentOrders(anyInt(), anyInt()))
+                .thenReturn(paymentOrderPostFilterResponse(1, 5))
+                .thenReturn(paymentOrderPostFilterResponse(5, 5))
+                .thenReturn(paymentOrderPostFilterResponse(10, 3));
+
+        SnapshotScheduledPaymentOrderIterator iterator = new SnapshotScheduledPaymentOrderIterator(
+                paymentOrderServiceClient,
+                paymentOrder -> true,
+                5);
+
+        List<GetPaymentOrderResponse> getPaymentOrderResponseList = new ArrayList<>();
+        int pages = 0;
+        while (iterator.hasNext()) {
+            getPaymentOrderResponseList.addAll(iterator.next().getPaymentOrders());
+            ++pages;
+        }
+
+        assertEquals(12, getPaymentOrderResponseList.size());
+        assertEquals(3, pages);
+        verify(paymentOrderServiceClient, times(3)).getScheduledPaymentOrders(anyInt(), anyInt());
+    }
+
+    @Test
+    public void should_take_snapshot_over_union_of_queries() {
+        // Order 3 is due by both its next execution date and its start date.
+        SnapshotScheduledPaymentOrderIterator iterator = new SnapshotScheduledPaymentOrderIterator(
+                List.of(
+                        (page, size) -> page == 0 ? paymentOrderPostFilterResponse(1, 3) : paymentOrderPostFilterResponse(4, 0),
+                        (page, size) -> page == 0 ? paymentOrderPostFilterResponse(3, 2) : paymentOrderPostFilterResponse(5, 0)),
+                paymentOrder -> true,
+                5);
+
+        List<GetPaymentOrderResponse> getPaymentOrderResponseList = new ArrayList<>();
+        while (iterator.hasNext()) {
+            getPaymentOrderResponseList.addAll(iterator.next().getPaymentOrders());
+        }
+
+        assertEquals(List.of("1", "2", "3", "4"), getPaymentOrderResponseList.stream()
+                .map(GetPaymentOrderResponse::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    public void should_only_hold_orders_accepted_by_eligibility_filter() {
+        when(paymentOrderServiceClient.getScheduledPaymentOrders(anyInt(), anyInt()))
+                .thenReturn(paymentOrderPostFilterResponse(1, 5))
+                .thenReturn(paymentOrderPostFilterResponse(6, 5))
+                .thenReturn(paymentOrderPostFilterResponse(11, 3));
+
+        SnapshotScheduledPaymentOrderIterator iterator = new SnapshotScheduledPaymentOrderIterator(
+                paymentOrderServiceClient,
+                paymentOrder -> Integer.parseInt(paymentOrder.getId()) % 2 == 0,
+                5);
+
+        List<GetPaymentOrderResponse> getPaymentOrderResponseList = new ArrayList<>();
+        List<Integer> fetchedCounts = new ArrayList<>();
+        while (iterator.hasNext()) {
+            PaymentOrderPage chunk = iterator.next();
+            getPaymentOrderResponseList.addAll(chunk.getPaymentOrders());
+            fetchedCounts.add(chunk.getFetchedCount());
+        }
+
+        assertEquals(List.of("2", "4", "6", "8", "10", "12"), getPaymentOrderResponseList.stream()
+                .map(GetPaymentOrderResponse::getId)
+                .collect(Collectors.toList()));
+        // The 13 fetched orders are shared over the chunks of 5 and 1 due orders.
+        assertEquals(List.of(10, 3), fetchedCounts);
+    }
+
+    @Test
+    public void should_count_orders_on_overlapping_pages_as_fetched_once() {
+        // Orders 5 and 6 are on both the first and the second page, order 5 is not due.
+        when(paymentOrderServiceClient.getScheduledPaymentOrders(anyInt(), anyInt()))
+                .thenReturn(paymentOrderPostFilterResponse(1, 6))
+                .thenReturn(paymentOrderPostFilterResponse(5, 6))
+                .thenReturn(paymentOrderPostFilterResponse(11, 3));
+
+        SnapshotScheduledPaymentOrderIterator iterator = new SnapshotScheduledPaymentOrderIterator(
+                paymentOrderServiceClient,
+                paymentOrder -> Integer.parseInt(paymentOrder.getId()) % 2 == 0,
+                6);
+
+        List<GetPaymentOrderResponse> getPaymentOrderResponseList = new ArrayList<>();
+        int fetchedCount = 0;
+        while (iterator.hasNext()) {
+            PaymentOrderPage chunk = iterator.next();
+            getPaymentOrderResponseList.addAll(chunk.getPaymentOrders());
+            fetchedCount += chunk.getFetchedCount();
+        }
+
+        assertEquals(6, getPaymentOrderResponseList.size());
+        assertEquals(13, fetchedCount);
+    }
+
+    @Test
+    public void should_count_orders_discarded_while_the_page_was_read() {
+        when(paymentOrderServiceClient.getScheduledPaymentOrders(anyInt(), anyInt()))
+                .thenReturn(new PaymentOrderPage(List.of(new GetPaymentOrderResponse().id("2")), new BigDecimal(5), 5));
+
+        SnapshotScheduledPaymentOrderIterator iterator = new SnapshotScheduledPaymentOrderIterator(
+                paymentOrderServiceClient,
+                paymentOrder -> true,
+                5);
+
+        PaymentOrderPage chunk = iterator.next();
+
+        assertEquals(1, chunk.getPaymentOrders().size());
+        assertEquals(5, chunk.getFetchedCount());
+    }
+
+    private PaymentOrderPage paymentOrderPostFilterResponse(int firstId, int numberOfElements) {
+        List<GetPaymentOrderResponse> getPaymentOrderResponseList = new ArrayList<>();
+        for (int i = 0; i < numberOfElements; i++) {
+            getPaymentOrderResponseList.add(new GetPaymentOrderResponse().id(String.valueOf(firstId + i)));
+        }
+
+        return PaymentOrderPage.of(new PaymentOrderPostFilterResponse()
+                .totalElements(new BigDecimal(13))
+                .paymentOrders(getPaymentOrderResponseList));
+    }
+
+}
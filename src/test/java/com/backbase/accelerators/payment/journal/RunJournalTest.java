@@ -0,0 +1,132 @@
+package com.backbase.accelerators.payment.journal;
+
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import com.backbase.accelerators.payment.model.PaymentOrderExecutionResponse;
+import com.backbase.accelerators.payment.model.ScheduledPaymentOrder;
+import com.backbase.payments.v2.outbound.model.PaymentOrdersPostResponseBody;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RunJournalTest {
+
+    private static final LocalDate BUSINESS_DATE = LocalDate.of(2024, 3, 4);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private Path file;
+    private PaymentSchedulerProperties paymentSchedulerProperties;
+
+    @Before
+    public void setUp() {
+        file = temporaryFolder.getRoot().toPath().resolve("run-journal.jsonl");
+
+        paymentSchedulerProperties = new PaymentSchedulerProperties();
+        paymentSchedulerProperties.getJournal().setEnabled(true);
+        paymentSchedulerProperties.getJournal().setFile(file.toString());
+    }
+
+    @Test
+    public void should_resume_incomplete_stages_after_restart() {
+        RunJournal journal = new RunJournal(paymentSchedulerProperties, objectMapper);
+        journal.submitted(response("1"));
+        journal.submitted(response("2"));
+        journal.submitted(response("3"));
+        journal.recorded("1");
+        journal.updated("1");
+        journal.recorded("2");
+        journal.close();
+
+        RunJournal restarted = new RunJournal(paymentSchedulerProperties, objectMapper);
+
+        assertEquals(List.of("3"), ids(restarted.takeUnrecorded()));
+        assertEquals(List.of("2", "3"), ids(restarted.takeUnupdated()));
+        assertTrue(restarted.takeUnupdated().isEmpty());
+        assertEquals(List.of("1", "2", "3"), restarted.submittedOn(BUSINESS_DATE));
+        assertTrue(restarted.submittedOn(BUSINESS_DATE.minusDays(1)).isEmpty());
+    }
+
+    @Test
+    public void should_ignore_entry_torn_by_crash() throws IOException {
+        RunJournal journal = new RunJournal(paymentSchedulerProperties, objectMapper);
+        journal.submitted(response("1"));
+        journal.close();
+        Files.write(file, "{\"stage\":\"RECOR".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        RunJournal restarted = new RunJournal(paymentSchedulerProperties, objectMapper);
+
+        assertEquals(List.of("1"), ids(restarted.takeUnrecorded()));
+    }
+
+    @Test
+    public void should_keep_incomplete_and_todays_payments_when_compacting() throws IOException {
+        RunJournal journal = new RunJournal(paymentSchedulerProperties, objectMapper);
+        journal.submitted(response("0", BUSINESS_DATE.minusDays(1)));
+        journal.recorded("0");
+        journal.updated("0");
+        journal.submitted(response("1"));
+        journal.recorded("1");
+        journal.updated("1");
+        journal.submitted(response("2"));
+        journal.recorded("2");
+
+        journal.compact(BUSINESS_DATE);
+        journal.close();
+
+        assertEquals(5, Files.readAllLines(file).size());
+        RunJournal restarted = new RunJournal(paymentSchedulerProperties, objectMapper);
+        assertEquals(List.of("2"), ids(restarted.takeUnupdated()));
+        assertEquals(List.of("1", "2"), restarted.submittedOn(BUSINESS_DATE));
+    }
+
+    @Test
+    public void should_do_nothing_when_disabled() {
+        paymentSchedulerProperties.getJournal().setEnabled(false);
+        RunJournal journal = new RunJournal(paymentSchedulerProperties, objectMapper);
+
+        journal.submitted(response("1"));
+
+        assertTrue(journal.submittedOn(BUSINESS_DATE).isEmpty());
+        assertFalse(Files.exists(file));
+    }
+
+    private PaymentOrderExecutionResponse response(String id) {
+        return response(id, BUSINESS_DATE);
+    }
+
+    private PaymentOrderExecutionResponse response(String id, LocalDate businessDate) {
+        ScheduledPaymentOrder scheduledPaymentOrder = new ScheduledPaymentOrder();
+        scheduledPaymentOrder.setId(id);
+
+        PaymentOrderExecutionResponse response = new PaymentOrderExecutionResponse();
+        response.setOriginalScheduledPaymentOrder(scheduledPaymentOrder);
+        response.setPaymentOrdersPostResponseBody(new PaymentOrdersPostResponseBody().bankStatus("ACCEPTED"));
+        response.setBusinessDate(businessDate);
+
+        return response;
+    }
+
+    private List<String> ids(List<PaymentOrderExecutionResponse> responses) {
+        return responses.stream()
+                .map(response -> response.getOriginalScheduledPaymentOrder().getId())
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,85 @@
+package com.backbase.accelerators.payment.limiter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class AdaptiveConcurrencyLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void should_increase_limit_while_saturated_and_successful() {
+        AdaptiveConcurrencyLimiter limiter = limiter(2, 1, 4);
+
+        for (int i = 0; i < 10; i++) {
+            List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            for (int j = limiter.getLimit(); j > 0; j--) {
+                permits.add(limiter.acquireAsync().join());
+            }
+            permits.forEach(AdaptiveConcurrencyLimiter.Permit::success);
+        }
+
+        assertEquals(4, limiter.getLimit());
+        assertEquals(4.0, meterRegistry.get("concurrency.limit").tag("limiter", "test").gauge().value(), 0.0);
+    }
+
+    @Test
+    public void should_decrease_limit_on_drop_but_not_below_minimum() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 2, 8);
+
+        limiter.acquireAsync().join().dropped();
+        assertEquals(3, limiter.getLimit());
+
+        limiter.acquireAsync().join().dropped();
+        limiter.acquireAsync().join().dropped();
+        limiter.acquireAsync().join().dropped();
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    public void should_queue_callers_above_the_limit_and_grant_on_release() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1);
+
+        AdaptiveConcurrencyLimiter.Permit first = limiter.acquireAsync().join();
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> second = limiter.acquireAsync();
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> third = limiter.acquireAsync();
+        assertFalse(second.isDone());
+
+        first.success();
+        assertTrue(second.isDone());
+        assertFalse(third.isDone());
+
+        second.join().ignore();
+        assertTrue(third.isDone());
+        assertEquals(1, limiter.getInFlight());
+        assertEquals(3, meterRegistry.get("concurrency.queue-time").tag("limiter", "test").timer().count());
+    }
+
+    @Test
+    public void should_pass_permit_on_when_a_waiter_gave_up() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 1, 1);
+
+        AdaptiveConcurrencyLimiter.Permit first = limiter.acquireAsync().join();
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> abandoned = limiter.acquireAsync();
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> next = limiter.acquireAsync();
+        abandoned.cancel(false);
+
+        first.success();
+
+        assertTrue(next.isDone());
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit, int minLimit, int maxLimit) {
+        return new AdaptiveConcurrencyLimiter("test", initialLimit, minLimit, maxLimit, 0.75, Duration.ofMinutes(1), meterRegistry);
+    }
+}
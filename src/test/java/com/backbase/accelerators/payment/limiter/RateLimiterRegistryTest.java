@@ -0,0 +1,64 @@
+package com.backbase.accelerators.payment.limiter;
+
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RateLimiterRegistryTest {
+
+    private static final String DOWNSTREAM = "payment-order-integration-service";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RateLimiterRegistry rateLimiterRegistry;
+
+    @Before
+    public void setUp() {
+        PaymentSchedulerProperties.DownstreamRateLimits limits = new PaymentSchedulerProperties.DownstreamRateLimits();
+        limits.setShared(rateLimit(10, 2));
+        limits.getPaymentTypes().put("US_DOMESTIC_WIRE", rateLimit(1, 1));
+
+        rateLimiterRegistry = new RateLimiterRegistry(Map.of(DOWNSTREAM, limits), meterRegistry);
+    }
+
+    @Test
+    public void should_allow_burst_then_pace_requests() {
+        assertEquals(Duration.ZERO, rateLimiterRegistry.reserve(DOWNSTREAM, "ACH_DEBIT"));
+        assertEquals(Duration.ZERO, rateLimiterRegistry.reserve(DOWNSTREAM, "ACH_CREDIT"));
+
+        Duration wait = rateLimiterRegistry.reserve(DOWNSTREAM, "ACH_DEBIT");
+        assertTrue(wait.compareTo(Duration.ofMillis(50)) > 0);
+        assertTrue(wait.compareTo(Duration.ofMillis(100)) <= 0);
+    }
+
+    @Test
+    public void should_not_let_a_saturated_lane_delay_other_lanes() {
+        assertEquals(Duration.ZERO, rateLimiterRegistry.reserve(DOWNSTREAM, "US_DOMESTIC_WIRE"));
+        assertTrue(rateLimiterRegistry.reserve(DOWNSTREAM, "US_DOMESTIC_WIRE").compareTo(Duration.ofMillis(500)) > 0);
+
+        assertEquals(Duration.ZERO, rateLimiterRegistry.reserve(DOWNSTREAM, "INTERNAL_TRANSFER"));
+        assertEquals(2, meterRegistry.get("rate-limit.wait").tag("lane", "US_DOMESTIC_WIRE").timer().count());
+    }
+
+    @Test
+    public void should_not_pace_unconfigured_downstreams() {
+        for (int i = 0; i < 100; i++) {
+            assertEquals(Duration.ZERO, rateLimiterRegistry.reserve("payment-order-service", "ACH_DEBIT"));
+        }
+    }
+
+    private PaymentSchedulerProperties.RateLimit rateLimit(double permitsPerSecond, int burst) {
+        PaymentSchedulerProperties.RateLimit rateLimit = new PaymentSchedulerProperties.RateLimit();
+        rateLimit.setPermitsPerSecond(permitsPerSecond);
+        rateLimit.setBurst(burst);
+
+        return rateLimit;
+    }
+}
@@ -0,0 +1,133 @@
+package com.backbase.accelerators.payment.queue;
+
+import com.backbase.accelerators.payment.index.ExecutedTodayIndex;
+import com.backbase.accelerators.payment.model.ScheduledPaymentOrder;
+import com.backbase.accelerators.payment.service.ScheduledPaymentExecutorService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.activemq.ActiveMQConnectionFactory;
+import org.apache.activemq.RedeliveryPolicy;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+@RunWith(MockitoJUnitRunner.class)
+public class PaymentOrderWorkQueueTest {
+
+    private static final String QUEUE_NAME = "payment-scheduler.test";
+
+    @Mock
+    private ScheduledPaymentExecutorService scheduledPaymentExecutorService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private DefaultMessageListenerContainer container;
+    private PaymentOrderWorkQueuePublisher publisher;
+
+    @Before
+    public void setUp() {
+        // An embedded, non-persistent broker private to this test.
+        ActiveMQConnectionFactory connectionFactory = new ActiveMQConnectionFactory(
+                "vm://" + UUID.randomUUID() + "?broker.persistent=false&broker.useJmx=false");
+        RedeliveryPolicy redeliveryPolicy = new RedeliveryPolicy();
+        redeliveryPolicy.setInitialRedeliveryDelay(0);
+        redeliveryPolicy.setRedeliveryDelay(0);
+        connectionFactory.setRedeliveryPolicy(redeliveryPolicy);
+
+        ExecutedTodayIndex publishedToday = ExecutedTodayIndex.published(Clock.systemUTC(), 16, new SimpleMeterRegistry());
+        publisher = new PaymentOrderWorkQueuePublisher(
+                new JmsTemplate(connectionFactory), objectMapper, QUEUE_NAME, 2, publishedToday);
+
+        container = new DefaultMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setDestinationName(QUEUE_NAME);
+        container.setSessionTransacted(true);
+        container.setMessageListener(new PaymentOrderWorkQueueListener(scheduledPaymentExecutorService, objectMapper));
+        container.afterPropertiesSet();
+    }
+
+    @After
+    public void tearDown() {
+        container.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_deliver_due_payment_orders_in_chunks() {
+        container.start();
+
+        publisher.publish(orders(5));
+
+        ArgumentCaptor<List<ScheduledPaymentOrder>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(scheduledPaymentExecutorService, timeout(5000).times(3)).executeScheduledPaymentOrders(chunks.capture());
+
+        List<String> ids = chunks.getAllValues().stream()
+                .flatMap(List::stream)
+                .map(ScheduledPaymentOrder::getId)
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(List.of("0", "1", "2", "3", "4"), ids);
+    }
+
+    @Test
+    public void should_redeliver_chunk_when_processing_fails() {
+        doThrow(new IllegalStateException("payment order service unavailable"))
+                .doNothing()
+                .when(scheduledPaymentExecutorService).executeScheduledPaymentOrders(anyList());
+        container.start();
+
+        publisher.publish(orders(1));
+
+        verify(scheduledPaymentExecutorService, timeout(5000).times(2)).executeScheduledPaymentOrders(anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void should_not_publish_payment_orders_again_on_a_later_run() {
+        container.start();
+
+        publisher.publish(orders(3));
+        // A later run of the day while the orders are still due, e.g. because the consumers have not caught up.
+        publisher.publish(orders(4));
+
+        ArgumentCaptor<List<ScheduledPaymentOrder>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(scheduledPaymentExecutorService, timeout(5000).times(3)).executeScheduledPaymentOrders(chunks.capture());
+        verify(scheduledPaymentExecutorService, after(200).times(3)).executeScheduledPaymentOrders(anyList());
+
+        List<String> ids = chunks.getAllValues().stream()
+                .flatMap(List::stream)
+                .map(ScheduledPaymentOrder::getId)
+                .sorted()
+                .collect(Collectors.toList());
+        assertEquals(List.of("0", "1", "2", "3"), ids);
+    }
+
+    private List<ScheduledPaymentOrder> orders(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> {
+                    ScheduledPaymentOrder scheduledPaymentOrder = new ScheduledPaymentOrder();
+                    scheduledPaymentOrder.setId(String.valueOf(i));
+                    return scheduledPaymentOrder;
+                })
+                .collect(Collectors.toList());
+    }
+}
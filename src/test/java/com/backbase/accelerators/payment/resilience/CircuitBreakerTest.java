@@ -0,0 +1,69 @@
+package com.backbase.accelerators.payment.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CircuitBreakerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void should_open_after_consecutive_failures_and_reject_calls() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 3, Duration.ofMinutes(1), 1, meterRegistry);
+
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+        circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+
+        circuitBreaker.onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+        assertEquals(1.0, meterRegistry.get("circuit-breaker.rejected").tag("name", "test").counter().count(), 0.0);
+    }
+
+    @Test
+    public void should_close_after_successful_trial_call() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 1, Duration.ZERO, 1, meterRegistry);
+        circuitBreaker.onFailure();
+
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertFalse(circuitBreaker.tryAcquirePermission());
+
+        circuitBreaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+
+    @Test
+    public void should_reopen_when_trial_call_fails() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 1, Duration.ZERO, 1, meterRegistry);
+        circuitBreaker.onFailure();
+
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+    }
+
+    @Test
+    public void should_hand_back_trial_call_when_outcome_is_ignored() {
+        CircuitBreaker circuitBreaker = new CircuitBreaker("test", 1, Duration.ZERO, 1, meterRegistry);
+        circuitBreaker.onFailure();
+
+        assertTrue(circuitBreaker.tryAcquirePermission());
+        circuitBreaker.onIgnored();
+
+        assertEquals(CircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+        assertTrue(circuitBreaker.tryAcquirePermission());
+    }
+}
@@ -0,0 +1,82 @@
+package com.backbase.accelerators.payment.retry;
+
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import com.backbase.accelerators.payment.exception.RetryablePaymentOrderException;
+import com.backbase.accelerators.payment.model.ScheduledPaymentOrder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DeferredRetryQueueTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RetryablePaymentOrderException failure = new RetryablePaymentOrderException("core unavailable");
+
+    private PaymentSchedulerProperties paymentSchedulerProperties;
+    private DeferredRetryQueue deferredRetryQueue;
+
+    @Before
+    public void setUp() {
+        paymentSchedulerProperties = new PaymentSchedulerProperties();
+        paymentSchedulerProperties.setRetryMaxAttempts(3);
+        paymentSchedulerProperties.setRetryBackoffDelayMillis(10);
+        paymentSchedulerProperties.getDeferredRetry().setBudgetPercent(50);
+
+        deferredRetryQueue = new DeferredRetryQueue(paymentSchedulerProperties, meterRegistry);
+        deferredRetryQueue.startRun();
+    }
+
+    @Test
+    public void should_not_park_payment_without_attempts_left() {
+        deferredRetryQueue.recordSubmission();
+
+        assertTrue(deferredRetryQueue.park(order("1"), 2, failure));
+        assertFalse(deferredRetryQueue.park(order("2"), 3, failure));
+    }
+
+    @Test
+    public void should_return_parked_payment_with_next_attempt_once_due() throws InterruptedException {
+        deferredRetryQueue.recordSubmission();
+        deferredRetryQueue.park(order("1"), 1, failure);
+
+        List<DeferredRetryQueue.DeferredPayment> due = deferredRetryQueue.awaitDue();
+
+        assertEquals(1, due.size());
+        assertEquals("1", due.get(0).getScheduledPaymentOrder().getId());
+        assertEquals(2, due.get(0).getAttempt());
+        assertFalse(deferredRetryQueue.hasParked());
+    }
+
+    @Test
+    public void should_abandon_payments_beyond_retry_budget() throws InterruptedException {
+        for (int i = 0; i < 4; i++) {
+            deferredRetryQueue.recordSubmission();
+            deferredRetryQueue.park(order(String.valueOf(i)), 1, failure);
+        }
+
+        int retried = 0;
+        while (deferredRetryQueue.hasParked()) {
+            retried += deferredRetryQueue.awaitDue().size();
+        }
+
+        assertEquals(2, retried);
+        assertEquals(2, deferredRetryQueue.takeAbandoned().size());
+        assertEquals(2.0, meterRegistry.get("payment.scheduler.deferred-retry.payments")
+                .tag("result", "abandoned")
+                .counter()
+                .count(), 0.0);
+    }
+
+    private ScheduledPaymentOrder order(String id) {
+        ScheduledPaymentOrder scheduledPaymentOrder = new ScheduledPaymentOrder();
+        scheduledPaymentOrder.setId(id);
+
+        return scheduledPaymentOrder;
+    }
+}
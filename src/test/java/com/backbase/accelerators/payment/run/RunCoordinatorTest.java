@@ -0,0 +1,157 @@
+package com.backbase.accelerators.payment.run;
+
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties.OverlapPolicy;
+import com.backbase.accelerators.payment.shard.InMemoryLeaseStore;
+import com.backbase.accelerators.payment.shard.LeaseStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RunCoordinatorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger runs = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+
+    private RunCoordinator runCoordinator;
+
+    @After
+    public void tearDown() {
+        runCoordinator.shutdown();
+    }
+
+    @Test
+    public void should_skip_triggers_while_run_is_active() throws InterruptedException {
+        runCoordinator = coordinator(OverlapPolicy.SKIP, RunLock.local());
+
+        triggerOverlapping(3);
+
+        assertEquals(1, runs.get());
+        assertEquals(3.0, triggers("skipped"), 0.0);
+    }
+
+    @Test
+    public void should_queue_triggers_up_to_limit() throws InterruptedException {
+        runCoordinator = coordinator(OverlapPolicy.QUEUE, RunLock.local());
+
+        triggerOverlapping(3);
+
+        assertEquals(3, runs.get());
+        assertEquals(2.0, triggers("queued"), 0.0);
+        assertEquals(1.0, triggers("skipped"), 0.0);
+    }
+
+    @Test
+    public void should_coalesce_triggers_into_one_follow_up_run() throws InterruptedException {
+        runCoordinator = coordinator(OverlapPolicy.COALESCE, RunLock.local());
+
+        triggerOverlapping(3);
+
+        assertEquals(2, runs.get());
+        assertEquals(3.0, triggers("coalesced"), 0.0);
+    }
+
+    @Test
+    public void should_not_run_while_another_replica_holds_the_lock() throws InterruptedException {
+        LeaseStore leaseStore = new InMemoryLeaseStore(Clock.systemUTC());
+        leaseStore.tryAcquire(LeaseRunLock.RUN_LEASE, "other-replica", Duration.ofMinutes(1));
+        runCoordinator = coordinator(OverlapPolicy.SKIP, new LeaseRunLock(leaseStore, "this-replica", Duration.ofMinutes(1)));
+
+        runCoordinator.trigger(runs::incrementAndGet);
+        awaitIdle();
+
+        assertEquals(0, runs.get());
+        assertEquals(1.0, triggers("locked"), 0.0);
+    }
+
+    @Test
+    public void should_keep_running_when_the_run_lock_throws() throws InterruptedException {
+        RunLock failingLock = new RunLock() {
+
+            private final AtomicInteger acquisitions = new AtomicInteger();
+
+            @Override
+            public boolean tryAcquire() {
+                if (acquisitions.incrementAndGet() == 1) {
+                    throw new IllegalStateException("lease store unavailable");
+                }
+                return true;
+            }
+
+            @Override
+            public boolean renew() {
+                return true;
+            }
+
+            @Override
+            public void release() {
+                throw new IllegalStateException("lease store unavailable");
+            }
+        };
+        runCoordinator = coordinator(OverlapPolicy.SKIP, failingLock);
+
+        runCoordinator.trigger(runs::incrementAndGet);
+        awaitIdle();
+        runCoordinator.trigger(runs::incrementAndGet);
+        awaitIdle();
+        runCoordinator.trigger(runs::incrementAndGet);
+        awaitIdle();
+
+        assertEquals(2, runs.get());
+        assertEquals(1.0, lockFailures("acquire"), 0.0);
+        assertEquals(2.0, lockFailures("release"), 0.0);
+    }
+
+    private void triggerOverlapping(int overlappingTriggers) throws InterruptedException {
+        runCoordinator.trigger(this::blockingRun);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < overlappingTriggers; i++) {
+            runCoordinator.trigger(runs::incrementAndGet);
+        }
+
+        release.countDown();
+        awaitIdle();
+    }
+
+    private void blockingRun() {
+        runs.incrementAndGet();
+        started.countDown();
+        try {
+            release.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitIdle() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (runCoordinator.isActive() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(runCoordinator.isActive());
+    }
+
+    private double triggers(String decision) {
+        return meterRegistry.get("payment.scheduler.run.triggers").tag("decision", decision).counter().count();
+    }
+
+    private double lockFailures(String operation) {
+        return meterRegistry.get("payment.scheduler.run.lock.failures").tag("operation", operation).counter().count();
+    }
+
+    private RunCoordinator coordinator(OverlapPolicy overlapPolicy, RunLock runLock) {
+        return new RunCoordinator(runLock, overlapPolicy, 2, Duration.ofSeconds(10), meterRegistry);
+    }
+}
@@ -0,0 +1,189 @@
+package com.backbase.accelerators.payment.service.impl;
+
+import com.backbase.accelerators.payment.client.PaymentOrderOutboundClient;
+import com.backbase.accelerators.payment.client.PaymentOrderServiceClient;
+import com.backbase.accelerators.payment.client.ScheduledPaymentOrderServiceClient;
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import com.backbase.accelerators.payment.engine.PaymentExecutionEngine;
+import com.backbase.accelerators.payment.event.EventEmitter;
+import com.backbase.accelerators.payment.exception.RetryablePaymentOrderException;
+import com.backbase.accelerators.payment.index.ExecutedTodayIndex;
+import com.backbase.accelerators.payment.iterator.PaymentOrderPageIterator;
+import com.backbase.accelerators.payment.iterator.ScheduledPaymentOrderIteratorFactory;
+import com.backbase.accelerators.payment.journal.RunJournal;
+import com.backbase.accelerators.payment.mapper.PaymentOrderMapperImpl;
+import com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics;
+import com.backbase.accelerators.payment.model.PaymentOrderExecutionResponse;
+import com.backbase.accelerators.payment.model.PaymentOrderPage;
+import com.backbase.accelerators.payment.queue.PaymentOrderWorkQueuePublisher;
+import com.backbase.accelerators.payment.retry.DeferredRetryQueue;
+import com.backbase.accelerators.payment.run.RunCoordinator;
+import com.backbase.accelerators.payment.shard.ShardCoordinator;
+import com.backbase.accelerators.payment.writeback.NextExecutionDateWriter;
+import com.backbase.accelerators.payment.writeback.TransactionRecordWriter;
+import com.backbase.payments.v2.outbound.model.PaymentOrdersPostResponseBody;
+import com.backbase.payments.v2.service.model.GetPaymentOrderResponse;
+import com.backbase.payments.v2.service.model.SimpleSchedule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static com.backbase.payments.v2.service.model.Status.REJECTED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ScheduledPaymentExecutorServiceImplTest {
+
+    private final Clock clock = Clock.fixed(Instant.parse("2024-03-04T10:00:00Z"), ZoneOffset.UTC);
+    private final LocalDate businessDate = LocalDate.now(clock);
+    private final ExecutorService executorService = Executors.newFixedThreadPool(2);
+
+    @Mock
+    private PaymentOrderServiceClient paymentOrderServiceClient;
+    @Mock
+    private PaymentOrderOutboundClient paymentOrderOutboundClient;
+    @Mock
+    private ScheduledPaymentOrderServiceClient scheduledPaymentOrderServiceClient;
+    @Mock
+    private ScheduledPaymentOrderIteratorFactory scheduledPaymentOrderIteratorFactory;
+    @Mock
+    private PaymentSchedulerMetrics paymentSchedulerMetrics;
+    @Mock
+    private NextExecutionDateWriter nextExecutionDateWriter;
+    @Mock
+    private TransactionRecordWriter transactionRecordWriter;
+    @Mock
+    private ObjectProvider<PaymentOrderWorkQueuePublisher> paymentOrderWorkQueuePublisher;
+    @Mock
+    private RunCoordinator runCoordinator;
+    @Mock
+    private RunJournal runJournal;
+    @Mock
+    private ExecutedTodayIndex executedTodayIndex;
+
+    private DeferredRetryQueue deferredRetryQueue;
+    private ScheduledPaymentExecutorServiceImpl scheduledPaymentExecutorService;
+
+    @Before
+    public void setUp() {
+        PaymentSchedulerProperties paymentSchedulerProperties = new PaymentSchedulerProperties();
+        paymentSchedulerProperties.getDeferredRetry().setEnabled(true);
+        // Parked payments do not become due while the test runs.
+        paymentSchedulerProperties.setRetryBackoffDelayMillis(Duration.ofMinutes(10).toMillis());
+        paymentSchedulerProperties.getDeferredRetry().setMaxBackoff(Duration.ofMinutes(10));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        deferredRetryQueue = new DeferredRetryQueue(paymentSchedulerProperties, meterRegistry);
+
+        scheduledPaymentExecutorService = new ScheduledPaymentExecutorServiceImpl(
+                paymentOrderServiceClient,
+                paymentOrderOutboundClient,
+                scheduledPaymentOrderServiceClient,
+                paymentSchedulerProperties,
+                new PaymentOrderMapperImpl(),
+                new EventEmitter(),
+                new PaymentExecutionEngine(executorService, paymentSchedulerProperties),
+                scheduledPaymentOrderIteratorFactory,
+                paymentSchedulerMetrics,
+                nextExecutionDateWriter,
+                transactionRecordWriter,
+                deferredRetryQueue,
+                ShardCoordinator.unsharded("replica", meterRegistry),
+                paymentOrderWorkQueuePublisher,
+                runCoordinator,
+                runJournal,
+                executedTodayIndex,
+                clock);
+    }
+
+    @After
+    public void tearDown() {
+        executorService.shutdownNow();
+    }
+
+    @Test
+    public void should_recover_parked_payments_when_interrupted_while_waiting_for_retries() throws InterruptedException {
+        when(scheduledPaymentOrderIteratorFactory.create(any())).thenReturn(iterator(List.of(dueOrder("1"), dueOrder("2"))));
+        when(executedTodayIndex.add(anyString())).thenReturn(true);
+        when(paymentOrderOutboundClient.submitOnce(any()))
+                .thenReturn(CompletableFuture.failedFuture(new RetryablePaymentOrderException("core unavailable")));
+        when(paymentOrderOutboundClient.recover(any(), any()))
+                .thenReturn(new PaymentOrdersPostResponseBody().bankStatus(REJECTED.getValue()));
+
+        Thread run = new Thread(scheduledPaymentExecutorService::execute);
+        run.start();
+        awaitParkedPaymentsWait(run);
+        run.interrupt();
+        run.join(TimeUnit.SECONDS.toMillis(5));
+
+        assertFalse(run.isAlive());
+        assertFalse(deferredRetryQueue.hasParked());
+        ArgumentCaptor<PaymentOrderExecutionResponse> recovered = ArgumentCaptor.forClass(PaymentOrderExecutionResponse.class);
+        verify(transactionRecordWriter, times(2)).submit(recovered.capture());
+        assertEquals(List.of("1", "2"), recovered.getAllValues().stream()
+                .map(response -> response.getOriginalScheduledPaymentOrder().getId())
+                .sorted()
+                .collect(Collectors.toList()));
+        assertTrue(recovered.getAllValues().stream()
+                .allMatch(response -> REJECTED.getValue().equals(response.getPaymentOrdersPostResponseBody().getBankStatus())));
+    }
+
+    private void awaitParkedPaymentsWait(Thread run) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!(deferredRetryQueue.hasParked() && run.getState() == Thread.State.TIMED_WAITING)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    private GetPaymentOrderResponse dueOrder(String id) {
+        return new GetPaymentOrderResponse()
+                .id(id)
+                .paymentType("SEPA_CREDIT_TRANSFER")
+                .schedule(new SimpleSchedule().nextExecutionDate(businessDate));
+    }
+
+    private PaymentOrderPageIterator iterator(List<GetPaymentOrderResponse> page) {
+        Iterator<PaymentOrderPage> pages = List.of(new PaymentOrderPage(page, BigDecimal.valueOf(page.size()), page.size())).iterator();
+
+        return new PaymentOrderPageIterator() {
+
+            @Override
+            public boolean hasNext() {
+                return pages.hasNext();
+            }
+
+            @Override
+            public PaymentOrderPage next() {
+                return pages.next();
+            }
+        };
+    }
+}
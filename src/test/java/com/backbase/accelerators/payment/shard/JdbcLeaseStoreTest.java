@@ -0,0 +1,70 @@
+package com.backbase.accelerators.payment.shard;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class JdbcLeaseStoreTest {
+
+    private static final Duration LEASE_TTL = Duration.ofSeconds(30);
+    private static final Instant NOW = Instant.parse("2022-06-01T00:00:00Z");
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+
+    @Before
+    public void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("classpath:db/payment-scheduler-lease.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+    }
+
+    @After
+    public void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    public void should_grant_lease_to_one_owner_until_it_expires() {
+        assertTrue(leaseStore(NOW).tryAcquire("shard/1", "first", LEASE_TTL));
+        assertTrue(leaseStore(NOW).tryAcquire("shard/1", "first", LEASE_TTL));
+        assertFalse(leaseStore(NOW).tryAcquire("shard/1", "second", LEASE_TTL));
+
+        assertTrue(leaseStore(NOW.plus(LEASE_TTL)).tryAcquire("shard/1", "second", LEASE_TTL));
+        assertEquals(Map.of("shard/1", "second"), leaseStore(NOW.plus(LEASE_TTL)).activeLeases("shard/"));
+    }
+
+    @Test
+    public void should_release_lease_only_for_its_owner() {
+        leaseStore(NOW).tryAcquire("shard/1", "first", LEASE_TTL);
+        leaseStore(NOW).tryAcquire("member/first", "first", LEASE_TTL);
+
+        leaseStore(NOW).release("shard/1", "second");
+        assertEquals(Map.of("shard/1", "first"), leaseStore(NOW).activeLeases("shard/"));
+
+        leaseStore(NOW).release("shard/1", "first");
+        assertTrue(leaseStore(NOW).activeLeases("shard/").isEmpty());
+        assertEquals(1, leaseStore(NOW).activeLeases("member/").size());
+    }
+
+    private JdbcLeaseStore leaseStore(Instant now) {
+        return new JdbcLeaseStore(jdbcTemplate, Clock.fixed(now, ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,113 @@
+package com.backbase.accelerators.payment.shard;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ShardCoordinatorTest {
+
+    private static final int SHARD_COUNT = 8;
+    private static final Duration LEASE_TTL = Duration.ofSeconds(30);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock();
+    private final LeaseStore leaseStore = new InMemoryLeaseStore(clock);
+
+    @Test
+    public void should_split_shards_between_replicas() {
+        ShardCoordinator first = coordinator("first");
+        ShardCoordinator second = coordinator("second");
+
+        assertEquals(SHARD_COUNT, first.rebalance().size());
+
+        second.rebalance();
+        first.rebalance();
+        second.rebalance();
+
+        assertEquals(SHARD_COUNT / 2, first.getOwnedShards().size());
+        assertEquals(SHARD_COUNT / 2, second.getOwnedShards().size());
+        assertDisjointAndComplete(first.getOwnedShards(), second.getOwnedShards());
+    }
+
+    @Test
+    public void should_take_over_shards_of_replica_that_stopped_renewing() {
+        ShardCoordinator first = coordinator("first");
+        ShardCoordinator second = coordinator("second");
+        second.rebalance();
+        first.rebalance();
+
+        clock.advance(LEASE_TTL.plusSeconds(1));
+        first.rebalance();
+
+        assertEquals(SHARD_COUNT, first.getOwnedShards().size());
+    }
+
+    @Test
+    public void should_execute_every_order_on_exactly_one_replica() {
+        ShardCoordinator first = coordinator("first");
+        ShardCoordinator second = coordinator("second");
+        first.rebalance();
+        second.rebalance();
+        first.rebalance();
+        second.rebalance();
+
+        for (int i = 0; i < 100; i++) {
+            String paymentOrderId = "payment-order-" + i;
+            assertTrue(first.owns(paymentOrderId) ^ second.owns(paymentOrderId));
+        }
+    }
+
+    @Test
+    public void should_own_every_order_when_unsharded() {
+        ShardCoordinator coordinator = ShardCoordinator.unsharded("single", meterRegistry);
+
+        assertTrue(coordinator.owns("payment-order-1"));
+        assertEquals(Set.of(0), coordinator.rebalance());
+    }
+
+    private ShardCoordinator coordinator(String replicaId) {
+        return new ShardCoordinator(leaseStore, replicaId, SHARD_COUNT, LEASE_TTL, meterRegistry);
+    }
+
+    private void assertDisjointAndComplete(Set<Integer> first, Set<Integer> second) {
+        Set<Integer> all = new HashSet<>(first);
+        all.addAll(second);
+
+        assertEquals(SHARD_COUNT, all.size());
+        assertEquals(SHARD_COUNT, first.size() + second.size());
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2022-06-01T00:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
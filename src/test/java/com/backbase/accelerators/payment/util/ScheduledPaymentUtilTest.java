@@ -16,9 +16,7 @@ import static com.backbase.payments.v2.service.model.SimpleSchedule.TransferFreq
 import static com.backbase.payments.v2.service.model.SimpleSchedule.TransferFrequencyEnum.YEARLY;
 import static java.time.LocalDate.now;
 import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
-import static org.junit.Assert.assertTrue;
 
 public class ScheduledPaymentUtilTest {
 
@@ -27,45 +25,45 @@ public class ScheduledPaymentUtilTest {
         LocalDate result = null;
 
         // Daily
-        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(DAILY, _1));
+        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(DAILY, _1), now());
         assertEquals(now().plusDays(1), result);
 
-        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(DAILY, _2));
+        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(DAILY, _2), now());
         assertEquals(now().plusDays(2), result);
 
         // Weekly
-        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(WEEKLY, _1));
+        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(WEEKLY, _1), now());
         assertEquals(now().plusWeeks(1), result);
 
-        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(WEEKLY, _2));
+        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(WEEKLY, _2), now());
         assertEquals(now().plusWeeks(2), result);
 
         // Bi-Weekly
-        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(BIWEEKLY, _1));
+        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(BIWEEKLY, _1), now());
         assertEquals(now().plusWeeks(2), result);
 
-        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(BIWEEKLY, _2));
+        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(BIWEEKLY, _2), now());
         assertEquals(now().plusWeeks(4), result);
 
         // Monthly
-        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(MONTHLY, _1));
+        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(MONTHLY, _1), now());
         assertEquals(now().plusMonths(1), result);
 
-        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(MONTHLY, _2));
+        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(MONTHLY, _2), now());
         assertEquals(now().plusMonths(2), result);
 
         // Quarterly
-        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(QUARTERLY, _1));
+        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(QUARTERLY, _1), now());
         assertEquals(now().plusMonths(3), result);
 
-        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(QUARTERLY, _2));
+        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(QUARTERLY, _2), now());
         assertEquals(now().plusMonths(6), result);
 
         // Yearly
-        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(YEARLY, _1));
+        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(YEARLY, _1), now());
         assertEquals(now().plusYears(1), result);
 
-        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(YEARLY, _2));
+        result = ScheduledPaymentUtil.calculateNextExecutionDate(getScheduledPaymentOrder(YEARLY, _2), now());
         assertEquals(now().plusYears(2), result);
     }
 
@@ -74,52 +72,10 @@ public class ScheduledPaymentUtilTest {
         ScheduledPaymentOrder scheduledPaymentOrder = getScheduledPaymentOrder(DAILY, _1);
         scheduledPaymentOrder.getSchedule().setEndDate(now());
 
-        LocalDate result = ScheduledPaymentUtil.calculateNextExecutionDate(scheduledPaymentOrder);
+        LocalDate result = ScheduledPaymentUtil.calculateNextExecutionDate(scheduledPaymentOrder, now());
         assertNull(result);
     }
 
-    @Test
-    public void should_return_true_when_end_date_is_in_the_past() {
-        LocalDate endDate = LocalDate.now().minusDays(1);
-
-        SimpleSchedule schedule = new SimpleSchedule()
-                .endDate(endDate);
-
-        ScheduledPaymentOrder scheduledPaymentOrder = new ScheduledPaymentOrder();
-        scheduledPaymentOrder.setId("TEST");
-        scheduledPaymentOrder.setSchedule(schedule);
-
-        assertTrue(ScheduledPaymentUtil.isEndDateInThePast(scheduledPaymentOrder));
-    }
-
-    @Test
-    public void should_return_false_when_end_date_is_in_the_future() {
-        LocalDate endDate = LocalDate.now().plusDays(1);
-
-        SimpleSchedule schedule = new SimpleSchedule()
-                .endDate(endDate);
-
-        ScheduledPaymentOrder scheduledPaymentOrder = new ScheduledPaymentOrder();
-        scheduledPaymentOrder.setId("TEST");
-        scheduledPaymentOrder.setSchedule(schedule);
-
-        assertFalse(ScheduledPaymentUtil.isEndDateInThePast(scheduledPaymentOrder));
-    }
-
-    @Test
-    public void should_return_true_when_payment_order_is_scheduled_for_today() {
-        LocalDate endDate = LocalDate.now();
-
-        SimpleSchedule schedule = new SimpleSchedule()
-                .startDate(endDate);
-
-        ScheduledPaymentOrder scheduledPaymentOrder = new ScheduledPaymentOrder();
-        scheduledPaymentOrder.setId("TEST");
-        scheduledPaymentOrder.setSchedule(schedule);
-
-        assertTrue(ScheduledPaymentUtil.isPaymentScheduledForToday(scheduledPaymentOrder));
-    }
-
     private ScheduledPaymentOrder getScheduledPaymentOrder(
             SimpleSchedule.TransferFrequencyEnum frequency,
             SimpleSchedule.EveryEnum every) {
@@ -0,0 +1,149 @@
+package com.backbase.accelerators.payment.writeback;
+
+import com.backbase.accelerators.payment.client.PaymentOrderServiceClient;
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import com.backbase.accelerators.payment.journal.RunJournal;
+import com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics;
+import com.backbase.accelerators.payment.model.PaymentOrderExecutionResponse;
+import com.backbase.accelerators.payment.model.ScheduledPaymentOrder;
+import com.backbase.payments.v2.service.model.PaymentOrderPutRequest;
+import com.backbase.payments.v2.service.model.PaymentOrderPutResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class NextExecutionDateWriterTest {
+
+    @Mock
+    private PaymentOrderServiceClient paymentOrderServiceClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private PaymentSchedulerProperties paymentSchedulerProperties;
+    private NextExecutionDateWriter nextExecutionDateWriter;
+
+    @Before
+    public void setUp() {
+        paymentSchedulerProperties = new PaymentSchedulerProperties();
+        paymentSchedulerProperties.getWriteBack().setEnabled(true);
+        paymentSchedulerProperties.getWriteBack().setBatchSize(2);
+        paymentSchedulerProperties.getWriteBack().setFlushInterval(Duration.ofMinutes(1));
+        paymentSchedulerProperties.getWriteBack().setMaxAttempts(2);
+        paymentSchedulerProperties.getWriteBack().setRetryBackoff(Duration.ofMillis(10));
+
+        when(paymentOrderServiceClient.createNextExecutionDateUpdate(any()))
+                .thenReturn(new PaymentOrderPutRequest());
+
+        nextExecutionDateWriter = new NextExecutionDateWriter(
+                paymentOrderServiceClient,
+                new PaymentSchedulerMetrics(meterRegistry),
+                paymentSchedulerProperties,
+                new RunJournal(paymentSchedulerProperties, null));
+    }
+
+    @After
+    public void tearDown() {
+        nextExecutionDateWriter.shutdown();
+    }
+
+    @Test
+    public void should_write_all_updates_on_flush() {
+        when(paymentOrderServiceClient.updatePaymentOrder(any(), any()))
+                .thenReturn(new PaymentOrderPutResponse());
+
+        nextExecutionDateWriter.submit(paymentOrderExecutionResponse("1"));
+        nextExecutionDateWriter.submit(paymentOrderExecutionResponse("2"));
+        nextExecutionDateWriter.submit(paymentOrderExecutionResponse("3"));
+        nextExecutionDateWriter.flush();
+
+        verify(paymentOrderServiceClient).updatePaymentOrder(eq("1"), any());
+        verify(paymentOrderServiceClient).updatePaymentOrder(eq("2"), any());
+        verify(paymentOrderServiceClient).updatePaymentOrder(eq("3"), any());
+        verify(paymentOrderServiceClient, never()).updateNextExecutionDate(any());
+        assertEquals(3.0, writeBackCount("success"), 0.0);
+    }
+
+    @Test
+    public void should_retry_only_failed_updates() {
+        when(paymentOrderServiceClient.updatePaymentOrder(eq("1"), any()))
+                .thenReturn(new PaymentOrderPutResponse());
+        when(paymentOrderServiceClient.updatePaymentOrder(eq("2"), any()))
+                .thenThrow(new IllegalStateException("payment order service unavailable"))
+                .thenReturn(new PaymentOrderPutResponse());
+
+        nextExecutionDateWriter.submit(paymentOrderExecutionResponse("1"));
+        nextExecutionDateWriter.submit(paymentOrderExecutionResponse("2"));
+        nextExecutionDateWriter.flush();
+
+        verify(paymentOrderServiceClient, times(1)).updatePaymentOrder(eq("1"), any());
+        verify(paymentOrderServiceClient, times(2)).updatePaymentOrder(eq("2"), any());
+        assertEquals(1.0, writeBackCount("retry"), 0.0);
+    }
+
+    @Test
+    public void should_give_up_after_max_attempts() {
+        when(paymentOrderServiceClient.updatePaymentOrder(any(), any()))
+                .thenThrow(new IllegalStateException("payment order service unavailable"));
+
+        nextExecutionDateWriter.submit(paymentOrderExecutionResponse("1"));
+        nextExecutionDateWriter.flush();
+
+        verify(paymentOrderServiceClient, times(2)).updatePaymentOrder(eq("1"), any());
+        assertEquals(1.0, writeBackCount("failed"), 0.0);
+    }
+
+    @Test
+    public void should_back_off_before_retrying_failed_update() {
+        paymentSchedulerProperties.getWriteBack().setRetryBackoff(Duration.ofMillis(200));
+        List<Long> attemptNanos = new CopyOnWriteArrayList<>();
+        when(paymentOrderServiceClient.updatePaymentOrder(eq("1"), any()))
+                .thenAnswer(invocation -> {
+                    attemptNanos.add(System.nanoTime());
+                    if (attemptNanos.size() == 1) {
+                        throw new IllegalStateException("payment order service unavailable");
+                    }
+                    return new PaymentOrderPutResponse();
+                });
+
+        nextExecutionDateWriter.submit(paymentOrderExecutionResponse("1"));
+        nextExecutionDateWriter.flush();
+
+        assertEquals(2, attemptNanos.size());
+        // Equal jitter keeps at least half of the backoff.
+        assertTrue(attemptNanos.get(1) - attemptNanos.get(0) >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(1.0, writeBackCount("success"), 0.0);
+    }
+
+    private double writeBackCount(String result) {
+        return meterRegistry.get("payment.scheduler.write-back.updates").tag("result", result).counter().count();
+    }
+
+    private PaymentOrderExecutionResponse paymentOrderExecutionResponse(String id) {
+        ScheduledPaymentOrder scheduledPaymentOrder = new ScheduledPaymentOrder();
+        scheduledPaymentOrder.setId(id);
+
+        PaymentOrderExecutionResponse paymentOrderExecutionResponse = new PaymentOrderExecutionResponse();
+        paymentOrderExecutionResponse.setOriginalScheduledPaymentOrder(scheduledPaymentOrder);
+
+        return paymentOrderExecutionResponse;
+    }
+}
@@ -0,0 +1,193 @@
+package com.backbase.accelerators.payment.writeback;
+
+import com.backbase.accelerators.payment.client.ScheduledPaymentOrderServiceClient;
+import com.backbase.accelerators.payment.config.PaymentSchedulerProperties;
+import com.backbase.accelerators.payment.journal.RunJournal;
+import com.backbase.accelerators.payment.mapper.PaymentOrderMapper;
+import com.backbase.accelerators.payment.metrics.PaymentSchedulerMetrics;
+import com.backbase.accelerators.payment.model.PaymentOrderExecutionResponse;
+import com.backbase.payments.scheduled.v1.service.model.PostScheduledPaymentOrderTransactionRequest;
+import com.backbase.payments.scheduled.v1.service.model.PostScheduledPaymentOrderTransactionResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TransactionRecordWriterTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Mock
+    private ScheduledPaymentOrderServiceClient scheduledPaymentOrderServiceClient;
+
+    @Mock
+    private PaymentOrderMapper paymentOrderMapper;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private TransactionRecordWriter transactionRecordWriter;
+
+    @After
+    public void tearDown() {
+        if (transactionRecordWriter != null) {
+            transactionRecordWriter.shutdown();
+        }
+    }
+
+    @Test
+    public void should_write_buffered_records_on_flush() {
+        transactionRecordWriter = transactionRecordWriter(properties(null));
+        when(paymentOrderMapper.toPostScheduledPaymentOrderTransactionRequest(any()))
+                .thenReturn(request("1"), request("2"), request("3"));
+        when(scheduledPaymentOrderServiceClient.createScheduledPaymentOrderTransaction(any(PostScheduledPaymentOrderTransactionRequest.class)))
+                .thenReturn(new PostScheduledPaymentOrderTransactionResponse());
+
+        transactionRecordWriter.submit(new PaymentOrderExecutionResponse());
+        transactionRecordWriter.submit(new PaymentOrderExecutionResponse());
+        transactionRecordWriter.submit(new PaymentOrderExecutionResponse());
+        transactionRecordWriter.flush();
+
+        verify(scheduledPaymentOrderServiceClient, times(3))
+                .createScheduledPaymentOrderTransaction(any(PostScheduledPaymentOrderTransactionRequest.class));
+        verify(scheduledPaymentOrderServiceClient, never())
+                .createScheduledPaymentOrderTransaction(any(PaymentOrderExecutionResponse.class));
+        assertEquals(3, meterRegistry.get("payment.scheduler.transaction-records.lag").timer().count());
+        assertEquals(0.0, meterRegistry.get("payment.scheduler.transaction-records.queued").gauge().value(), 0.0);
+    }
+
+    @Test
+    public void should_retry_failed_records() {
+        transactionRecordWriter = transactionRecordWriter(properties(null));
+        when(paymentOrderMapper.toPostScheduledPaymentOrderTransactionRequest(any())).thenReturn(request("1"));
+        when(scheduledPaymentOrderServiceClient.createScheduledPaymentOrderTransaction(any(PostScheduledPaymentOrderTransactionRequest.class)))
+                .thenThrow(new IllegalStateException("scheduled payment order service unavailable"))
+                .thenReturn(new PostScheduledPaymentOrderTransactionResponse());
+
+        transactionRecordWriter.submit(new PaymentOrderExecutionResponse());
+        transactionRecordWriter.flush();
+
+        verify(scheduledPaymentOrderServiceClient, times(2))
+                .createScheduledPaymentOrderTransaction(any(PostScheduledPaymentOrderTransactionRequest.class));
+    }
+
+    @Test
+    public void should_back_off_before_retrying_failed_record() {
+        PaymentSchedulerProperties paymentSchedulerProperties = properties(null);
+        paymentSchedulerProperties.getTransactionRecords().setRetryBackoff(Duration.ofMillis(200));
+        transactionRecordWriter = transactionRecordWriter(paymentSchedulerProperties);
+        when(paymentOrderMapper.toPostScheduledPaymentOrderTransactionRequest(any())).thenReturn(request("1"));
+        List<Long> attemptNanos = new CopyOnWriteArrayList<>();
+        when(scheduledPaymentOrderServiceClient.createScheduledPaymentOrderTransaction(any(PostScheduledPaymentOrderTransactionRequest.class)))
+                .thenAnswer(invocation -> {
+                    attemptNanos.add(System.nanoTime());
+                    if (attemptNanos.size() == 1) {
+                        throw new IllegalStateException("scheduled payment order service unavailable");
+                    }
+                    return new PostScheduledPaymentOrderTransactionResponse();
+                });
+
+        transactionRecordWriter.submit(new PaymentOrderExecutionResponse());
+        transactionRecordWriter.flush();
+
+        assertEquals(2, attemptNanos.size());
+        // Equal jitter keeps at least half of the backoff.
+        assertTrue(attemptNanos.get(1) - attemptNanos.get(0) >= TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    public void should_spill_records_that_cannot_be_written() throws Exception {
+        Path spillFile = temporaryFolder.getRoot().toPath().resolve("transaction-records.jsonl");
+        transactionRecordWriter = transactionRecordWriter(properties(spillFile));
+        when(paymentOrderMapper.toPostScheduledPaymentOrderTransactionRequest(any())).thenReturn(request("1"));
+        when(scheduledPaymentOrderServiceClient.createScheduledPaymentOrderTransaction(any(PostScheduledPaymentOrderTransactionRequest.class)))
+                .thenThrow(new IllegalStateException("scheduled payment order service unavailable"));
+
+        transactionRecordWriter.submit(new PaymentOrderExecutionResponse());
+        transactionRecordWriter.flush();
+        transactionRecordWriter.shutdown();
+        transactionRecordWriter = null;
+
+        List<PostScheduledPaymentOrderTransactionRequest> spilled =
+                new TransactionRecordSpillFile(spillFile, objectMapper).drain();
+        assertEquals(1, spilled.size());
+        assertEquals("1", spilled.get(0).getScheduledPaymentOrderId());
+    }
+
+    @Test
+    public void should_replay_spilled_records() {
+        Path spillFile = temporaryFolder.getRoot().toPath().resolve("transaction-records.jsonl");
+        new TransactionRecordSpillFile(spillFile, objectMapper).append(request("1"));
+        when(scheduledPaymentOrderServiceClient.createScheduledPaymentOrderTransaction(any(PostScheduledPaymentOrderTransactionRequest.class)))
+                .thenReturn(new PostScheduledPaymentOrderTransactionResponse());
+
+        transactionRecordWriter = transactionRecordWriter(properties(spillFile));
+        transactionRecordWriter.flush();
+
+        verify(scheduledPaymentOrderServiceClient, times(1)).createScheduledPaymentOrderTransaction(
+                argThat((PostScheduledPaymentOrderTransactionRequest request) -> "1".equals(request.getScheduledPaymentOrderId())));
+        assertTrue(new TransactionRecordSpillFile(spillFile, objectMapper).isEmpty());
+    }
+
+    @Test
+    public void should_write_synchronously_when_disabled() {
+        PaymentSchedulerProperties paymentSchedulerProperties = properties(null);
+        paymentSchedulerProperties.getTransactionRecords().setEnabled(false);
+        transactionRecordWriter = transactionRecordWriter(paymentSchedulerProperties);
+
+        PaymentOrderExecutionResponse paymentOrderExecutionResponse = new PaymentOrderExecutionResponse();
+        transactionRecordWriter.submit(paymentOrderExecutionResponse);
+
+        verify(scheduledPaymentOrderServiceClient).createScheduledPaymentOrderTransaction(paymentOrderExecutionResponse);
+    }
+
+    private TransactionRecordWriter transactionRecordWriter(PaymentSchedulerProperties paymentSchedulerProperties) {
+        return new TransactionRecordWriter(
+                scheduledPaymentOrderServiceClient,
+                paymentOrderMapper,
+                new PaymentSchedulerMetrics(meterRegistry),
+                paymentSchedulerProperties,
+                objectMapper,
+                new RunJournal(paymentSchedulerProperties, objectMapper));
+    }
+
+    private PaymentSchedulerProperties properties(Path spillFile) {
+        PaymentSchedulerProperties paymentSchedulerProperties = new PaymentSchedulerProperties();
+        paymentSchedulerProperties.getTransactionRecords().setEnabled(true);
+        paymentSchedulerProperties.getTransactionRecords().setBatchSize(2);
+        paymentSchedulerProperties.getTransactionRecords().setMaxAttempts(2);
+        paymentSchedulerProperties.getTransactionRecords().setRetryBackoff(Duration.ofMillis(10));
+        paymentSchedulerProperties.getTransactionRecords().setSpillFile(spillFile == null ? null : spillFile.toString());
+
+        return paymentSchedulerProperties;
+    }
+
+    private PostScheduledPaymentOrderTransactionRequest request(String scheduledPaymentOrderId) {
+        PostScheduledPaymentOrderTransactionRequest request = new PostScheduledPaymentOrderTransactionRequest();
+        request.setScheduledPaymentOrderId(scheduledPaymentOrderId);
+
+        return request;
+    }
+}